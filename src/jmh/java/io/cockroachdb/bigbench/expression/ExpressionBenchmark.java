@@ -0,0 +1,70 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing, interpretation and compiled evaluation of the default column
+ * expressions produced by the schema exporter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+    @Param({
+            "pow(2,3)",
+            "randomString(32)",
+            "randomBigDecimal(0,1000000,2)",
+            "randomDateTime()",
+            "randomJson(1,1)"
+    })
+    public String expression;
+
+    private ExpressionRegistry registry;
+
+    private CompiledExpression tree;
+
+    private CompiledExpression bytecode;
+
+    @Setup
+    public void setup() {
+        registry = ExpressionRegistryBuilder.overlay(ExpressionRegistryBuilder.buildShared(null), null);
+        tree = Expression.compile(expression, registry, ExpressionBackend.tree);
+        bytecode = Expression.compile(expression, registry, ExpressionBackend.bytecode);
+    }
+
+    @Benchmark
+    public CompiledExpression parse() {
+        Expression.getCache().clear();
+        return Expression.compile(expression, registry);
+    }
+
+    @Benchmark
+    public Object interpret() {
+        return Expression.evaluate(expression, registry);
+    }
+
+    @Benchmark
+    public Object evaluateTree() {
+        return tree.evaluate();
+    }
+
+    @Benchmark
+    public Object evaluateBytecode() {
+        return bytecode.evaluate();
+    }
+}
@@ -0,0 +1,55 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of calling a built-in function through the varargs entry point
+ * compared to the arity-specialized one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionDispatchBenchmark {
+    private Function varargs;
+
+    private Function.Binary binary;
+
+    private Object arg1;
+
+    private Object arg2;
+
+    @Setup
+    public void setup() {
+        FunctionDef functionDef = ExpressionRegistryBuilder.buildShared(null)
+                .findFunction("pow")
+                .orElseThrow();
+        varargs = functionDef.getFunction();
+        binary = functionDef.getBinary();
+        arg1 = 2.0;
+        arg2 = 3.0;
+    }
+
+    @Benchmark
+    public Object callVarargs() throws Exception {
+        return varargs.call(arg1, arg2);
+    }
+
+    @Benchmark
+    public Object callBinary() throws Exception {
+        return binary.call(arg1, arg2);
+    }
+}
@@ -0,0 +1,38 @@
+package io.cockroachdb.bigbench.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.cockroachdb.bigbench.expression.Expression;
+import io.cockroachdb.bigbench.expression.ExpressionCache;
+import io.cockroachdb.bigbench.expression.ExpressionRegistry;
+import io.cockroachdb.bigbench.expression.ExpressionRegistryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class ExpressionConfiguration {
+    @Bean
+    public ExpressionRegistry expressionRegistry(DataSource dataSource) {
+        return ExpressionRegistryBuilder.buildShared(dataSource);
+    }
+
+    @Bean
+    public MeterBinder expressionCacheMetrics() {
+        final ExpressionCache cache = Expression.getCache();
+        return meterRegistry -> {
+            FunctionCounter.builder("bigbench.expression.cache.hits", cache, ExpressionCache::hits)
+                    .description("Expression parse cache hits")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bigbench.expression.cache.misses", cache, ExpressionCache::misses)
+                    .description("Expression parse cache misses")
+                    .register(meterRegistry);
+            Gauge.builder("bigbench.expression.cache.size", cache, ExpressionCache::size)
+                    .description("Expression parse cache size")
+                    .register(meterRegistry);
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.function.Consumer;
+
+/**
+ * An expression compiled into a tree of nodes that can be evaluated
+ * any number of times without re-parsing. Variables and functions are
+ * bound once from the registry given at compile time.
+ * <p/>
+ * Nodes keep no evaluation state, so instances can be shared between threads
+ * unless any of the bound functions keep state.
+ *
+ * @see Expression#compile(String, ExpressionRegistry)
+ */
+public class CompiledExpression {
+    private final String expression;
+
+    private final ExpressionNode root;
+
+    private final boolean reproducible;
+
+    CompiledExpression(String expression, ExpressionNode root, boolean reproducible) {
+        this.expression = expression;
+        this.root = root;
+        this.reproducible = reproducible;
+    }
+
+    /**
+     * Evaluate the compiled expression.
+     *
+     * @return the result object of the expression
+     * @throws ExpressionException on type conversion or function call errors
+     */
+    public Object evaluate() {
+        return root.evaluate();
+    }
+
+    /**
+     * Evaluate the compiled expression.
+     *
+     * @param type the type that the result object is expected to match
+     * @return the result object of the expression
+     * @throws ExpressionException on type conversion or function call errors
+     */
+    public <T> T evaluate(Class<T> type) {
+        return root.evaluate(type);
+    }
+
+    /**
+     * Evaluate the compiled expression a number of times in a tight loop.
+     *
+     * @param sink  the consumer of each result object
+     * @param count number of evaluations
+     * @throws ExpressionException on type conversion or function call errors
+     */
+    public void evaluate(Consumer<Object> sink, int count) {
+        for (int i = 0; i < count; i++) {
+            sink.accept(root.evaluate());
+        }
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return true if the expression only calls functions that give the same results
+     * for the same seeded random source, independent of the clock, host or database
+     */
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
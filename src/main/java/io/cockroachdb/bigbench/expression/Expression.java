@@ -3,18 +3,30 @@ package io.cockroachdb.bigbench.expression;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.springframework.util.StringUtils;
 
 /**
  * Parse and evaluate logical expressions.
  * <p/>
- * See the ANTLR4 grammar for specifics.
+ * See the ANTLR4 grammar for specifics. Parse trees are cached by source text
+ * so repeated evaluation, validation and compilation of the same expression
+ * only parses once.
  *
  * @author Kai Niemi
  */
 public class Expression {
     public static final ExpressionRegistry EMPTY_REGISTRY = new DefaultExpressionRegistry();
 
+    private static final ExpressionCache CACHE = new ExpressionCache(ExpressionCache.DEFAULT_CAPACITY);
+
+    /**
+     * @return the shared parse tree cache
+     */
+    public static ExpressionCache getCache() {
+        return CACHE;
+    }
+
     /**
      * Parse an expression for syntax validation.
      *
@@ -70,15 +82,59 @@ public class Expression {
      * @throws ExpressionException if the expression break grammar rules
      */
     public static <T> T evaluate(String expression, Class<T> type, ExpressionRegistry registry) {
-        ExpressionParser parser = createParser(expression);
+        ExpressionCache.ParsedExpression parsed = parse(expression);
 
-        ExpressionParseTreeListener listener = new ExpressionParseTreeListener(parser, registry);
-        parser.addParseListener(listener);
-        parser.root();
+        ExpressionParseTreeListener listener = new ExpressionParseTreeListener(parsed.parser(), registry);
+        ParseTreeWalker.DEFAULT.walk(listener, parsed.root());
 
         return type.cast(listener.popFinal());
     }
 
+    /**
+     * Parse and compile an expression for repeated evaluation without
+     * involving the parser.
+     *
+     * @param expression the expression
+     * @param registry   callback for resolving expression variables and functions at compile time
+     * @return the compiled expression
+     * @throws ExpressionException if the expression break grammar rules
+     */
+    public static CompiledExpression compile(String expression, ExpressionRegistry registry) {
+        return compile(expression, registry, ExpressionBackend.tree);
+    }
+
+    /**
+     * Parse and compile an expression for repeated evaluation without
+     * involving the parser.
+     *
+     * @param expression the expression
+     * @param registry   callback for resolving expression variables and functions at compile time
+     * @param backend    the evaluation back end
+     * @return the compiled expression
+     * @throws ExpressionException if the expression break grammar rules
+     */
+    public static CompiledExpression compile(String expression, ExpressionRegistry registry,
+                                             ExpressionBackend backend) {
+        ExpressionCache.ParsedExpression parsed = parse(expression);
+
+        ExpressionCompiler compiler = new ExpressionCompiler(parsed.parser(), registry);
+        ParseTreeWalker.DEFAULT.walk(compiler, parsed.root());
+
+        ExpressionNode root = compiler.popFinal();
+        if (backend == ExpressionBackend.bytecode) {
+            root = ExpressionClassGenerator.generate(root);
+        }
+
+        return new CompiledExpression(expression, root, compiler.isReproducible());
+    }
+
+    private static ExpressionCache.ParsedExpression parse(String expression) {
+        return CACHE.get(expression, text -> {
+            ExpressionParser parser = createParser(text);
+            return new ExpressionCache.ParsedExpression(parser, parser.root());
+        });
+    }
+
     private static ExpressionParser createParser(String expression) {
         final FailFastErrorStrategy errorStrategy = new FailFastErrorStrategy();
 
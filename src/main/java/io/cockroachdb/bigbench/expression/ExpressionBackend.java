@@ -0,0 +1,16 @@
+package io.cockroachdb.bigbench.expression;
+
+/**
+ * Enumeration of back ends for evaluating compiled expressions.
+ */
+public enum ExpressionBackend {
+    /**
+     * Walk the node tree on each evaluation.
+     */
+    tree,
+    /**
+     * Evaluate through a generated hidden class invoking a method handle
+     * chain built from the node tree.
+     */
+    bytecode
+}
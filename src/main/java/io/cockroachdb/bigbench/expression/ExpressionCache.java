@@ -0,0 +1,88 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.antlr.v4.runtime.Parser;
+
+/**
+ * A bounded LRU cache of parse trees keyed by expression source text. Parse trees
+ * do not depend on any registry, so cached entries are shared between the
+ * interpreter and the compiler, and between registries.
+ */
+public class ExpressionCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * A parse tree and the parser that produced it, retained for error reporting.
+     */
+    record ParsedExpression(Parser parser, ExpressionParser.RootContext root) {
+    }
+
+    private final int capacity;
+
+    private final Map<String, ParsedExpression> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public ExpressionCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity < 0");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedExpression> eldest) {
+                return size() > ExpressionCache.this.capacity;
+            }
+        };
+    }
+
+    ParsedExpression get(String expression, Function<String, ParsedExpression> parseFunction) {
+        ParsedExpression parsed;
+        synchronized (entries) {
+            parsed = entries.get(expression);
+        }
+        if (parsed != null) {
+            hits.increment();
+            return parsed;
+        }
+
+        misses.increment();
+
+        // Parse outside the lock, a concurrent miss on the same text just wastes a parse
+        parsed = parseFunction.apply(expression);
+        synchronized (entries) {
+            entries.put(expression, parsed);
+        }
+        return parsed;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.ConstantDynamic;
+import org.springframework.asm.Handle;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+/**
+ * Generates a hidden class per compiled expression. The class implements
+ * {@link Supplier} and invokes the method handle chain of the expression tree,
+ * loaded as a class data constant. Since the handle is a true constant to the JIT,
+ * the entire chain can be inlined into the call site of {@code get()}.
+ */
+final class ExpressionClassGenerator {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String CLASS_NAME
+            = ExpressionClassGenerator.class.getPackageName().replace('.', '/') + "/GeneratedExpression";
+
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+
+    private ExpressionClassGenerator() {
+    }
+
+    static ExpressionNode generate(ExpressionNode root) {
+        MethodHandle target = root.toMethodHandle();
+        try {
+            MethodHandles.Lookup lookup = LOOKUP.defineHiddenClassWithClassData(classBytes(), target, true);
+            Supplier<?> supplier = (Supplier<?>) lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+            return new ExpressionNode.Generated(supplier, target, root.token);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to generate expression class", e);
+        }
+    }
+
+    private static byte[] classBytes() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[] {"java/util/function/Supplier"});
+
+        MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        Handle classData = new Handle(Opcodes.H_INVOKESTATIC,
+                "java/lang/invoke/MethodHandles",
+                "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;",
+                false);
+
+        MethodVisitor get = cw.visitMethod(Opcodes.ACC_PUBLIC, "get", "()Ljava/lang/Object;", null, null);
+        get.visitCode();
+        get.visitLdcInsn(new ConstantDynamic("_", "L" + METHOD_HANDLE + ";", classData));
+        get.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", "()Ljava/lang/Object;", false);
+        get.visitInsn(Opcodes.ARETURN);
+        get.visitMaxs(0, 0);
+        get.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
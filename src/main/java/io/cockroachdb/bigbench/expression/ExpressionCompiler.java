@@ -0,0 +1,382 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+
+import io.cockroachdb.bigbench.expression.ExpressionNode.ArithmeticOperator;
+import io.cockroachdb.bigbench.expression.ExpressionNode.ComparisonOperator;
+
+/**
+ * ANTLR4 parse tree listener that compiles expressions into a tree
+ * of {@link ExpressionNode}s accordingly to grammar rules. Variables and
+ * functions are resolved against the registry at compile time.
+ *
+ * @see ExpressionParseTreeListener
+ */
+class ExpressionCompiler extends ExpressionParserBaseListener {
+    private static String stripQuotes(String s) {
+        return s.replaceAll("(^')|('$)", "");
+    }
+
+    private final Parser parser;
+
+    private final ExpressionRegistry registry;
+
+    private final Deque<ExpressionNode> stack = new ArrayDeque<>();
+
+    private boolean reproducible = true;
+
+    ExpressionCompiler(Parser parser, ExpressionRegistry registry) {
+        this.parser = parser;
+        this.registry = registry;
+    }
+
+    /**
+     * @return true if all called functions are reproducible for a seeded random source
+     */
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
+    public ExpressionNode popFinal() {
+        if (stack.size() != 1) {
+            throw ExpressionException.from(parser, "Expected a single expression but got " + stack.size());
+        }
+        return stack.pop();
+    }
+
+    private void push(ExpressionNode node) {
+        this.stack.push(node.fold());
+    }
+
+    private ExpressionNode pop() {
+        return this.stack.pop();
+    }
+
+    private ComparisonOperator comparisonOperator(ExpressionParser.Comp_operatorContext op) {
+        if (Objects.nonNull(op.GT())) {
+            return ComparisonOperator.GT;
+        } else if (Objects.nonNull(op.GE())) {
+            return ComparisonOperator.GE;
+        } else if (Objects.nonNull(op.LT())) {
+            return ComparisonOperator.LT;
+        } else if (Objects.nonNull(op.LE())) {
+            return ComparisonOperator.LE;
+        } else if (Objects.nonNull(op.EQ())) {
+            return ComparisonOperator.EQ;
+        } else if (Objects.nonNull(op.NE())) {
+            return ComparisonOperator.NE;
+        }
+        throw ExpressionException.from(parser,
+                "Unknown comparison operator: " + op.getText(), op.getStop());
+    }
+
+    private void compareAndPush(ExpressionParser.Comp_operatorContext op, ParserRuleContext ctx) {
+        ExpressionNode right = pop();
+        ExpressionNode left = pop();
+        push(new ExpressionNode.Comparison(comparisonOperator(op), left, right, ctx.getStop()));
+    }
+
+    private void arithmeticAndPush(ArithmeticOperator operator, ParserRuleContext ctx) {
+        ExpressionNode right = pop();
+        ExpressionNode left = pop();
+        push(new ExpressionNode.Arithmetic(operator, left, right, ctx.getStop()));
+    }
+
+    @Override
+    public void exitConditional_expr(ExpressionParser.Conditional_exprContext ctx) {
+        ExpressionNode otherwise = pop();
+        ExpressionNode outcome = pop();
+        ExpressionNode condition = pop();
+
+        push(new ExpressionNode.Conditional(condition, outcome, otherwise, ctx.getStop()));
+    }
+
+    @Override
+    public void exitComparisonExpressionStringList(ExpressionParser.ComparisonExpressionStringListContext ctx) {
+        Collection<?> values;
+
+        if (ctx.right instanceof ExpressionParser.StringArgumentListContext list) {
+            List<Object> items = new ArrayList<>();
+            list.stringLiteral().forEach(literal -> items.add(0, pop().evaluate()));
+            values = items;
+        } else {
+            String id = ((ExpressionParser.StringListVariableContext) ctx.right).Identifier().getText();
+            Object value = registry.findVariable(id)
+                    .orElseThrow(() -> ExpressionException.from(parser, "No such variable: " + id,
+                            ctx.right.getStart()));
+            if (!(value instanceof Collection<?> collection)) {
+                throw ExpressionException.from(parser, "Variable is not a collection: " + id, ctx.getStop());
+            }
+            values = collection;
+        }
+
+        push(new ExpressionNode.In(pop(), values, ctx.getStop()));
+    }
+
+    @Override
+    public void exitArithmeticMultiplicationOrDivision(
+            ExpressionParser.ArithmeticMultiplicationOrDivisionContext ctx) {
+        arithmeticAndPush(Objects.nonNull(ctx.MULT()) ? ArithmeticOperator.MULT : ArithmeticOperator.DIV, ctx);
+    }
+
+    @Override
+    public void exitStringPlus(ExpressionParser.StringPlusContext ctx) {
+        ExpressionNode right = pop();
+        ExpressionNode left = pop();
+
+        push(new ExpressionNode.Concat(left, right, ctx.getStop()));
+    }
+
+    @Override
+    public void exitArithmeticPlusOrMinus(ExpressionParser.ArithmeticPlusOrMinusContext ctx) {
+        arithmeticAndPush(Objects.nonNull(ctx.PLUS()) ? ArithmeticOperator.PLUS : ArithmeticOperator.MINUS, ctx);
+    }
+
+    @Override
+    public void exitArithmeticUnaryMinusOrPlus(ExpressionParser.ArithmeticUnaryMinusOrPlusContext ctx) {
+        ExpressionNode right = pop();
+
+        if (Objects.nonNull(ctx.MINUS())) {
+            push(new ExpressionNode.Negate(right, ctx.getStop()));
+        } else {
+            push(new ExpressionNode.Numeric(right, ctx.getStop()));
+        }
+    }
+
+    @Override
+    public void exitArithmeticPower(ExpressionParser.ArithmeticPowerContext ctx) {
+        arithmeticAndPush(ArithmeticOperator.POW, ctx);
+    }
+
+    @Override
+    public void exitArithmeticMinOrMax(ExpressionParser.ArithmeticMinOrMaxContext ctx) {
+        arithmeticAndPush(Objects.nonNull(ctx.MIN()) ? ArithmeticOperator.MIN : ArithmeticOperator.MAX, ctx);
+    }
+
+    @Override
+    public void exitArithmeticModulus(ExpressionParser.ArithmeticModulusContext ctx) {
+        arithmeticAndPush(ArithmeticOperator.MOD, ctx);
+    }
+
+    @Override
+    public void exitStringLiteral(ExpressionParser.StringLiteralContext ctx) {
+        String text = ctx.getText();
+
+        if (!text.isEmpty()) {
+            push(new ExpressionNode.Constant(text.substring(1, text.length() - 1), ctx.getStop()));
+        } else {
+            push(new ExpressionNode.Constant("", ctx.getStop()));
+        }
+    }
+
+    @Override
+    public void exitDecimalLiteral(ExpressionParser.DecimalLiteralContext ctx) {
+        try {
+            String text = ctx.getText();
+            if (text.indexOf('.') < 0 && text.length() < 19) {
+                push(new ExpressionNode.Constant(Long.parseLong(text), ctx.getStop()));
+            } else {
+                push(new ExpressionNode.Constant(new BigDecimal(text), ctx.getStop()));
+            }
+        } catch (NumberFormatException e) {
+            throw ExpressionException.from(parser, e, ctx.getStop());
+        }
+    }
+
+    @Override
+    public void exitDateTimeLiteral(ExpressionParser.DateTimeLiteralContext ctx) {
+        try {
+            String dt = stripQuotes(ctx.DateTimeLiteral().getText());
+            push(new ExpressionNode.Constant(LocalDateTime.parse(dt.replace(" ", "T")), ctx.getStop()));
+        } catch (DateTimeParseException e) {
+            throw ExpressionException.from(parser, e, ctx.getStop());
+        }
+    }
+
+    @Override
+    public void exitBooleanLiteral(ExpressionParser.BooleanLiteralContext ctx) {
+        String b = ctx.BooleanLiteral().getText();
+        push(new ExpressionNode.Constant(Boolean.parseBoolean(b), ctx.getStop()));
+    }
+
+    @Override
+    public void exitDateLiteral(ExpressionParser.DateLiteralContext ctx) {
+        try {
+            String dt = stripQuotes(ctx.DateLiteral().getText());
+            push(new ExpressionNode.Constant(LocalDate.parse(dt), ctx.getStop()));
+        } catch (DateTimeParseException e) {
+            throw ExpressionException.from(parser, e, ctx.getStop());
+        }
+    }
+
+    @Override
+    public void exitTimeLiteral(ExpressionParser.TimeLiteralContext ctx) {
+        try {
+            String dt = stripQuotes(ctx.TimeLiteral().getText());
+            push(new ExpressionNode.Constant(LocalTime.parse(dt), ctx.getStop()));
+        } catch (DateTimeParseException e) {
+            throw ExpressionException.from(parser, e, ctx.getStop());
+        }
+    }
+
+    @Override
+    public void exitFunction(ExpressionParser.FunctionContext ctx) {
+        int arity = ctx.functionArguments().functionArgument().size();
+
+        ExpressionNode[] args = new ExpressionNode[arity];
+        for (int i = arity - 1; i >= 0; i--) {
+            args[i] = pop();
+        }
+
+        String id = ctx.Identifier().getText();
+
+        FunctionDef functionDef = registry.findFunction(id).orElseThrow(() ->
+                ExpressionException.from(parser, "No such function: " + id, ctx.getStart()));
+
+        if (!functionDef.acceptsArity(arity)) {
+            throw ExpressionException.from(parser,
+                    "Function " + id + " does not take " + arity + " argument(s)", ctx.getStart());
+        }
+
+        reproducible &= functionDef.isReproducible();
+
+        push(functionCall(functionDef, args, ctx.getStop()));
+    }
+
+    private ExpressionNode functionCall(FunctionDef functionDef, ExpressionNode[] args, Token token) {
+        Volatility volatility = functionDef.getVolatility();
+
+        if (functionDef.getLongBinder() != null && args.length > 0 && ExpressionNode.isConstant(args)) {
+            Object[] values = Arrays.stream(args).map(ExpressionNode::evaluate).toArray();
+            try {
+                return new ExpressionNode.LongNullaryCall(functionDef.getLongBinder().bind(values),
+                        volatility, token);
+            } catch (Exception e) {
+                // Leave the call unbound, so that errors surface at evaluation time
+            }
+        }
+
+        if (args.length == 0) {
+            if (functionDef.getLongNullary() != null) {
+                return new ExpressionNode.LongNullaryCall(functionDef.getLongNullary(), volatility, token);
+            }
+            if (functionDef.getDoubleNullary() != null) {
+                return new ExpressionNode.DoubleNullaryCall(functionDef.getDoubleNullary(), volatility, token);
+            }
+            if (functionDef.getNullary() != null) {
+                return new ExpressionNode.NullaryCall(functionDef.getNullary(), volatility, token);
+            }
+        }
+        if (args.length == 1) {
+            if (functionDef.getDoubleUnaryOperator() != null) {
+                return new ExpressionNode.DoubleUnaryCall(functionDef.getDoubleUnaryOperator(), volatility, args,
+                        token);
+            }
+            if (functionDef.getLongUnary() != null) {
+                return new ExpressionNode.LongArgumentCall(functionDef.getLongUnary(), null, volatility, args,
+                        token);
+            }
+            if (functionDef.getDoubleUnary() != null) {
+                return new ExpressionNode.DoubleArgumentCall(functionDef.getDoubleUnary(), null, volatility, args,
+                        token);
+            }
+            if (functionDef.getUnary() != null) {
+                return new ExpressionNode.UnaryCall(functionDef.getUnary(), volatility, args, token);
+            }
+        }
+        if (args.length == 2) {
+            if (functionDef.getLongBinaryOperator() != null) {
+                return new ExpressionNode.LongBinaryCall(functionDef.getLongBinaryOperator(), volatility, args,
+                        token);
+            }
+            if (functionDef.getDoubleBinaryOperator() != null) {
+                return new ExpressionNode.DoubleBinaryCall(functionDef.getDoubleBinaryOperator(), volatility, args,
+                        token);
+            }
+            if (functionDef.getLongBinary() != null) {
+                return new ExpressionNode.LongArgumentCall(null, functionDef.getLongBinary(), volatility, args,
+                        token);
+            }
+            if (functionDef.getDoubleBinary() != null) {
+                return new ExpressionNode.DoubleArgumentCall(null, functionDef.getDoubleBinary(), volatility, args,
+                        token);
+            }
+            if (functionDef.getBinary() != null) {
+                return new ExpressionNode.BinaryCall(functionDef.getBinary(), volatility, args, token);
+            }
+        }
+        if (args.length == 3 && functionDef.getTernary() != null) {
+            return new ExpressionNode.TernaryCall(functionDef.getTernary(), volatility, args, token);
+        }
+        return new ExpressionNode.FunctionCall(functionDef.getFunction(), volatility, args, token);
+    }
+
+    @Override
+    public void exitIdentifier(ExpressionParser.IdentifierContext ctx) {
+        String id = ctx.Identifier().getText();
+        push(new ExpressionNode.Constant(registry.findVariable(id)
+                .orElseThrow(() -> ExpressionException.from(parser, "No such variable: " + id, ctx.getStart())),
+                ctx.getStop()));
+    }
+
+    @Override
+    public void exitLogicalExpressionAnd(ExpressionParser.LogicalExpressionAndContext ctx) {
+        ExpressionNode right = pop();
+        ExpressionNode left = pop();
+
+        push(new ExpressionNode.And(left, right, ctx.getStop()));
+    }
+
+    @Override
+    public void exitLogicalExpressionNot(ExpressionParser.LogicalExpressionNotContext ctx) {
+        push(new ExpressionNode.Not(pop(), ctx.getStop()));
+    }
+
+    @Override
+    public void exitLogicalExpressionOr(ExpressionParser.LogicalExpressionOrContext ctx) {
+        ExpressionNode right = pop();
+        ExpressionNode left = pop();
+
+        push(new ExpressionNode.Or(left, right, ctx.getStop()));
+    }
+
+    @Override
+    public void exitComparisonExpressionOperand(ExpressionParser.ComparisonExpressionOperandContext ctx) {
+        compareAndPush(ctx.op, ctx);
+    }
+
+    @Override
+    public void exitComparisonExpressionDate(ExpressionParser.ComparisonExpressionDateContext ctx) {
+        compareAndPush(ctx.op, ctx);
+    }
+
+    @Override
+    public void exitComparisonExpressionTime(ExpressionParser.ComparisonExpressionTimeContext ctx) {
+        compareAndPush(ctx.op, ctx);
+    }
+
+    @Override
+    public void exitComparisonExpressionDateTime(ExpressionParser.ComparisonExpressionDateTimeContext ctx) {
+        compareAndPush(ctx.op, ctx);
+    }
+
+    @Override
+    public void exitComparisonExpressionString(ExpressionParser.ComparisonExpressionStringContext ctx) {
+        compareAndPush(ctx.op, ctx);
+    }
+}
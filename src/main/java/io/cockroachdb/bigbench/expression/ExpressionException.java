@@ -50,6 +50,22 @@ public class ExpressionException extends RuntimeException {
                 " in '" + line + "'");
     }
 
+    public static ExpressionException from(Throwable cause, Token token) {
+        return new ExpressionException(cause.getMessage() + near(token), cause);
+    }
+
+    public static ExpressionException from(String message, Token token) {
+        return new ExpressionException(message + near(token));
+    }
+
+    private static String near(Token token) {
+        return ". Near token '" +
+                token.getText() +
+                "' at position " +
+                token.getCharPositionInLine() +
+                " in '" + token.getInputStream().toString() + "'";
+    }
+
     public ExpressionException(String message) {
         super(message);
     }
@@ -0,0 +1,1540 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.antlr.v4.runtime.Token;
+
+/**
+ * A node in a compiled expression tree. Nodes are created by the
+ * {@link ExpressionCompiler} and evaluated without involving the
+ * lexer or parser.
+ * <p/>
+ * Sub-trees of long or double typed calls, constants and arithmetic are folded into
+ * {@link LongNode}s and {@link DoubleNode}s that evaluate to primitives, so that
+ * values are only boxed where they leave the typed sub-tree.
+ */
+abstract class ExpressionNode {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle BOX_LONG;
+
+    private static final MethodHandle BOX_DOUBLE;
+
+    static {
+        try {
+            BOX_LONG = LOOKUP.findStatic(Long.class, "valueOf", MethodType.methodType(Long.class, long.class))
+                    .asType(MethodType.methodType(Object.class, long.class));
+            BOX_DOUBLE = LOOKUP.findStatic(Double.class, "valueOf", MethodType.methodType(Double.class, double.class))
+                    .asType(MethodType.methodType(Object.class, double.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static Object normalize(Object o) {
+        if (o instanceof Number n) {
+            return NumericOperations.widen(n);
+        }
+        return o;
+    }
+
+    protected final Token token;
+
+    protected ExpressionNode(Token token) {
+        this.token = token;
+    }
+
+    /**
+     * Evaluate this node.
+     *
+     * @return the outcome of the node, numbers are either Long, Double or BigDecimal
+     * @throws ExpressionException on type conversion or function call errors
+     */
+    abstract Object evaluate();
+
+    <T> T evaluate(Class<T> type) {
+        return cast(evaluate(), type);
+    }
+
+    <T> T cast(Object value, Class<T> type) {
+        try {
+            return type.cast(value);
+        } catch (ClassCastException e) {
+            throw ExpressionException.from("Cannot cast '" + value + "' of type "
+                    + value.getClass().getSimpleName() + " into " + type.getSimpleName(), token);
+        }
+    }
+
+    boolean test(Object value) {
+        return cast(value, Boolean.class);
+    }
+
+    /**
+     * Fold this node into a constant if its outcome is known at compile time.
+     *
+     * @return a constant node or this node
+     */
+    ExpressionNode fold() {
+        return this;
+    }
+
+    /**
+     * Evaluate this node at compile time if all operands are constants. Nodes that
+     * fail to evaluate are left as is, so that errors surface at evaluation time.
+     */
+    protected ExpressionNode foldIfConstant(ExpressionNode... operands) {
+        if (!isConstant(operands)) {
+            return this;
+        }
+        try {
+            return new Constant(evaluate(), token);
+        } catch (ExpressionException | ArithmeticException e) {
+            return this;
+        }
+    }
+
+    protected static boolean isConstant(ExpressionNode... operands) {
+        for (ExpressionNode operand : operands) {
+            if (!(operand instanceof Constant)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fold a function call by its volatility.
+     */
+    protected ExpressionNode foldCall(Volatility volatility, ExpressionNode[] args) {
+        return switch (volatility) {
+            case IMMUTABLE -> foldIfConstant(args);
+            case STABLE -> isConstant(args) ? new Stable(this, token) : this;
+            case VOLATILE -> this;
+        };
+    }
+
+    protected ExpressionException wrap(Exception e) {
+        return e instanceof ExpressionException ee ? ee : ExpressionException.from(e, token);
+    }
+
+    /**
+     * @return the node as a long node if it is long typed or a long constant, otherwise null
+     */
+    static LongNode asLong(ExpressionNode node) {
+        if (node instanceof LongNode longNode) {
+            return longNode;
+        }
+        if (node instanceof Constant constant && constant.value instanceof Long value) {
+            return new LongConstant(value, node.token);
+        }
+        return null;
+    }
+
+    /**
+     * @return the node as a double node if it is double typed or a double constant, otherwise null
+     */
+    static DoubleNode asDouble(ExpressionNode node) {
+        if (node instanceof DoubleNode doubleNode) {
+            return doubleNode;
+        }
+        if (node instanceof Constant constant && constant.value instanceof Double value) {
+            return new DoubleConstant(value, node.token);
+        }
+        return null;
+    }
+
+    Number number(Object value) {
+        if (value instanceof Number n) {
+            return n;
+        }
+        throw ExpressionException.from("Expected a number but got '" + value + "'", token);
+    }
+
+    long longValue(Object value) {
+        return number(value).longValue();
+    }
+
+    double doubleValue(Object value) {
+        return number(value).doubleValue();
+    }
+
+    /**
+     * Evaluate an operand passed to a long parameter, converted like {@link Number#longValue()}.
+     */
+    long longArgument(ExpressionNode operand) {
+        if (operand instanceof LongNode longNode) {
+            return longNode.evaluateLongArgument();
+        }
+        if (operand instanceof DoubleNode doubleNode) {
+            return (long) doubleNode.evaluateDouble();
+        }
+        return longValue(operand.evaluate());
+    }
+
+    /**
+     * Evaluate an operand passed to a double parameter, converted like {@link Number#doubleValue()}.
+     */
+    double doubleArgument(ExpressionNode operand) {
+        if (operand instanceof DoubleNode doubleNode) {
+            return doubleNode.evaluateDouble();
+        }
+        if (operand instanceof LongNode longNode) {
+            try {
+                return longNode.evaluateLong();
+            } catch (LongOverflow e) {
+                return e.value.doubleValue();
+            }
+        }
+        return doubleValue(operand.evaluate());
+    }
+
+    /**
+     * @return method handle of type {@code ()J} evaluating an operand like {@link #longArgument}
+     */
+    MethodHandle longArgumentHandle(ExpressionNode operand) {
+        if (operand instanceof LongNode longNode) {
+            return longNode.toLongArgumentHandle();
+        }
+        if (operand instanceof DoubleNode doubleNode) {
+            return MethodHandles.explicitCastArguments(doubleNode.toDoubleMethodHandle(),
+                    MethodType.methodType(long.class));
+        }
+        return MethodHandles.filterReturnValue(operand.toMethodHandle(),
+                bind("longValue", MethodType.methodType(long.class, Object.class)));
+    }
+
+    /**
+     * @return method handle of type {@code ()D} evaluating an operand like {@link #doubleArgument}
+     */
+    MethodHandle doubleArgumentHandle(ExpressionNode operand) {
+        if (operand instanceof DoubleNode doubleNode) {
+            return doubleNode.toDoubleMethodHandle();
+        }
+        if (operand instanceof LongNode longNode) {
+            return MethodHandles.insertArguments(
+                    bind("doubleArgument", MethodType.methodType(double.class, ExpressionNode.class)), 0, longNode);
+        }
+        return MethodHandles.filterReturnValue(operand.toMethodHandle(),
+                bind("doubleValue", MethodType.methodType(double.class, Object.class)));
+    }
+
+    /**
+     * Create a method handle chain that evaluates this node.
+     *
+     * @return method handle of type {@code ()Object}
+     */
+    abstract MethodHandle toMethodHandle();
+
+    /**
+     * Bind a method of this node.
+     */
+    protected MethodHandle bind(String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(getClass(), name, type).bindTo(this);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bind the {@code apply} method of this node and collect the operand
+     * handles as its arguments, evaluated left to right.
+     */
+    protected MethodHandle applyTo(ExpressionNode... operands) {
+        try {
+            MethodHandle target = LOOKUP.findVirtual(getClass(), "apply",
+                    MethodType.genericMethodType(operands.length)).bindTo(this);
+            return collect(target, operands);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected MethodHandle testOf(ExpressionNode operand) {
+        try {
+            MethodHandle test = LOOKUP.findVirtual(ExpressionNode.class, "test",
+                    MethodType.methodType(boolean.class, Object.class)).bindTo(this);
+            return MethodHandles.filterReturnValue(operand.toMethodHandle(), test);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle collect(MethodHandle target, ExpressionNode[] operands) {
+        return collect(target, Arrays.stream(operands)
+                .map(ExpressionNode::toMethodHandle)
+                .toArray(MethodHandle[]::new));
+    }
+
+    private static MethodHandle collect(MethodHandle target, MethodHandle[] operands) {
+        for (int i = operands.length - 1; i >= 0; i--) {
+            target = MethodHandles.collectArguments(target, i, operands[i]);
+        }
+        return target;
+    }
+
+    static final class Constant extends ExpressionNode {
+        private final Object value;
+
+        Constant(Object value, Token token) {
+            super(token);
+            this.value = normalize(value);
+        }
+
+        @Override
+        Object evaluate() {
+            return value;
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return MethodHandles.constant(Object.class, value);
+        }
+    }
+
+    abstract static class AbstractCall extends ExpressionNode {
+        private final Volatility volatility;
+
+        protected final ExpressionNode[] args;
+
+        AbstractCall(Volatility volatility, ExpressionNode[] args, Token token) {
+            super(token);
+            this.volatility = volatility;
+            this.args = args;
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, args);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(args);
+        }
+    }
+
+    static final class FunctionCall extends AbstractCall {
+        private final Function function;
+
+        FunctionCall(Function function, Volatility volatility, ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.function = function;
+        }
+
+        @Override
+        Object evaluate() {
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = args[i].evaluate();
+            }
+            return apply(values);
+        }
+
+        Object apply(Object[] values) {
+            try {
+                return normalize(function.call(values));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            try {
+                MethodHandle target = LOOKUP.findVirtual(FunctionCall.class, "apply",
+                                MethodType.methodType(Object.class, Object[].class))
+                        .bindTo(this)
+                        .asCollector(Object[].class, args.length);
+                return collect(target, args);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static final class NullaryCall extends AbstractCall {
+        private final Function.Nullary function;
+
+        NullaryCall(Function.Nullary function, Volatility volatility, Token token) {
+            super(volatility, new ExpressionNode[0], token);
+            this.function = function;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply();
+        }
+
+        Object apply() {
+            try {
+                return normalize(function.call());
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+    }
+
+    static final class UnaryCall extends AbstractCall {
+        private final Function.Unary function;
+
+        UnaryCall(Function.Unary function, Volatility volatility, ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.function = function;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(args[0].evaluate());
+        }
+
+        Object apply(Object arg1) {
+            try {
+                return normalize(function.call(arg1));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+    }
+
+    static final class BinaryCall extends AbstractCall {
+        private final Function.Binary function;
+
+        BinaryCall(Function.Binary function, Volatility volatility, ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.function = function;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(args[0].evaluate(), args[1].evaluate());
+        }
+
+        Object apply(Object arg1, Object arg2) {
+            try {
+                return normalize(function.call(arg1, arg2));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+    }
+
+    static final class TernaryCall extends AbstractCall {
+        private final Function.Ternary function;
+
+        TernaryCall(Function.Ternary function, Volatility volatility, ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.function = function;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(args[0].evaluate(), args[1].evaluate(), args[2].evaluate());
+        }
+
+        Object apply(Object arg1, Object arg2, Object arg3) {
+            try {
+                return normalize(function.call(arg1, arg2, arg3));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+    }
+
+    enum ArithmeticOperator {
+        PLUS,
+        MINUS,
+        MULT,
+        DIV,
+        MOD,
+        POW,
+        MIN,
+        MAX
+    }
+
+    static final class Arithmetic extends ExpressionNode {
+        private final ArithmeticOperator operator;
+
+        private final ExpressionNode left;
+
+        private final ExpressionNode right;
+
+        Arithmetic(ArithmeticOperator operator, ExpressionNode left, ExpressionNode right, Token token) {
+            super(token);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(left.evaluate(), right.evaluate());
+        }
+
+        Object apply(Object leftValue, Object rightValue) {
+            Number l = cast(leftValue, Number.class);
+            Number r = cast(rightValue, Number.class);
+
+            return switch (operator) {
+                case PLUS -> NumericOperations.add(l, r);
+                case MINUS -> NumericOperations.subtract(l, r);
+                case MULT -> NumericOperations.multiply(l, r);
+                case DIV -> NumericOperations.divide(l, r);
+                case MOD -> NumericOperations.remainder(l, r);
+                case MIN -> NumericOperations.min(l, r);
+                case MAX -> NumericOperations.max(l, r);
+                case POW -> NumericOperations.pow(l, exponent(r));
+            };
+        }
+
+        private int exponent(Number r) {
+            boolean integral = switch (r) {
+                case Long ignored -> true;
+                case BigDecimal bd -> bd.stripTrailingZeros().scale() <= 0;
+                default -> r.doubleValue() == Math.rint(r.doubleValue());
+            };
+            if (!integral) {
+                throw ExpressionException.from(
+                        "Floating-point power exponents are not supported: " + r, token);
+            }
+            return r.intValue();
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(left, right);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            ExpressionNode folded = foldIfConstant(left, right);
+            if (folded != this) {
+                return folded;
+            }
+            LongNode longLeft = asLong(left);
+            LongNode longRight = asLong(right);
+            if (longLeft != null && longRight != null) {
+                return new LongArithmetic(this, longLeft, longRight);
+            }
+            DoubleNode doubleLeft = asDouble(left);
+            DoubleNode doubleRight = asDouble(right);
+            if (doubleLeft != null && doubleRight != null && operator != ArithmeticOperator.POW) {
+                return new DoubleArithmetic(operator, doubleLeft, doubleRight, token);
+            }
+            return this;
+        }
+    }
+
+    static final class Negate extends ExpressionNode {
+        private final ExpressionNode operand;
+
+        Negate(ExpressionNode operand, Token token) {
+            super(token);
+            this.operand = operand;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(operand.evaluate());
+        }
+
+        Object apply(Object value) {
+            return NumericOperations.negate(cast(value, Number.class));
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(operand);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            ExpressionNode folded = foldIfConstant(operand);
+            if (folded != this) {
+                return folded;
+            }
+            LongNode longOperand = asLong(operand);
+            if (longOperand != null) {
+                return new LongNegate(longOperand, token);
+            }
+            DoubleNode doubleOperand = asDouble(operand);
+            if (doubleOperand != null) {
+                return new DoubleNegate(doubleOperand, token);
+            }
+            return this;
+        }
+    }
+
+    static final class Numeric extends ExpressionNode {
+        private final ExpressionNode operand;
+
+        Numeric(ExpressionNode operand, Token token) {
+            super(token);
+            this.operand = operand;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(operand.evaluate());
+        }
+
+        Object apply(Object value) {
+            return cast(value, Number.class);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(operand);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            if (operand instanceof LongNode || operand instanceof DoubleNode) {
+                return operand;
+            }
+            return foldIfConstant(operand);
+        }
+    }
+
+    static final class Concat extends ExpressionNode {
+        private final ExpressionNode left;
+
+        private final ExpressionNode right;
+
+        Concat(ExpressionNode left, ExpressionNode right, Token token) {
+            super(token);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(left.evaluate(), right.evaluate());
+        }
+
+        Object apply(Object leftValue, Object rightValue) {
+            return cast(leftValue, String.class) + cast(rightValue, String.class);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(left, right);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldIfConstant(left, right);
+        }
+    }
+
+    enum ComparisonOperator {
+        GT,
+        GE,
+        LT,
+        LE,
+        EQ,
+        NE;
+
+        boolean test(int comparison) {
+            return switch (this) {
+                case GT -> comparison > 0;
+                case GE -> comparison >= 0;
+                case LT -> comparison < 0;
+                case LE -> comparison <= 0;
+                case EQ -> comparison == 0;
+                case NE -> comparison != 0;
+            };
+        }
+    }
+
+    static final class Comparison extends ExpressionNode {
+        private final ComparisonOperator operator;
+
+        private final ExpressionNode left;
+
+        private final ExpressionNode right;
+
+        Comparison(ComparisonOperator operator, ExpressionNode left, ExpressionNode right, Token token) {
+            super(token);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(left.evaluate(), right.evaluate());
+        }
+
+        @SuppressWarnings("unchecked")
+        Object apply(Object leftValue, Object r) {
+            if (leftValue instanceof Number ln && r instanceof Number rn) {
+                return operator.test(NumericOperations.compare(ln, rn));
+            }
+            Comparable<Object> l = cast(leftValue, Comparable.class);
+            try {
+                return operator.test(l.compareTo(r));
+            } catch (ClassCastException e) {
+                throw ExpressionException.from("Cannot compare '" + l + "' of type "
+                        + l.getClass().getSimpleName() + " with " + r.getClass().getSimpleName(), token);
+            }
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(left, right);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            ExpressionNode folded = foldIfConstant(left, right);
+            if (folded != this) {
+                return folded;
+            }
+            LongNode longLeft = asLong(left);
+            LongNode longRight = asLong(right);
+            if (longLeft != null && longRight != null) {
+                return new LongComparison(this, longLeft, longRight);
+            }
+            DoubleNode doubleLeft = asDouble(left);
+            DoubleNode doubleRight = asDouble(right);
+            if (doubleLeft != null && doubleRight != null) {
+                return new DoubleComparison(operator, doubleLeft, doubleRight, token);
+            }
+            return this;
+        }
+    }
+
+    static final class And extends ExpressionNode {
+        private final ExpressionNode left;
+
+        private final ExpressionNode right;
+
+        And(ExpressionNode left, ExpressionNode right, Token token) {
+            super(token);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return test(left.evaluate()) && test(right.evaluate());
+        }
+
+        Object apply(Object value) {
+            return test(value);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return MethodHandles.guardWithTest(testOf(left),
+                    applyTo(right), MethodHandles.constant(Object.class, false));
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldIfConstant(left, right);
+        }
+    }
+
+    static final class Or extends ExpressionNode {
+        private final ExpressionNode left;
+
+        private final ExpressionNode right;
+
+        Or(ExpressionNode left, ExpressionNode right, Token token) {
+            super(token);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return test(left.evaluate()) || test(right.evaluate());
+        }
+
+        Object apply(Object value) {
+            return test(value);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return MethodHandles.guardWithTest(testOf(left),
+                    MethodHandles.constant(Object.class, true), applyTo(right));
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldIfConstant(left, right);
+        }
+    }
+
+    static final class Not extends ExpressionNode {
+        private final ExpressionNode operand;
+
+        Not(ExpressionNode operand, Token token) {
+            super(token);
+            this.operand = operand;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(operand.evaluate());
+        }
+
+        Object apply(Object value) {
+            return !test(value);
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(operand);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldIfConstant(operand);
+        }
+    }
+
+    static final class In extends ExpressionNode {
+        private final ExpressionNode key;
+
+        private final Collection<?> values;
+
+        In(ExpressionNode key, Collection<?> values, Token token) {
+            super(token);
+            this.key = key;
+            this.values = values;
+        }
+
+        @Override
+        Object evaluate() {
+            return apply(key.evaluate());
+        }
+
+        Object apply(Object value) {
+            return values.contains(cast(value, String.class));
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return applyTo(key);
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldIfConstant(key);
+        }
+    }
+
+    static final class Conditional extends ExpressionNode {
+        private final ExpressionNode condition;
+
+        private final ExpressionNode outcome;
+
+        private final ExpressionNode otherwise;
+
+        Conditional(ExpressionNode condition, ExpressionNode outcome, ExpressionNode otherwise, Token token) {
+            super(token);
+            this.condition = condition;
+            this.outcome = outcome;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        Object evaluate() {
+            return test(condition.evaluate()) ? outcome.evaluate() : otherwise.evaluate();
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return MethodHandles.guardWithTest(testOf(condition),
+                    outcome.toMethodHandle(), otherwise.toMethodHandle());
+        }
+
+        @Override
+        ExpressionNode fold() {
+            if (condition instanceof Constant) {
+                try {
+                    return test(condition.evaluate()) ? outcome : otherwise;
+                } catch (ExpressionException e) {
+                    return this;
+                }
+            }
+            return this;
+        }
+    }
+
+    static final class Stable extends ExpressionNode {
+        private final ExpressionNode delegate;
+
+        private boolean evaluated;
+
+        private Object value;
+
+        Stable(ExpressionNode delegate, Token token) {
+            super(token);
+            this.delegate = delegate;
+        }
+
+        @Override
+        Object evaluate() {
+            if (!evaluated) {
+                value = delegate.evaluate();
+                evaluated = true;
+            }
+            return value;
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            try {
+                return LOOKUP.findVirtual(Stable.class, "evaluate",
+                        MethodType.methodType(Object.class)).bindTo(this);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static final class Generated extends ExpressionNode {
+        private final Supplier<?> supplier;
+
+        private final MethodHandle target;
+
+        Generated(Supplier<?> supplier, MethodHandle target, Token token) {
+            super(token);
+            this.supplier = supplier;
+            this.target = target;
+        }
+
+        @Override
+        Object evaluate() {
+            return supplier.get();
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return target;
+        }
+    }
+
+    /**
+     * Signals that a long node evaluated to a value outside the long range. The
+     * exception carries the promoted value, so that its consumer can continue
+     * without evaluating the node again. Created without a stack trace, and only
+     * on the overflow path.
+     */
+    static final class LongOverflow extends RuntimeException {
+        final Number value;
+
+        LongOverflow(Number value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+    }
+
+    /**
+     * A node that evaluates to a long. Arithmetic that overflows is promoted to
+     * BigDecimal just like in the boxed case, by throwing {@link LongOverflow}
+     * with the promoted value. Nodes keep no evaluation state.
+     */
+    abstract static class LongNode extends ExpressionNode {
+        LongNode(Token token) {
+            super(token);
+        }
+
+        /**
+         * @return the outcome of the node
+         * @throws LongOverflow if the outcome is outside the long range
+         */
+        abstract long evaluateLong();
+
+        boolean mayOverflow() {
+            return false;
+        }
+
+        protected long overflow(Number value) {
+            if (value instanceof Long l) {
+                return l;
+            }
+            throw new LongOverflow(value);
+        }
+
+        long evaluateLongArgument() {
+            try {
+                return evaluateLong();
+            } catch (LongOverflow e) {
+                return e.value.longValue();
+            }
+        }
+
+        @Override
+        Object evaluate() {
+            try {
+                return evaluateLong();
+            } catch (LongOverflow e) {
+                return e.value;
+            }
+        }
+
+        /**
+         * @return method handle of type {@code ()J} that may throw {@link LongOverflow}
+         */
+        MethodHandle toLongMethodHandle() {
+            return bind("evaluateLong", MethodType.methodType(long.class));
+        }
+
+        MethodHandle toLongArgumentHandle() {
+            return mayOverflow()
+                    ? bind("evaluateLongArgument", MethodType.methodType(long.class))
+                    : toLongMethodHandle();
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return mayOverflow()
+                    ? bind("evaluate", MethodType.methodType(Object.class))
+                    : MethodHandles.filterReturnValue(toLongMethodHandle(), BOX_LONG);
+        }
+    }
+
+    /**
+     * A node that evaluates to a double.
+     */
+    abstract static class DoubleNode extends ExpressionNode {
+        DoubleNode(Token token) {
+            super(token);
+        }
+
+        abstract double evaluateDouble();
+
+        @Override
+        Object evaluate() {
+            return evaluateDouble();
+        }
+
+        /**
+         * @return method handle of type {@code ()D}
+         */
+        MethodHandle toDoubleMethodHandle() {
+            return bind("evaluateDouble", MethodType.methodType(double.class));
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return MethodHandles.filterReturnValue(toDoubleMethodHandle(), BOX_DOUBLE);
+        }
+    }
+
+    static final class LongConstant extends LongNode {
+        private final long value;
+
+        LongConstant(long value, Token token) {
+            super(token);
+            this.value = value;
+        }
+
+        @Override
+        long evaluateLong() {
+            return value;
+        }
+
+        @Override
+        MethodHandle toLongMethodHandle() {
+            return MethodHandles.constant(long.class, value);
+        }
+    }
+
+    static final class DoubleConstant extends DoubleNode {
+        private final double value;
+
+        DoubleConstant(double value, Token token) {
+            super(token);
+            this.value = value;
+        }
+
+        @Override
+        double evaluateDouble() {
+            return value;
+        }
+
+        @Override
+        MethodHandle toDoubleMethodHandle() {
+            return MethodHandles.constant(double.class, value);
+        }
+    }
+
+    static final class LongNullaryCall extends LongNode {
+        private final Function.LongNullary function;
+
+        private final Volatility volatility;
+
+        LongNullaryCall(Function.LongNullary function, Volatility volatility, Token token) {
+            super(token);
+            this.function = function;
+            this.volatility = volatility;
+        }
+
+        @Override
+        long evaluateLong() {
+            try {
+                return function.call();
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, new ExpressionNode[0]);
+        }
+    }
+
+    static final class LongBinaryCall extends LongNode {
+        private final Function.LongBinaryOperator function;
+
+        private final Volatility volatility;
+
+        private final ExpressionNode[] args;
+
+        LongBinaryCall(Function.LongBinaryOperator function, Volatility volatility, ExpressionNode[] args,
+                       Token token) {
+            super(token);
+            this.function = function;
+            this.volatility = volatility;
+            this.args = args;
+        }
+
+        @Override
+        long evaluateLong() {
+            return apply(longArgument(args[0]), longArgument(args[1]));
+        }
+
+        long apply(long arg1, long arg2) {
+            try {
+                return function.call(arg1, arg2);
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, args);
+        }
+
+        @Override
+        MethodHandle toLongMethodHandle() {
+            return collect(bind("apply", MethodType.methodType(long.class, long.class, long.class)),
+                    new MethodHandle[] {longArgumentHandle(args[0]), longArgumentHandle(args[1])});
+        }
+    }
+
+    static final class DoubleNullaryCall extends DoubleNode {
+        private final Function.DoubleNullary function;
+
+        private final Volatility volatility;
+
+        DoubleNullaryCall(Function.DoubleNullary function, Volatility volatility, Token token) {
+            super(token);
+            this.function = function;
+            this.volatility = volatility;
+        }
+
+        @Override
+        double evaluateDouble() {
+            try {
+                return function.call();
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, new ExpressionNode[0]);
+        }
+    }
+
+    static final class DoubleUnaryCall extends DoubleNode {
+        private final Function.DoubleUnaryOperator function;
+
+        private final Volatility volatility;
+
+        private final ExpressionNode[] args;
+
+        DoubleUnaryCall(Function.DoubleUnaryOperator function, Volatility volatility, ExpressionNode[] args,
+                        Token token) {
+            super(token);
+            this.function = function;
+            this.volatility = volatility;
+            this.args = args;
+        }
+
+        @Override
+        double evaluateDouble() {
+            return apply(doubleArgument(args[0]));
+        }
+
+        double apply(double arg1) {
+            try {
+                return function.call(arg1);
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, args);
+        }
+
+        @Override
+        MethodHandle toDoubleMethodHandle() {
+            return collect(bind("apply", MethodType.methodType(double.class, double.class)),
+                    new MethodHandle[] {doubleArgumentHandle(args[0])});
+        }
+    }
+
+    static final class DoubleBinaryCall extends DoubleNode {
+        private final Function.DoubleBinaryOperator function;
+
+        private final Volatility volatility;
+
+        private final ExpressionNode[] args;
+
+        DoubleBinaryCall(Function.DoubleBinaryOperator function, Volatility volatility, ExpressionNode[] args,
+                         Token token) {
+            super(token);
+            this.function = function;
+            this.volatility = volatility;
+            this.args = args;
+        }
+
+        @Override
+        double evaluateDouble() {
+            return apply(doubleArgument(args[0]), doubleArgument(args[1]));
+        }
+
+        double apply(double arg1, double arg2) {
+            try {
+                return function.call(arg1, arg2);
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        ExpressionNode fold() {
+            return foldCall(volatility, args);
+        }
+
+        @Override
+        MethodHandle toDoubleMethodHandle() {
+            return collect(bind("apply", MethodType.methodType(double.class, double.class, double.class)),
+                    new MethodHandle[] {doubleArgumentHandle(args[0]), doubleArgumentHandle(args[1])});
+        }
+    }
+
+    /**
+     * A call to a function with long parameters and an object outcome.
+     */
+    static final class LongArgumentCall extends AbstractCall {
+        private final Function.LongUnary unary;
+
+        private final Function.LongBinary binary;
+
+        LongArgumentCall(Function.LongUnary unary, Function.LongBinary binary, Volatility volatility,
+                         ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.unary = unary;
+            this.binary = binary;
+        }
+
+        @Override
+        Object evaluate() {
+            return args.length == 1
+                    ? apply(longArgument(args[0]))
+                    : apply(longArgument(args[0]), longArgument(args[1]));
+        }
+
+        Object apply(long arg1) {
+            try {
+                return normalize(unary.call(arg1));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        Object apply(long arg1, long arg2) {
+            try {
+                return normalize(binary.call(arg1, arg2));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            MethodHandle[] operands = Arrays.stream(args)
+                    .map(this::longArgumentHandle)
+                    .toArray(MethodHandle[]::new);
+            MethodType type = MethodType.methodType(Object.class, Arrays.stream(args)
+                    .map(arg -> long.class)
+                    .toArray(Class<?>[]::new));
+            return collect(bind("apply", type), operands);
+        }
+    }
+
+    /**
+     * A call to a function with double parameters and an object outcome.
+     */
+    static final class DoubleArgumentCall extends AbstractCall {
+        private final Function.DoubleUnary unary;
+
+        private final Function.DoubleBinary binary;
+
+        DoubleArgumentCall(Function.DoubleUnary unary, Function.DoubleBinary binary, Volatility volatility,
+                           ExpressionNode[] args, Token token) {
+            super(volatility, args, token);
+            this.unary = unary;
+            this.binary = binary;
+        }
+
+        @Override
+        Object evaluate() {
+            return args.length == 1
+                    ? apply(doubleArgument(args[0]))
+                    : apply(doubleArgument(args[0]), doubleArgument(args[1]));
+        }
+
+        Object apply(double arg1) {
+            try {
+                return normalize(unary.call(arg1));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        Object apply(double arg1, double arg2) {
+            try {
+                return normalize(binary.call(arg1, arg2));
+            } catch (Exception e) {
+                throw wrap(e);
+            }
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            MethodHandle[] operands = Arrays.stream(args)
+                    .map(this::doubleArgumentHandle)
+                    .toArray(MethodHandle[]::new);
+            MethodType type = MethodType.methodType(Object.class, Arrays.stream(args)
+                    .map(arg -> double.class)
+                    .toArray(Class<?>[]::new));
+            return collect(bind("apply", type), operands);
+        }
+    }
+
+    /**
+     * Arithmetic on long operands. Operations that overflow or fail fall back to
+     * the boxed {@link Arithmetic} node, which promotes the outcome to BigDecimal
+     * or reports the error.
+     */
+    static final class LongArithmetic extends LongNode {
+        private final Arithmetic generic;
+
+        private final ArithmeticOperator operator;
+
+        private final LongNode left;
+
+        private final LongNode right;
+
+        LongArithmetic(Arithmetic generic, LongNode left, LongNode right) {
+            super(generic.token);
+            this.generic = generic;
+            this.operator = generic.operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean mayOverflow() {
+            return true;
+        }
+
+        @Override
+        long evaluateLong() {
+            long a;
+            try {
+                a = left.evaluateLong();
+            } catch (LongOverflow e) {
+                return overflow(generic(e.value, right.evaluate()));
+            }
+            long b;
+            try {
+                b = right.evaluateLong();
+            } catch (LongOverflow e) {
+                return overflow(generic(a, e.value));
+            }
+            try {
+                return switch (operator) {
+                    case PLUS -> Math.addExact(a, b);
+                    case MINUS -> Math.subtractExact(a, b);
+                    case MULT -> Math.multiplyExact(a, b);
+                    case DIV -> NumericOperations.divideHalfEven(a, b);
+                    case MOD -> a % b;
+                    case POW -> NumericOperations.powExact(a, (int) b);
+                    case MIN -> Math.min(a, b);
+                    case MAX -> Math.max(a, b);
+                };
+            } catch (ArithmeticException e) {
+                return overflow(generic(a, b));
+            }
+        }
+
+        private Number generic(Object l, Object r) {
+            return (Number) generic.apply(l, r);
+        }
+    }
+
+    static final class DoubleArithmetic extends DoubleNode {
+        private final ArithmeticOperator operator;
+
+        private final DoubleNode left;
+
+        private final DoubleNode right;
+
+        DoubleArithmetic(ArithmeticOperator operator, DoubleNode left, DoubleNode right, Token token) {
+            super(token);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double evaluateDouble() {
+            double a = left.evaluateDouble();
+            double b = right.evaluateDouble();
+            return switch (operator) {
+                case PLUS -> a + b;
+                case MINUS -> a - b;
+                case MULT -> a * b;
+                case DIV -> a / b;
+                case MOD -> a % b;
+                case MIN -> Double.compare(a, b) <= 0 ? a : b;
+                case MAX -> Double.compare(a, b) >= 0 ? a : b;
+                case POW -> throw new IllegalStateException("Unsupported operator: " + operator);
+            };
+        }
+    }
+
+    static final class LongNegate extends LongNode {
+        private final LongNode operand;
+
+        LongNegate(LongNode operand, Token token) {
+            super(token);
+            this.operand = operand;
+        }
+
+        @Override
+        boolean mayOverflow() {
+            return true;
+        }
+
+        @Override
+        long evaluateLong() {
+            long value;
+            try {
+                value = operand.evaluateLong();
+            } catch (LongOverflow e) {
+                return overflow(NumericOperations.negate(e.value));
+            }
+            return value == Long.MIN_VALUE ? overflow(NumericOperations.negate(value)) : -value;
+        }
+    }
+
+    static final class DoubleNegate extends DoubleNode {
+        private final DoubleNode operand;
+
+        DoubleNegate(DoubleNode operand, Token token) {
+            super(token);
+            this.operand = operand;
+        }
+
+        @Override
+        double evaluateDouble() {
+            return -operand.evaluateDouble();
+        }
+    }
+
+    static final class LongComparison extends ExpressionNode {
+        private final Comparison generic;
+
+        private final LongNode left;
+
+        private final LongNode right;
+
+        LongComparison(Comparison generic, LongNode left, LongNode right) {
+            super(generic.token);
+            this.generic = generic;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            long a;
+            try {
+                a = left.evaluateLong();
+            } catch (LongOverflow e) {
+                return generic.apply(e.value, right.evaluate());
+            }
+            long b;
+            try {
+                b = right.evaluateLong();
+            } catch (LongOverflow e) {
+                return generic.apply(a, e.value);
+            }
+            return generic.operator.test(Long.compare(a, b));
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return bind("evaluate", MethodType.methodType(Object.class));
+        }
+    }
+
+    static final class DoubleComparison extends ExpressionNode {
+        private final ComparisonOperator operator;
+
+        private final DoubleNode left;
+
+        private final DoubleNode right;
+
+        DoubleComparison(ComparisonOperator operator, DoubleNode left, DoubleNode right, Token token) {
+            super(token);
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object evaluate() {
+            return operator.test(Double.compare(left.evaluateDouble(), right.evaluateDouble()));
+        }
+
+        @Override
+        MethodHandle toMethodHandle() {
+            return bind("evaluate", MethodType.methodType(Object.class));
+        }
+    }
+}
@@ -10,10 +10,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Deque;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -49,8 +46,8 @@ public class ExpressionParseTreeListener extends ExpressionParserBaseListener {
     }
 
     private void push(Object o) {
-        if (o instanceof Number && !(o instanceof BigDecimal)) {
-            this.stack.push(new BigDecimal(Objects.toString(o)));
+        if (o instanceof Number n && !(o instanceof BigDecimal)) {
+            this.stack.push(NumericOperations.toBigDecimal(n));
         } else {
             this.stack.push(o);
         }
@@ -246,21 +243,19 @@ public class ExpressionParseTreeListener extends ExpressionParserBaseListener {
 
     @Override
     public void exitFunction(ExpressionParser.FunctionContext ctx) {
-        List<Object> args = new ArrayList<>();
+        Object[] args = new Object[ctx.functionArguments().functionArgument().size()];
 
         try {
-            ctx.functionArguments().functionArgument()
-                    .forEach(expressionContext -> args.add(pop(Object.class, ctx)));
-
-            Collections.reverse(args);
+            for (int i = args.length - 1; i >= 0; i--) {
+                args[i] = pop(Object.class, ctx);
+            }
 
             String id = ctx.Identifier().getText();
 
             FunctionDef functionDef = registry.findFunction(id).orElseThrow(() ->
-                    ExpressionException.from(parser, "No such function: " + id));
+                    ExpressionException.from(parser, "No such function: " + id, ctx.getStart()));
 
-            Object rv = functionDef.getFunction()
-                    .call(args.toArray());
+            Object rv = functionDef.getFunction().call(args);
             push(rv);
         } catch (Exception e) {
             throw ExpressionException.from(parser, e, ctx.getStop());
@@ -271,7 +266,7 @@ public class ExpressionParseTreeListener extends ExpressionParserBaseListener {
     public void exitIdentifier(ExpressionParser.IdentifierContext ctx) {
         String id = ctx.Identifier().getText();
         push(registry.findVariable(id)
-                .orElseThrow(() -> ExpressionException.from(parser, "No such variable: " + id)));
+                .orElseThrow(() -> ExpressionException.from(parser, "No such variable: " + id, ctx.getStart())));
     }
 
     @Override
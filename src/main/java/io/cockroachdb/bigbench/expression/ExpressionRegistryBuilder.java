@@ -14,17 +14,82 @@ import javax.sql.DataSource;
 
 import org.springframework.util.StringUtils;
 
+import io.cockroachdb.bigbench.util.FeistelPermutation;
+import io.cockroachdb.bigbench.util.HotspotDistribution;
 import io.cockroachdb.bigbench.util.Money;
 import io.cockroachdb.bigbench.util.Networking;
 import io.cockroachdb.bigbench.util.RandomData;
+import io.cockroachdb.bigbench.util.RandomSource;
+import io.cockroachdb.bigbench.util.ZipfianDistribution;
 
 public final class ExpressionRegistryBuilder {
+    /**
+     * Default range of row indexes for unique names, keeping suffixes to at most nine digits.
+     */
+    private static final FeistelPermutation UNIQUE_NAME_PERMUTATION = new FeistelPermutation(1_000_000_000L, 0);
+
     private ExpressionRegistryBuilder() {
     }
 
+    /**
+     * @param args from, to and an optional theta
+     */
+    private static ZipfianDistribution zipfianOf(Object[] args) {
+        long from = ((Number) args[0]).longValue();
+        long to = ((Number) args[1]).longValue();
+        double theta = args.length > 2 ? ((Number) args[2]).doubleValue() : ZipfianDistribution.DEFAULT_THETA;
+        return ZipfianDistribution.of(to - from + 1, theta);
+    }
+
+    /**
+     * Build a registry with all built-in functions, including the stateful
+     * stream functions.
+     *
+     * @param dataSource the data source for SQL functions
+     * @return a new mutable registry
+     */
     public static ExpressionRegistry build(DataSource dataSource) {
         ExpressionRegistry registry = new DefaultExpressionRegistry();
 
+        addSharedFunctions(registry, dataSource);
+        addStreamFunctions(registry, dataSource);
+
+        return registry;
+    }
+
+    /**
+     * Build an immutable registry with all stateless built-in functions, safe
+     * to share between concurrent streams.
+     *
+     * @param dataSource the data source for SQL functions
+     * @return a new immutable registry
+     * @see #overlay(ExpressionRegistry, DataSource)
+     */
+    public static ExpressionRegistry buildShared(DataSource dataSource) {
+        ExpressionRegistry registry = new DefaultExpressionRegistry();
+
+        addSharedFunctions(registry, dataSource);
+
+        return ImmutableExpressionRegistry.copyOf(registry);
+    }
+
+    /**
+     * Create a per-stream overlay on top of a shared registry with
+     * the stateful stream functions added.
+     *
+     * @param base the shared registry
+     * @param dataSource the data source for SQL functions
+     * @return a new mutable registry
+     */
+    public static ExpressionRegistry overlay(ExpressionRegistry base, DataSource dataSource) {
+        ExpressionRegistry registry = new OverlayExpressionRegistry(base);
+
+        addStreamFunctions(registry, dataSource);
+
+        return registry;
+    }
+
+    private static void addSharedFunctions(ExpressionRegistry registry, DataSource dataSource) {
         addIdFunctions(registry);
         addStringFunctions(registry);
         addDateTimeFunctions(registry);
@@ -32,8 +97,33 @@ public final class ExpressionRegistryBuilder {
         addNetworkFunctions(registry);
         addSQLFunctions(registry, dataSource);
         addRandomFunctions(registry);
+    }
 
-        return registry;
+    /**
+     * Add functions holding per-stream state, such as prefetched row ID buffers.
+     */
+    public static void addStreamFunctions(ExpressionRegistry registry, DataSource dataSource) {
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("sql")
+                .withId("unorderedUniqueRowId")
+                .withArgs(List.of("batch_size: int"))
+                .withDescription("Returns a unique ID without ordering.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withFunction(SQLFunctions.unorderedUniqueRowId(dataSource))
+                .build());
+
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("sql")
+                .withId("uniqueRowId")
+                .withArgs(List.of("batch_size: int"))
+                .withDescription("Returns a unique ID with ordering.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withFunction(SQLFunctions.uniqueRowId(dataSource))
+                .build());
     }
 
     public static void addMathFunctions(ExpressionRegistry registry) {
@@ -45,21 +135,16 @@ public final class ExpressionRegistryBuilder {
                 .withId("pow")
                 .withDescription("Returns the value of X raised to the power of Y.")
                 .withReturnValue(Double.class)
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    Number arg2 = (Number) args[1];
-                    return Math.pow(arg1.doubleValue(), arg2.doubleValue());
-                })
+                .withVolatility(Volatility.IMMUTABLE)
+                .withDoubleBinaryOperator(Math::pow)
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("math")
                 .withId("sqrt")
                 .withDescription("Returns the square root X.")
                 .withReturnValue(Double.class)
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    return Math.sqrt(arg1.doubleValue());
-                })
+                .withVolatility(Volatility.IMMUTABLE)
+                .withDoubleUnaryOperator(Math::sqrt)
                 .build());
     }
 
@@ -69,77 +154,88 @@ public final class ExpressionRegistryBuilder {
                 .withId("randomFirstName")
                 .withDescription("Generate a random first name.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomFirstName())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomFirstName())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomLastName")
                 .withDescription("Generate a random last name.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomLastName())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomLastName())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomFullName")
                 .withDescription("Generate a random full name.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomFirstName() + " " + RandomData.randomLastName())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomFirstName() + " " + RandomData.randomLastName())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomCity")
                 .withDescription("Generate a random city.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomCity())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomCity())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomCountry")
                 .withDescription("Generate a random country.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomCountry())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomCountry())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomEmail")
                 .withDescription("Generate a random e-mail.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomEmail())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomEmail())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomPhoneNumber")
                 .withDescription("Generate a random phone number.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomPhoneNumber())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomPhoneNumber())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomState")
                 .withDescription("Generate a random US state.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomState())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomState())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomStateCode")
                 .withDescription("Generate a random US state code.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomStateCode())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomStateCode())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomZipCode")
                 .withDescription("Generate a random US zip code.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomZipCode())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomZipCode())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomCurrency")
                 .withDescription("Generate a random ISO-4217 currency.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomCurrency())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomCurrency())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -147,19 +243,11 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("(optional) origin: double", "(optional) bound: double", "(optional) scale: double"))
                 .withDescription("Generate a random BigDecimal.")
                 .withReturnValue(BigDecimal.class)
-                .withFunction(args -> {
-                    if (args.length == 2) {
-                        Number arg1 = (Number) args[0];
-                        Number arg2 = (Number) args[1];
-                        return RandomData.randomBigDecimal(arg1.doubleValue(), arg2.doubleValue());
-                    } else if (args.length == 3) {
-                        Number arg1 = (Number) args[0];
-                        Number arg2 = (Number) args[1];
-                        Number arg3 = (Number) args[2];
-                        return RandomData.randomBigDecimal(arg1.doubleValue(), arg2.doubleValue(), arg3.intValue());
-                    }
-                    return RandomData.randomBigDecimal();
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(RandomData::randomBigDecimal)
+                .withDoubleBinary(RandomData::randomBigDecimal)
+                .withTernary((arg1, arg2, arg3) -> RandomData.randomBigDecimal(
+                        ((Number) arg1).doubleValue(), ((Number) arg2).doubleValue(), ((Number) arg3).intValue()))
                 .build());
 
         registry.addFunction(FunctionDef.builder()
@@ -167,6 +255,7 @@ public final class ExpressionRegistryBuilder {
                 .withId("randomMoney")
                 .withDescription("Generate a random Money value (decimal_amount currency)")
                 .withReturnValue(Money.class)
+                .withVolatility(Volatility.VOLATILE)
                 .withFunction(args -> {
                     if (args.length > 0) {
                         String arg1 = (String) args[0];
@@ -180,9 +269,8 @@ public final class ExpressionRegistryBuilder {
                 .withId("randomBoolean")
                 .withDescription("Generate a pseudorandom boolean value")
                 .withReturnValue(Boolean.class)
-                .withFunction(args -> {
-                    return RandomData.randomBoolean();
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(RandomData::randomBoolean)
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -190,15 +278,9 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("origin: int", "bound: int"))
                 .withDescription("Generate a pseudorandom int value between a given range (least and upper bound)")
                 .withReturnValue(Integer.class)
-                .withFunction(args -> {
-                    if (args.length == 2) {
-                        Number arg1 = (Number) args[0];
-                        Number arg2 = (Number) args[1];
-
-                        return RandomData.randomInt(arg1.intValue(), arg2.intValue());
-                    }
-                    return RandomData.randomInt(0, Integer.MAX_VALUE);
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongNullary(() -> RandomData.randomInt(0, Integer.MAX_VALUE))
+                .withLongBinaryOperator((origin, bound) -> RandomData.randomInt((int) origin, (int) bound))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -206,14 +288,9 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("origin: long", "bound: long"))
                 .withDescription("Generate a pseudorandom long value between a given range (least and upper bound)")
                 .withReturnValue(Long.class)
-                .withFunction(args -> {
-                    if (args.length == 2) {
-                        Number arg1 = (Number) args[0];
-                        Number arg2 = (Number) args[1];
-                        return RandomData.randomLong(arg1.intValue(), arg2.intValue());
-                    }
-                    return RandomData.randomLong(0, Long.MAX_VALUE);
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongNullary(() -> RandomData.randomLong(0, Long.MAX_VALUE))
+                .withLongBinaryOperator(RandomData::randomLong)
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -221,14 +298,9 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("origin: int", "bound: int"))
                 .withDescription("Generate a pseudorandom int value between a given range (least and upper bound)")
                 .withReturnValue(Double.class)
-                .withFunction(args -> {
-                    if (args.length == 2) {
-                        Number arg1 = (Number) args[0];
-                        Number arg2 = (Number) args[1];
-                        return RandomData.randomDouble(arg1.doubleValue(), arg2.doubleValue());
-                    }
-                    return RandomData.randomDouble(0, Double.MAX_VALUE);
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withDoubleNullary(() -> RandomData.randomDouble(0, Double.MAX_VALUE))
+                .withDoubleBinaryOperator(RandomData::randomDouble)
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -236,21 +308,17 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("min: int", "(optional) max: int"))
                 .withDescription("Generate a random string.)")
                 .withReturnValue(String.class)
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    if (args.length == 2) {
-                        Number arg2 = (Number) args[1];
-                        return RandomData.randomString(arg1.intValue(), arg2.intValue());
-                    }
-                    return RandomData.randomString(arg1.intValue());
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongUnary(length -> RandomData.randomString((int) length))
+                .withLongBinary((min, max) -> RandomData.randomString((int) min, (int) max))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
                 .withId("randomRoachFact")
                 .withDescription("Generate a random roach fact.)")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomRoachFact())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomRoachFact())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -258,10 +326,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("length: int"))
                 .withDescription("Generate a random word.)")
                 .withReturnValue(String.class)
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    return RandomData.randomWord(arg1.intValue());
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongUnary(length -> RandomData.randomWord((int) length))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -269,10 +335,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("length: int"))
                 .withDescription("Generate a random byte array.")
                 .withReturnValue("byte[]")
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    return RandomData.randomBytes(arg1.intValue());
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongUnary(length -> RandomData.randomBytes((int) length))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -280,12 +344,9 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("origin: min", "bound: max", "paragraphs: bool"))
                 .withDescription("Generate a lore ipsum sentence.")
                 .withReturnValue(String.class)
-                .withFunction(args -> {
-                    Number min = (Number) args[0];
-                    Number max = (Number) args[1];
-                    Boolean paragraphs = (Boolean) args[2];
-                    return RandomData.randomLoreIpsum(min.intValue(), max.intValue(), paragraphs);
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withTernary((min, max, paragraphs) -> RandomData.randomLoreIpsum(
+                        ((Number) min).intValue(), ((Number) max).intValue(), (Boolean) paragraphs))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -293,11 +354,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("items: int", "nesting: int"))
                 .withDescription("Generate a random JSON document.")
                 .withReturnValue(String.class)
-                .withFunction(args -> {
-                    Number arg1 = (Number) args[0];
-                    Number arg2 = (Number) args[1];
-                    return RandomData.randomJson(arg1.intValue(), arg2.intValue());
-                })
+                .withVolatility(Volatility.VOLATILE)
+                .withLongBinary((items, nesting) -> RandomData.randomJson((int) items, (int) nesting))
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("random")
@@ -305,6 +363,7 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("values: object[]"))
                 .withDescription("Select a random item from a value collection.")
                 .withReturnValue(Object.class)
+                .withVolatility(Volatility.VOLATILE)
                 .withFunction(RandomData::selectRandom)
                 .build());
         registry.addFunction(FunctionDef.builder()
@@ -313,8 +372,75 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("values: object"))
                 .withDescription("Select a random item from a value collection.")
                 .withReturnValue(Object.class)
+                .withVolatility(Volatility.VOLATILE)
                 .withFunction(args -> RandomData.selectRandom(Arrays.asList(args)))
                 .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("random")
+                .withId("zipfian")
+                .withArgs(List.of("from: long", "to: long", "(optional) theta: double"))
+                .withDescription("Generate a zipfian distributed long value in a range, where the lower bound "
+                        + "is the most frequent. Use constant arguments, since the distribution is set up "
+                        + "once per distinct range, which sums up to a million terms for large ranges.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withLongBinaryOperator((from, to) -> RandomData.randomZipfian(from, to,
+                        ZipfianDistribution.DEFAULT_THETA))
+                .withTernary((from, to, theta) -> RandomData.randomZipfian(((Number) from).longValue(),
+                        ((Number) to).longValue(), ((Number) theta).doubleValue()))
+                .withLongBinder(args -> {
+                    long from = ((Number) args[0]).longValue();
+                    ZipfianDistribution distribution = zipfianOf(args);
+                    return () -> from + distribution.sample(RandomSource.current());
+                })
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("random")
+                .withId("latest")
+                .withArgs(List.of("from: long", "to: long", "(optional) theta: double"))
+                .withDescription("Generate a zipfian distributed long value in a range, where the upper bound "
+                        + "is the most frequent. Use constant arguments, since the distribution is set up "
+                        + "once per distinct range, which sums up to a million terms for large ranges.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withLongBinaryOperator((from, to) -> RandomData.randomLatest(from, to,
+                        ZipfianDistribution.DEFAULT_THETA))
+                .withTernary((from, to, theta) -> RandomData.randomLatest(((Number) from).longValue(),
+                        ((Number) to).longValue(), ((Number) theta).doubleValue()))
+                .withLongBinder(args -> {
+                    long to = ((Number) args[1]).longValue();
+                    ZipfianDistribution distribution = zipfianOf(args);
+                    return () -> to - distribution.sample(RandomSource.current());
+                })
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("random")
+                .withId("hotspot")
+                .withArgs(List.of("from: long", "to: long", "hotSetFraction: double", "hotAccessFraction: double"))
+                .withDescription("Generate a long value in a range, where a fraction of the range "
+                        + "receives a fraction of the values.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withFunction(args -> RandomData.randomHotspot(((Number) args[0]).longValue(),
+                        ((Number) args[1]).longValue(), ((Number) args[2]).doubleValue(),
+                        ((Number) args[3]).doubleValue()))
+                .withLongBinder(args -> {
+                    long from = ((Number) args[0]).longValue();
+                    HotspotDistribution distribution = new HotspotDistribution(
+                            ((Number) args[1]).longValue() - from + 1,
+                            ((Number) args[2]).doubleValue(), ((Number) args[3]).doubleValue());
+                    return () -> from + distribution.sample(RandomSource.current());
+                })
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("random")
+                .withId("gaussian")
+                .withArgs(List.of("mean: double", "stddev: double"))
+                .withDescription("Generate a normally distributed double value.")
+                .withReturnValue(Double.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withDoubleBinaryOperator(RandomData::randomGaussian)
+                .build());
     }
 
     public static void addIdFunctions(ExpressionRegistry registry) {
@@ -322,9 +448,54 @@ public final class ExpressionRegistryBuilder {
         registry.addFunction(FunctionDef.builder()
                 .withCategory("identity")
                 .withId("randomUUID")
-                .withDescription("Generate a random first name.")
+                .withDescription("Generate a random version 4 UUID.")
                 .withReturnValue(UUID.class)
-                .withFunction(args -> UUID.randomUUID())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomUUID())
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("identity")
+                .withId("randomUUIDv7")
+                .withDescription("Generate a time-ordered version 7 UUID.")
+                .withReturnValue(UUID.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withNullary(() -> RandomData.randomUUIDv7())
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("identity")
+                .withId("permute")
+                .withArgs(List.of("index: long", "size: long", "(optional) key: long"))
+                .withDescription("Map an index in the range [0, size) to a unique, scattered value in the same range.")
+                .withReturnValue(Long.class)
+                .withVolatility(Volatility.IMMUTABLE)
+                .withLongBinaryOperator((index, size) -> FeistelPermutation.of(size, 0).permute(index))
+                .withTernary((index, size, key) -> FeistelPermutation.of(((Number) size).longValue(),
+                        ((Number) key).longValue()).permute(((Number) index).longValue()))
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("identity")
+                .withId("uniqueUserName")
+                .withArgs(List.of("index: long", "(optional) size: long"))
+                .withDescription("Generate a unique user name for a row index, scattered through a permutation.")
+                .withReturnValue(String.class)
+                .withVolatility(Volatility.IMMUTABLE)
+                .withLongUnary(index -> RandomData.uniqueUserName(
+                        UNIQUE_NAME_PERMUTATION.permute(index)))
+                .withLongBinary((index, size) -> RandomData.uniqueUserName(
+                        FeistelPermutation.of(size, 0).permute(index)))
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withCategory("identity")
+                .withId("uniqueEmail")
+                .withArgs(List.of("index: long", "(optional) size: long"))
+                .withDescription("Generate a unique e-mail for a row index, scattered through a permutation.")
+                .withReturnValue(String.class)
+                .withVolatility(Volatility.IMMUTABLE)
+                .withLongUnary(index -> RandomData.uniqueEmail(
+                        UNIQUE_NAME_PERMUTATION.permute(index)))
+                .withLongBinary((index, size) -> RandomData.uniqueEmail(
+                        FeistelPermutation.of(size, 0).permute(index)))
                 .build());
     }
 
@@ -334,28 +505,34 @@ public final class ExpressionRegistryBuilder {
                 .withId("randomIPv4")
                 .withDescription("Generate a random IPv4 address.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomIPv4())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomIPv4())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("networking")
                 .withId("randomIPv6")
                 .withDescription("Generate a random IPv6 address.")
                 .withReturnValue(String.class)
-                .withFunction(args -> RandomData.randomIPv6())
+                .withVolatility(Volatility.VOLATILE)
+                .withNullary(() -> RandomData.randomIPv6())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("networking")
                 .withId("localIPv4")
                 .withDescription("Return local IPv6 address (behind NAT).")
                 .withReturnValue(String.class)
-                .withFunction(args -> Networking.getLocalIP())
+                .withVolatility(Volatility.STABLE)
+                .withReproducible(false)
+                .withNullary(() -> Networking.getLocalIP())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("networking")
                 .withId("publicIPv4")
                 .withDescription("Return public IPv6 address.")
                 .withReturnValue(String.class)
-                .withFunction(args -> Networking.getPublicIP())
+                .withVolatility(Volatility.STABLE)
+                .withReproducible(false)
+                .withNullary(() -> Networking.getPublicIP())
                 .build());
     }
 
@@ -366,21 +543,27 @@ public final class ExpressionRegistryBuilder {
                 .withId("randomDate")
                 .withDescription("Generate a random date.")
                 .withReturnValue(LocalDate.class)
-                .withFunction(args -> RandomData.randomDate())
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withNullary(() -> RandomData.randomDate())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("temporal")
                 .withId("randomTime")
                 .withDescription("Generate a random time.")
                 .withReturnValue(LocalTime.class)
-                .withFunction(args -> RandomData.randomTime())
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withNullary(() -> RandomData.randomTime())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("temporal")
                 .withId("randomDateTime")
                 .withDescription("Generate a random date/time name.")
                 .withReturnValue(LocalDateTime.class)
-                .withFunction(args -> RandomData.randomDateTime())
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withNullary(() -> RandomData.randomDateTime())
                 .build());
 
         registry.addFunction(FunctionDef.builder()
@@ -388,21 +571,27 @@ public final class ExpressionRegistryBuilder {
                 .withId("currentDate")
                 .withDescription("Generate current date.")
                 .withReturnValue(LocalDate.class)
-                .withFunction(args -> LocalDate.now())
+                .withVolatility(Volatility.STABLE)
+                .withReproducible(false)
+                .withNullary(() -> LocalDate.now())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("temporal")
                 .withId("currentTime")
                 .withDescription("Generate current time.")
                 .withReturnValue(LocalTime.class)
-                .withFunction(args -> LocalTime.now())
+                .withVolatility(Volatility.STABLE)
+                .withReproducible(false)
+                .withNullary(() -> LocalTime.now())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("temporal")
                 .withId("currentDateTime")
                 .withDescription("Generate current date/time name.")
                 .withReturnValue(LocalDateTime.class)
-                .withFunction(args -> LocalDateTime.now())
+                .withVolatility(Volatility.STABLE)
+                .withReproducible(false)
+                .withNullary(() -> LocalDateTime.now())
                 .build());
 
         registry.addFunction(FunctionDef.builder()
@@ -414,12 +603,9 @@ public final class ExpressionRegistryBuilder {
                         "unit: java.time.temporal.ChronoUnit"))
                 .withDescription("Add a value to a temporal object.")
                 .withReturnValue(Temporal.class)
-                .withFunction(args -> {
-                    Temporal temporal = (Temporal) args[0];
-                    Number amount = (Number) args[1];
-                    ChronoUnit unit = ChronoUnit.valueOf((String) args[2]);
-                    return temporal.plus(amount.longValue(), unit);
-                })
+                .withVolatility(Volatility.IMMUTABLE)
+                .withTernary((value, amountToAdd, unit) -> ((Temporal) value)
+                        .plus(((Number) amountToAdd).longValue(), ChronoUnit.valueOf((String) unit)))
                 .build());
 
     }
@@ -431,8 +617,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("str: String"))
                 .withDescription("Convert a string to lowercase.")
                 .withReturnValue(String.class)
-                .withFunction(args ->
-                        ((String) args[0]).toLowerCase())
+                .withVolatility(Volatility.IMMUTABLE)
+                .withUnary(str -> ((String) str).toLowerCase())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("text")
@@ -440,8 +626,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("str: String"))
                 .withDescription("Convert a string to uppercase.")
                 .withReturnValue(String.class)
-                .withFunction(args ->
-                        ((String) args[0]).toUpperCase())
+                .withVolatility(Volatility.IMMUTABLE)
+                .withUnary(str -> ((String) str).toUpperCase())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("text")
@@ -449,8 +635,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("str: String"))
                 .withDescription("Capitalize a string.")
                 .withReturnValue(String.class)
-                .withFunction(args ->
-                        StringUtils.capitalize((String) args[0]).toLowerCase())
+                .withVolatility(Volatility.IMMUTABLE)
+                .withUnary(str -> StringUtils.capitalize((String) str).toLowerCase())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("text")
@@ -458,8 +644,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("str: String"))
                 .withDescription("Trim a string from leading and tailing whitespace.")
                 .withReturnValue(String.class)
-                .withFunction(args ->
-                        ((String) args[0]).toLowerCase().trim())
+                .withVolatility(Volatility.IMMUTABLE)
+                .withUnary(str -> ((String) str).toLowerCase().trim())
                 .build());
         registry.addFunction(FunctionDef.builder()
                 .withCategory("text")
@@ -467,10 +653,8 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("arr: byte[]"))
                 .withDescription("Encode byte array to base64.")
                 .withReturnValue(String.class)
-                .withFunction(args -> {
-                    byte[] arr = (byte[]) args[0];
-                    return RandomData.toBase64(arr);
-                })
+                .withVolatility(Volatility.IMMUTABLE)
+                .withUnary(arr -> RandomData.toBase64((byte[]) arr))
                 .build());
     }
 
@@ -481,25 +665,21 @@ public final class ExpressionRegistryBuilder {
                 .withArgs(List.of("query: string", "args: object[]"))
                 .withDescription("Execute a read-only SQL query with a single row result.")
                 .withReturnValue(Object.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
                 .withFunction(SQLFunctions.selectOne(dataSource))
                 .build());
 
         registry.addFunction(FunctionDef.builder()
                 .withCategory("sql")
-                .withId("unorderedUniqueRowId")
-                .withArgs(List.of("batch_size: int"))
-                .withDescription("Returns a unique ID without ordering.")
-                .withReturnValue(Long.class)
-                .withFunction(SQLFunctions.unorderedUniqueRowId(dataSource))
-                .build());
-
-        registry.addFunction(FunctionDef.builder()
-                .withCategory("sql")
-                .withId("uniqueRowId")
-                .withArgs(List.of("batch_size: int"))
-                .withDescription("Returns a unique ID with ordering.")
-                .withReturnValue(Long.class)
-                .withFunction(SQLFunctions.uniqueRowId(dataSource))
+                .withId("selectRandomFrom")
+                .withArgs(List.of("query: string", "pool_size: int", "refresh_seconds: int"))
+                .withDescription("Returns a random value from a cached sample of a read-only SQL query, "
+                        + "refreshed in the background (0 means never).")
+                .withReturnValue(Object.class)
+                .withVolatility(Volatility.VOLATILE)
+                .withReproducible(false)
+                .withTernary(SQLFunctions.selectRandomFrom(dataSource))
                 .build());
     }
 }
@@ -3,8 +3,15 @@ package io.cockroachdb.bigbench.expression;
 /**
  * An interface used by {@link ExpressionParseTreeListener} for invoking
  * callback functions.
+ * <p/>
+ * The nested interfaces are arity-specialized entry points that the expression
+ * compiler binds to directly, which avoids packing arguments into an array and
+ * unboxing primitive arguments on every call. The operator variants also return
+ * a primitive, so that chains of numeric calls and arithmetic are evaluated
+ * without boxing.
  *
  * @author Kai Niemi
+ * @see FunctionDef.Builder
  */
 @FunctionalInterface
 public interface Function {
@@ -16,4 +23,78 @@ public interface Function {
      * @throws Exception on any exception error
      */
     Object call(Object... args) throws Exception;
+
+    @FunctionalInterface
+    interface Nullary {
+        Object call() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Unary {
+        Object call(Object arg1) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Binary {
+        Object call(Object arg1, Object arg2) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Ternary {
+        Object call(Object arg1, Object arg2, Object arg3) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface LongUnary {
+        Object call(long arg1) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface LongBinary {
+        Object call(long arg1, long arg2) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface DoubleUnary {
+        Object call(double arg1) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface DoubleBinary {
+        Object call(double arg1, double arg2) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface LongNullary {
+        long call() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface LongBinaryOperator {
+        long call(long arg1, long arg2) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface DoubleNullary {
+        double call() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface DoubleUnaryOperator {
+        double call(double arg1) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface DoubleBinaryOperator {
+        double call(double arg1, double arg2) throws Exception;
+    }
+
+    /**
+     * Binds a call with constant arguments once at compile time, for functions
+     * with costly setup per argument list such as skewed distributions.
+     */
+    @FunctionalInterface
+    interface LongBinder {
+        LongNullary bind(Object... args) throws Exception;
+    }
 }
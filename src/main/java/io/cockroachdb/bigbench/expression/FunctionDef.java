@@ -47,17 +47,132 @@ public class FunctionDef {
             return this;
         }
 
+        public Builder withVolatility(Volatility volatility) {
+            instance.volatility = volatility;
+            return this;
+        }
+
+        /**
+         * Mark a function that depends on the clock, the host or the database,
+         * so that seeded streams calling it are not reproducible. Defaults to true.
+         */
+        public Builder withReproducible(boolean reproducible) {
+            instance.reproducible = reproducible;
+            return this;
+        }
+
         public Builder withFunction(Function function) {
             instance.function = function;
             return this;
         }
 
+        public Builder withNullary(Function.Nullary function) {
+            instance.nullary = function;
+            instance.longNullary = null;
+            instance.doubleNullary = null;
+            return this;
+        }
+
+        public Builder withUnary(Function.Unary function) {
+            instance.unary = function;
+            instance.longUnary = null;
+            instance.doubleUnary = null;
+            instance.doubleUnaryOperator = null;
+            return this;
+        }
+
+        public Builder withBinary(Function.Binary function) {
+            instance.binary = function;
+            instance.longBinary = null;
+            instance.longBinaryOperator = null;
+            instance.doubleBinary = null;
+            instance.doubleBinaryOperator = null;
+            return this;
+        }
+
+        public Builder withTernary(Function.Ternary function) {
+            instance.ternary = function;
+            return this;
+        }
+
+        public Builder withLongUnary(Function.LongUnary function) {
+            withUnary(arg1 -> function.call(((Number) arg1).longValue()));
+            instance.longUnary = function;
+            return this;
+        }
+
+        public Builder withLongBinary(Function.LongBinary function) {
+            withBinary((arg1, arg2) -> function.call(
+                    ((Number) arg1).longValue(), ((Number) arg2).longValue()));
+            instance.longBinary = function;
+            return this;
+        }
+
+        public Builder withDoubleUnary(Function.DoubleUnary function) {
+            withUnary(arg1 -> function.call(((Number) arg1).doubleValue()));
+            instance.doubleUnary = function;
+            return this;
+        }
+
+        public Builder withDoubleBinary(Function.DoubleBinary function) {
+            withBinary((arg1, arg2) -> function.call(
+                    ((Number) arg1).doubleValue(), ((Number) arg2).doubleValue()));
+            instance.doubleBinary = function;
+            return this;
+        }
+
+        public Builder withLongNullary(Function.LongNullary function) {
+            withNullary(function::call);
+            instance.longNullary = function;
+            return this;
+        }
+
+        public Builder withLongBinaryOperator(Function.LongBinaryOperator function) {
+            withBinary((arg1, arg2) -> function.call(
+                    ((Number) arg1).longValue(), ((Number) arg2).longValue()));
+            instance.longBinaryOperator = function;
+            return this;
+        }
+
+        /**
+         * Bind calls with constant arguments at compile time, while calls with
+         * other arguments use the plain function.
+         */
+        public Builder withLongBinder(Function.LongBinder binder) {
+            instance.longBinder = binder;
+            return this;
+        }
+
+        public Builder withDoubleNullary(Function.DoubleNullary function) {
+            withNullary(function::call);
+            instance.doubleNullary = function;
+            return this;
+        }
+
+        public Builder withDoubleUnaryOperator(Function.DoubleUnaryOperator function) {
+            withUnary(arg1 -> function.call(((Number) arg1).doubleValue()));
+            instance.doubleUnaryOperator = function;
+            return this;
+        }
+
+        public Builder withDoubleBinaryOperator(Function.DoubleBinaryOperator function) {
+            withBinary((arg1, arg2) -> function.call(
+                    ((Number) arg1).doubleValue(), ((Number) arg2).doubleValue()));
+            instance.doubleBinaryOperator = function;
+            return this;
+        }
+
         public FunctionDef build() {
             if (!StringUtils.hasLength(instance.id)) {
                 throw new IllegalStateException("id is required");
             }
             if (instance.function == null) {
-                throw new IllegalStateException("id is required");
+                if (instance.nullary == null && instance.unary == null
+                        && instance.binary == null && instance.ternary == null) {
+                    throw new IllegalStateException("function is required");
+                }
+                instance.function = instance::callByArity;
+                instance.arityChecked = true;
             }
             return instance;
         }
@@ -73,11 +188,79 @@ public class FunctionDef {
 
     private String description;
 
+    private Volatility volatility = Volatility.VOLATILE;
+
+    private boolean reproducible = true;
+
     private Function function;
 
+    private Function.Nullary nullary;
+
+    private Function.Unary unary;
+
+    private Function.Binary binary;
+
+    private Function.Ternary ternary;
+
+    private Function.LongUnary longUnary;
+
+    private Function.LongBinary longBinary;
+
+    private Function.DoubleUnary doubleUnary;
+
+    private Function.DoubleBinary doubleBinary;
+
+    private Function.LongNullary longNullary;
+
+    private Function.LongBinaryOperator longBinaryOperator;
+
+    private Function.DoubleNullary doubleNullary;
+
+    private Function.DoubleUnaryOperator doubleUnaryOperator;
+
+    private Function.DoubleBinaryOperator doubleBinaryOperator;
+
+    private Function.LongBinder longBinder;
+
+    private boolean arityChecked;
+
     private FunctionDef() {
     }
 
+    /**
+     * @param arity the number of arguments in a call
+     * @return true if the function has an entry point for the number of arguments,
+     * always true for functions taking variable arguments
+     */
+    public boolean acceptsArity(int arity) {
+        if (!arityChecked) {
+            return true;
+        }
+        return switch (arity) {
+            case 0 -> nullary != null;
+            case 1 -> unary != null;
+            case 2 -> binary != null;
+            case 3 -> ternary != null;
+            default -> false;
+        };
+    }
+
+    private Object callByArity(Object... args) throws Exception {
+        if (args.length == 0 && nullary != null) {
+            return nullary.call();
+        }
+        if (args.length == 1 && unary != null) {
+            return unary.call(args[0]);
+        }
+        if (args.length == 2 && binary != null) {
+            return binary.call(args[0], args[1]);
+        }
+        if (args.length == 3 && ternary != null) {
+            return ternary.call(args[0], args[1], args[2]);
+        }
+        throw new IllegalArgumentException("Function " + id + " does not take " + args.length + " argument(s)");
+    }
+
     public String getCategory() {
         return category;
     }
@@ -102,10 +285,74 @@ public class FunctionDef {
         return description;
     }
 
+    public Volatility getVolatility() {
+        return volatility;
+    }
+
+    public boolean isReproducible() {
+        return reproducible;
+    }
+
     public Function getFunction() {
         return function;
     }
 
+    public Function.Nullary getNullary() {
+        return nullary;
+    }
+
+    public Function.Unary getUnary() {
+        return unary;
+    }
+
+    public Function.Binary getBinary() {
+        return binary;
+    }
+
+    public Function.Ternary getTernary() {
+        return ternary;
+    }
+
+    public Function.LongUnary getLongUnary() {
+        return longUnary;
+    }
+
+    public Function.LongBinary getLongBinary() {
+        return longBinary;
+    }
+
+    public Function.DoubleUnary getDoubleUnary() {
+        return doubleUnary;
+    }
+
+    public Function.DoubleBinary getDoubleBinary() {
+        return doubleBinary;
+    }
+
+    public Function.LongNullary getLongNullary() {
+        return longNullary;
+    }
+
+    public Function.LongBinaryOperator getLongBinaryOperator() {
+        return longBinaryOperator;
+    }
+
+    public Function.DoubleNullary getDoubleNullary() {
+        return doubleNullary;
+    }
+
+    public Function.DoubleUnaryOperator getDoubleUnaryOperator() {
+        return doubleUnaryOperator;
+    }
+
+    public Function.DoubleBinaryOperator getDoubleBinaryOperator() {
+        return doubleBinaryOperator;
+    }
+
+    public Function.LongBinder getLongBinder() {
+        return longBinder;
+    }
+
     public String toSignature() {
         StringBuilder sb = new StringBuilder(getId());
         sb.append("(");
@@ -0,0 +1,96 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable snapshot of another registry, safe to share between
+ * concurrent streams. Stream-local functions are added to an
+ * {@link OverlayExpressionRegistry} on top of it.
+ */
+public class ImmutableExpressionRegistry implements ExpressionRegistry {
+    public static ImmutableExpressionRegistry copyOf(ExpressionRegistry source) {
+        return new ImmutableExpressionRegistry(source);
+    }
+
+    private final Map<String, Object> variables;
+
+    private final Map<String, FunctionDef> functions;
+
+    private final Set<String> categories;
+
+    private ImmutableExpressionRegistry(ExpressionRegistry source) {
+        Map<String, Object> variables = new HashMap<>();
+        source.variableNames().forEach(id ->
+                source.findVariable(id).ifPresent(value -> variables.put(id, value)));
+
+        Map<String, FunctionDef> functions = new HashMap<>();
+        source.functionDefinitions().forEach(functionDef -> {
+            for (String id : functionDef.getId().split(";")) {
+                functions.putIfAbsent(id, functionDef);
+            }
+        });
+
+        this.variables = Map.copyOf(variables);
+        this.functions = Map.copyOf(functions);
+        this.categories = this.functions.values().stream()
+                .map(FunctionDef::getCategory)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Optional<Object> findVariable(String id) {
+        return Optional.ofNullable(variables.get(id));
+    }
+
+    @Override
+    public Optional<FunctionDef> findFunction(String id) {
+        return Optional.ofNullable(functions.get(id));
+    }
+
+    @Override
+    public ExpressionRegistry addVariable(String id, Object value) {
+        throw new UnsupportedOperationException("Registry is immutable");
+    }
+
+    @Override
+    public ExpressionRegistry addFunction(String id, Function function) {
+        throw new UnsupportedOperationException("Registry is immutable");
+    }
+
+    @Override
+    public ExpressionRegistry addFunction(FunctionDef functionDef) {
+        throw new UnsupportedOperationException("Registry is immutable");
+    }
+
+    @Override
+    public Iterable<String> variableNames() {
+        return variables.keySet();
+    }
+
+    @Override
+    public Iterable<String> functionCategories() {
+        return categories;
+    }
+
+    @Override
+    public Iterable<FunctionDef> functionDefinitions(String category) {
+        List<FunctionDef> defList = new ArrayList<>();
+        functions.values().forEach(functionDef -> {
+            if (category.equals(functionDef.getCategory())) {
+                defList.add(functionDef);
+            }
+        });
+        return defList;
+    }
+
+    @Override
+    public Iterable<FunctionDef> functionDefinitions() {
+        return functions.values();
+    }
+}
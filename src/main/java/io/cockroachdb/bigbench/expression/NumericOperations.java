@@ -0,0 +1,232 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Typed arithmetic for compiled expressions. Integral values are kept as {@code long}
+ * and floating-point values as {@code double}, and are only promoted to BigDecimal
+ * when an operand is already a BigDecimal or when long arithmetic overflows.
+ * <p/>
+ * Integral division rounds half-even just like BigDecimal division at scale zero,
+ * so results compare equal to the interpreted (all BigDecimal) outcome.
+ */
+abstract class NumericOperations {
+    private NumericOperations() {
+    }
+
+    /**
+     * Widen a number into one of the types used in evaluation.
+     *
+     * @param n the number
+     * @return a Long, Double or BigDecimal
+     */
+    static Number widen(Number n) {
+        if (n instanceof Long || n instanceof Double || n instanceof BigDecimal) {
+            return n;
+        }
+        if (n instanceof Integer || n instanceof Short || n instanceof Byte) {
+            return n.longValue();
+        }
+        if (n instanceof Float) {
+            return n.doubleValue();
+        }
+        return toBigDecimal(n);
+    }
+
+    static BigDecimal toBigDecimal(Number n) {
+        if (n instanceof BigDecimal bd) {
+            return bd;
+        }
+        if (n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte) {
+            return BigDecimal.valueOf(n.longValue());
+        }
+        if (n instanceof Double d) {
+            return BigDecimal.valueOf(d);
+        }
+        if (n instanceof BigInteger bi) {
+            return new BigDecimal(bi);
+        }
+        return new BigDecimal(Objects.toString(n));
+    }
+
+    static boolean isIntegral(Number n) {
+        return n instanceof Long;
+    }
+
+    static boolean isDecimal(Number n) {
+        return n instanceof BigDecimal;
+    }
+
+    static Number add(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            long a = l.longValue();
+            long b = r.longValue();
+            long c = a + b;
+            if (((a ^ c) & (b ^ c)) < 0) {
+                return BigDecimal.valueOf(a).add(BigDecimal.valueOf(b));
+            }
+            return c;
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).add(toBigDecimal(r));
+        }
+        return l.doubleValue() + r.doubleValue();
+    }
+
+    static Number subtract(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            long a = l.longValue();
+            long b = r.longValue();
+            long c = a - b;
+            if (((a ^ b) & (a ^ c)) < 0) {
+                return BigDecimal.valueOf(a).subtract(BigDecimal.valueOf(b));
+            }
+            return c;
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).subtract(toBigDecimal(r));
+        }
+        return l.doubleValue() - r.doubleValue();
+    }
+
+    static Number multiply(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            long a = l.longValue();
+            long b = r.longValue();
+            long hi = Math.multiplyHigh(a, b);
+            long lo = a * b;
+            if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+                return lo;
+            }
+            return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b));
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).multiply(toBigDecimal(r));
+        }
+        return l.doubleValue() * r.doubleValue();
+    }
+
+    static Number divide(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            long a = l.longValue();
+            long b = r.longValue();
+            if (b == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            if (a == Long.MIN_VALUE && b == -1) {
+                return BigDecimal.valueOf(a).negate();
+            }
+            return divideHalfEven(a, b);
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).divide(toBigDecimal(r), RoundingMode.HALF_EVEN);
+        }
+        return l.doubleValue() / r.doubleValue();
+    }
+
+    /**
+     * Divide two longs rounding half-even.
+     *
+     * @throws ArithmeticException on division by zero or if the quotient overflows
+     */
+    static long divideHalfEven(long a, long b) {
+        if (a == Long.MIN_VALUE && b == -1) {
+            throw new ArithmeticException("long overflow");
+        }
+        long q = a / b;
+        long rem = a % b;
+        if (rem != 0) {
+            long absRem = Math.abs(rem);
+            long absDiv = Math.abs(b);
+            long cmp = absRem - (absDiv - absRem);
+            if (cmp > 0 || (cmp == 0 && (q & 1) != 0)) {
+                q += ((a ^ b) < 0) ? -1 : 1;
+            }
+        }
+        return q;
+    }
+
+    static Number remainder(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            long b = r.longValue();
+            if (b == 0) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return l.longValue() % b;
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).remainder(toBigDecimal(r));
+        }
+        return l.doubleValue() % r.doubleValue();
+    }
+
+    static Number min(Number l, Number r) {
+        return compare(l, r) <= 0 ? l : r;
+    }
+
+    static Number max(Number l, Number r) {
+        return compare(l, r) >= 0 ? l : r;
+    }
+
+    /**
+     * Raise a number to an integral power.
+     *
+     * @param l the base
+     * @param exponent the exponent
+     * @return the power
+     */
+    static Number pow(Number l, int exponent) {
+        if (isIntegral(l) && exponent >= 0) {
+            long base = l.longValue();
+            try {
+                return powExact(base, exponent);
+            } catch (ArithmeticException e) {
+                return BigDecimal.valueOf(base).pow(exponent);
+            }
+        }
+        if (l instanceof Double) {
+            return Math.pow(l.doubleValue(), exponent);
+        }
+        return toBigDecimal(l).pow(exponent);
+    }
+
+    /**
+     * Raise a long to a non-negative power.
+     *
+     * @throws ArithmeticException if the exponent is negative or the result overflows
+     */
+    static long powExact(long base, int exponent) {
+        if (exponent < 0) {
+            throw new ArithmeticException("Negative exponent");
+        }
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = Math.multiplyExact(result, base);
+        }
+        return result;
+    }
+
+    static Number negate(Number n) {
+        if (isIntegral(n)) {
+            long v = n.longValue();
+            return v == Long.MIN_VALUE ? BigDecimal.valueOf(v).negate() : -v;
+        }
+        if (isDecimal(n)) {
+            return ((BigDecimal) n).negate();
+        }
+        return -n.doubleValue();
+    }
+
+    static int compare(Number l, Number r) {
+        if (isIntegral(l) && isIntegral(r)) {
+            return Long.compare(l.longValue(), r.longValue());
+        }
+        if (isDecimal(l) || isDecimal(r)) {
+            return toBigDecimal(l).compareTo(toBigDecimal(r));
+        }
+        return Double.compare(l.doubleValue(), r.doubleValue());
+    }
+}
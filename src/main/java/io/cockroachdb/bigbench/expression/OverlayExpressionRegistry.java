@@ -0,0 +1,100 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A mutable registry layered on top of a shared base registry. Additions
+ * go to the overlay and take precedence over the base, which is never modified.
+ */
+public class OverlayExpressionRegistry implements ExpressionRegistry {
+    private final ExpressionRegistry base;
+
+    private final DefaultExpressionRegistry overlay = new DefaultExpressionRegistry();
+
+    public OverlayExpressionRegistry(ExpressionRegistry base) {
+        this.base = base;
+    }
+
+    @Override
+    public Optional<Object> findVariable(String id) {
+        Optional<Object> value = overlay.findVariable(id);
+        return value.isPresent() ? value : base.findVariable(id);
+    }
+
+    @Override
+    public Optional<FunctionDef> findFunction(String id) {
+        Optional<FunctionDef> functionDef = overlay.findFunction(id);
+        return functionDef.isPresent() ? functionDef : base.findFunction(id);
+    }
+
+    @Override
+    public OverlayExpressionRegistry addVariable(String id, Object value) {
+        overlay.addVariable(id, value);
+        return this;
+    }
+
+    @Override
+    public OverlayExpressionRegistry addFunction(String id, Function function) {
+        overlay.addFunction(id, function);
+        return this;
+    }
+
+    @Override
+    public OverlayExpressionRegistry addFunction(FunctionDef functionDef) {
+        overlay.addFunction(functionDef);
+        return this;
+    }
+
+    @Override
+    public Iterable<String> variableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        overlay.variableNames().forEach(names::add);
+        base.variableNames().forEach(names::add);
+        return names;
+    }
+
+    @Override
+    public Iterable<String> functionCategories() {
+        Set<String> categories = new LinkedHashSet<>();
+        overlay.functionCategories().forEach(categories::add);
+        base.functionCategories().forEach(categories::add);
+        return categories;
+    }
+
+    @Override
+    public Iterable<FunctionDef> functionDefinitions(String category) {
+        List<FunctionDef> defList = new ArrayList<>();
+        overlay.functionDefinitions(category).forEach(defList::add);
+        base.functionDefinitions(category).forEach(functionDef -> {
+            if (!isShadowed(functionDef)) {
+                defList.add(functionDef);
+            }
+        });
+        return defList;
+    }
+
+    @Override
+    public Iterable<FunctionDef> functionDefinitions() {
+        List<FunctionDef> defList = new ArrayList<>();
+        overlay.functionDefinitions().forEach(defList::add);
+        base.functionDefinitions().forEach(functionDef -> {
+            if (!isShadowed(functionDef)) {
+                defList.add(functionDef);
+            }
+        });
+        return defList;
+    }
+
+    private boolean isShadowed(FunctionDef functionDef) {
+        for (String id : functionDef.getId().split(";")) {
+            if (overlay.findFunction(id).isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,14 +4,19 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.sql.DataSource;
 
+import io.cockroachdb.bigbench.jdbc.IdPrefetcher;
+
 public abstract class SQLFunctions {
     private SQLFunctions() {
     }
@@ -51,51 +56,67 @@ public abstract class SQLFunctions {
         };
     }
 
-    public static Function unorderedUniqueRowId(DataSource dataSource) {
-        Deque<Long> uniqueRowIdBuffer = new LinkedList<>();
-                      
-        return args -> {
-            Number batchSize = (Number) args[0];
-            if (uniqueRowIdBuffer.isEmpty()) {
-                try (Connection conn = dataSource.getConnection();
-                     PreparedStatement ps = conn.prepareStatement(
-                             "select unordered_unique_rowid() from generate_series(1, "
-                                     + batchSize.intValue() + ")")) {
-                    ps.setFetchSize(batchSize.intValue());
-                    try (ResultSet res = ps.executeQuery()) {
-                        while (res.next()) {
-                            uniqueRowIdBuffer.add(res.getLong(1));
-                        }
-                    }
-                } catch (SQLException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
-            return uniqueRowIdBuffer.pop();
+    /**
+     * Draws random values from an in-memory sample of a single column query,
+     * loaded once per query, pool size and refresh interval and refreshed in
+     * the background. Safe to share between streams.
+     */
+    public static Function.Ternary selectRandomFrom(DataSource dataSource) {
+        record PoolKey(String query, int poolSize, long refreshSeconds) {
+        }
+
+        Map<PoolKey, SamplingPool> pools = new ConcurrentHashMap<>();
+
+        return (query, poolSize, refreshSeconds) -> {
+            PoolKey key = new PoolKey((String) query, ((Number) poolSize).intValue(),
+                    ((Number) refreshSeconds).longValue());
+            return pools.computeIfAbsent(key, k -> new SamplingPool(dataSource, k.query(), k.poolSize(),
+                            Duration.ofSeconds(k.refreshSeconds())))
+                    .next();
         };
     }
 
+    public static Function unorderedUniqueRowId(DataSource dataSource) {
+        return rowIdFunction(dataSource, "unordered_unique_rowid()");
+    }
+
     public static Function uniqueRowId(DataSource dataSource) {
-        Deque<Long> uniqueRowIdBuffer = new LinkedList<>();
+        return rowIdFunction(dataSource, "unique_rowid()");
+    }
 
-        return args -> {
-            Number batchSize = (Number) args[0];
-            if (uniqueRowIdBuffer.isEmpty()) {
-                try (Connection conn = dataSource.getConnection();
-                     PreparedStatement ps = conn.prepareStatement(
-                             "select unique_rowid() from generate_series(1, "
-                                     + batchSize.intValue() + ")")) {
-                    ps.setFetchSize(batchSize.intValue());
-                    try (ResultSet res = ps.executeQuery()) {
-                        while (res.next()) {
-                            uniqueRowIdBuffer.add(res.getLong(1));
-                        }
-                    }
-                } catch (SQLException e) {
-                    throw new IllegalStateException(e);
-                }
+    private static Function rowIdFunction(DataSource dataSource, String selectExpression) {
+        return new RowIdFunction(dataSource, selectExpression);
+    }
+
+    /**
+     * Draws row IDs from one prefetcher per batch size, created on first use.
+     * Holds per-stream state and is meant for a single consumer thread.
+     */
+    private static class RowIdFunction implements Function {
+        private final DataSource dataSource;
+
+        private final String selectExpression;
+
+        private final Map<Integer, IdPrefetcher> prefetchers = new HashMap<>();
+
+        private IdPrefetcher current;
+
+        private int currentBatchSize;
+
+        RowIdFunction(DataSource dataSource, String selectExpression) {
+            this.dataSource = dataSource;
+            this.selectExpression = selectExpression;
+        }
+
+        @Override
+        public Object call(Object... args) {
+            int batchSize = ((Number) args[0]).intValue();
+            if (current == null || batchSize != currentBatchSize) {
+                current = prefetchers.computeIfAbsent(batchSize,
+                        size -> new IdPrefetcher(dataSource, selectExpression, size));
+                currentBatchSize = batchSize;
             }
-            return uniqueRowIdBuffer.pop();
-        };
+            return current.nextLong();
+        }
     }
 }
@@ -0,0 +1,122 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cockroachdb.bigbench.util.RandomSource;
+
+/**
+ * An in-memory sample of single column query results that values are
+ * drawn from at random. The sample is loaded on first use and then
+ * reloaded in the background once the refresh interval has passed,
+ * while the stale sample keeps serving values.
+ * <p/>
+ * The query is wrapped to pick rows in random order on the server, so the
+ * sample covers the whole result and not just the first rows returned.
+ */
+class SamplingPool {
+    private static final Logger logger = LoggerFactory.getLogger(SamplingPool.class);
+
+    private final DataSource dataSource;
+
+    private final String query;
+
+    private final int poolSize;
+
+    private final long refreshNanos;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Object[] values;
+
+    private volatile long loadTime;
+
+    SamplingPool(DataSource dataSource, String query, int poolSize, Duration refreshInterval) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("pool size must be > 0");
+        }
+        this.dataSource = dataSource;
+        this.query = query;
+        this.poolSize = poolSize;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    Object next() {
+        Object[] sample = values;
+        if (sample == null) {
+            sample = loadInitial();
+        } else if (refreshNanos > 0
+                && System.nanoTime() - loadTime > refreshNanos
+                && refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("sampling-pool-refresh").start(this::refresh);
+        }
+        return sample[RandomSource.current().nextInt(sample.length)];
+    }
+
+    private synchronized Object[] loadInitial() {
+        if (values == null) {
+            values = load();
+            loadTime = System.nanoTime();
+        }
+        return values;
+    }
+
+    private void refresh() {
+        try {
+            values = load();
+        } catch (RuntimeException e) {
+            logger.warn("Unable to refresh sampling pool for query: " + query, e);
+        } finally {
+            loadTime = System.nanoTime();
+            refreshing.set(false);
+        }
+    }
+
+    static String sampleQuery(String query) {
+        String subquery = query.strip();
+        if (subquery.endsWith(";")) {
+            subquery = subquery.substring(0, subquery.length() - 1);
+        }
+        return "SELECT * FROM (" + subquery + ") AS sample ORDER BY random() LIMIT ?";
+    }
+
+    private Object[] load() {
+        List<Object> result = new ArrayList<>(poolSize);
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setReadOnly(true);
+            conn.setAutoCommit(true);
+
+            //noinspection SqlSourceToSinkFlow
+            try (PreparedStatement ps = conn.prepareStatement(sampleQuery(query))) {
+                ps.setInt(1, poolSize);
+                ps.setFetchSize(Math.min(poolSize, 1024));
+
+                try (ResultSet res = ps.executeQuery()) {
+                    while (res.next()) {
+                        result.add(res.getObject(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Expected at least 1 row for query: " + query);
+        }
+
+        return result.toArray();
+    }
+}
@@ -0,0 +1,23 @@
+package io.cockroachdb.bigbench.expression;
+
+/**
+ * Volatility classification of functions, used by the expression compiler
+ * to decide how often a function call must be evaluated. Modelled after the
+ * PostgreSQL function volatility categories.
+ */
+public enum Volatility {
+    /**
+     * Always returns the same result for the same arguments. Calls with
+     * constant arguments are folded into constants at compile time.
+     */
+    IMMUTABLE,
+    /**
+     * Returns the same result for the same arguments within a single stream.
+     * Calls with constant arguments are evaluated once per compiled expression.
+     */
+    STABLE,
+    /**
+     * May return a different result on every call. This is the default.
+     */
+    VOLATILE
+}
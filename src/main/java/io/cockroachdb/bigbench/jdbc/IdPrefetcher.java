@@ -0,0 +1,177 @@
+package io.cockroachdb.bigbench.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import io.cockroachdb.bigbench.util.LongRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Prefetches database generated IDs, such as {@code unique_rowid()} or sequence values,
+ * in blocks using {@code generate_series}. The next block is loaded in the background
+ * into a ring buffer while the current one drains, so the consumer only waits for
+ * a round trip when it outpaces the database.
+ * <p/>
+ * The block size starts at the configured batch size and grows with the observed
+ * consumption rate and refill latency, so that one refill covers several round
+ * trips worth of consumption. Refill latency and consumer stalls are recorded
+ * in the global meter registry.
+ * <p/>
+ * Instances are meant for a single consumer thread.
+ */
+@SuppressWarnings("SqlSourceToSinkFlow")
+public class IdPrefetcher {
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    private static final int MAX_BATCH_SIZE = 1 << 16;
+
+    private static final Executor REFILL_EXECUTOR
+            = runnable -> Thread.ofVirtual().name("id-prefetch").start(runnable);
+
+    private final DataSource dataSource;
+
+    private final String selectExpression;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final LongRingBuffer ringBuffer;
+
+    private final Timer refillTime;
+
+    private final Counter stalls;
+
+    private int batchSize;
+
+    private CompletableFuture<Void> refill;
+
+    private long consumed;
+
+    private long lastRefillStart;
+
+    private volatile long refillLatencyNanos;
+
+    /**
+     * @param dataSource       the data source
+     * @param selectExpression the SQL expression producing one ID, like {@code unique_rowid()}
+     * @param batchSize        the initial and minimum block size
+     */
+    public IdPrefetcher(DataSource dataSource, String selectExpression, int batchSize) {
+        this.dataSource = dataSource;
+        this.selectExpression = selectExpression;
+        this.minBatchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.maxBatchSize = Math.max(minBatchSize, Math.min(minBatchSize * 16, MAX_BATCH_SIZE));
+        this.batchSize = minBatchSize;
+        this.ringBuffer = new LongRingBuffer(maxBatchSize * 2);
+
+        this.refillTime = Timer.builder("bigbench.id.prefetch.refill.time")
+                .description("ID prefetch refill latency")
+                .tag("expression", selectExpression)
+                .publishPercentiles(.5, .9, .99)
+                .register(Metrics.globalRegistry);
+        this.stalls = Counter.builder("bigbench.id.prefetch.stalls")
+                .description("Number of times a consumer waited for an ID refill")
+                .tag("expression", selectExpression)
+                .register(Metrics.globalRegistry);
+    }
+
+    public long nextLong() {
+        if (ringBuffer.isEmpty()) {
+            stalls.increment();
+            if (refill == null) {
+                startRefill();
+            }
+            awaitRefill(true);
+            if (ringBuffer.isEmpty()) {
+                throw new IllegalStateException("No IDs returned by: " + selectExpression);
+            }
+        }
+
+        long id = ringBuffer.poll();
+        consumed++;
+
+        awaitRefill(false);
+        if (refill == null && ringBuffer.size() <= batchSize / 2) {
+            startRefill();
+        }
+
+        return id;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void startRefill() {
+        long now = System.nanoTime();
+        long latency = refillLatencyNanos;
+        if (lastRefillStart > 0 && latency > 0 && now > lastRefillStart) {
+            // Size a block to last for four refill round trips at the observed rate
+            double rate = (double) consumed / (now - lastRefillStart);
+            long target = (long) (rate * latency * 4);
+            batchSize = (int) Math.max(minBatchSize, Math.min(maxBatchSize, target));
+        }
+        lastRefillStart = now;
+        consumed = 0;
+
+        final int count = batchSize;
+        refill = CompletableFuture.runAsync(() -> load(count), REFILL_EXECUTOR);
+    }
+
+    private void awaitRefill(boolean wait) {
+        if (refill == null || !(wait || refill.isDone())) {
+            return;
+        }
+        try {
+            refill.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("ID prefetch failed for: " + selectExpression, e.getCause());
+        } finally {
+            refill = null;
+        }
+    }
+
+    private void load(int count) {
+        long start = System.nanoTime();
+
+        long[] ids = new long[count];
+        int n = 0;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "select " + selectExpression + " from generate_series(1, " + count + ")")) {
+            ps.setFetchSize(count);
+            try (ResultSet res = ps.executeQuery()) {
+                while (res.next() && n < count) {
+                    ids[n++] = res.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        int offered = ringBuffer.offer(ids, 0, n);
+        if (offered != n) {
+            // Only one refill is in flight and it starts at half a block, so a block always fits
+            throw new IllegalStateException("ID buffer overflow for: %s, dropped %d of %d IDs"
+                    .formatted(selectExpression, n - offered, n));
+        }
+
+        long elapsed = System.nanoTime() - start;
+        refillTime.record(elapsed, TimeUnit.NANOSECONDS);
+
+        long previous = refillLatencyNanos;
+        refillLatencyNanos = previous == 0 ? elapsed : (previous * 3 + elapsed) / 4;
+    }
+}
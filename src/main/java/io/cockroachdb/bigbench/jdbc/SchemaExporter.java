@@ -54,7 +54,7 @@ public abstract class SchemaExporter {
         columnModels.forEach(columnModel -> {
             Column column = new Column();
             column.setName(columnModel.getName());
-            column.setTypeName(columnModel.getJdbcType().getName());
+            column.setTypeName(typeName(columnModel));
             column.setIdentity(columnModel.getIdentity());
             column.setExpression(columnModel.getExpression());
             columns.add(column);
@@ -62,6 +62,23 @@ public abstract class SchemaExporter {
         return columns;
     }
 
+    private static String typeName(ColumnModel model) {
+        JDBCType jdbcType = model.getJdbcType();
+        if (jdbcType == JDBCType.BIT && "bool".equalsIgnoreCase(model.getAttribute("TYPE_NAME", String.class))) {
+            // pgjdbc reports booleans as BIT, which is not the same as BIT(n) for binary encodings
+            return JDBCType.BOOLEAN.getName();
+        }
+        if (jdbcType == JDBCType.NUMERIC || jdbcType == JDBCType.DECIMAL) {
+            // Keep precision and scale for typed (Avro) encodings, unless unconstrained
+            int columnSize = model.getAttribute("COLUMN_SIZE", Integer.class, 0);
+            int digits = model.getAttribute("DECIMAL_DIGITS", Integer.class, 0);
+            if (columnSize > 0 && columnSize <= 38) {
+                return "%s(%d,%d)".formatted(jdbcType.getName(), columnSize, digits);
+            }
+        }
+        return jdbcType.getName();
+    }
+
     private static DirectedAcyclicGraph<TableModel, ForeignKeyModel> exportSchema(
             DataSource dataSource, List<TableModel> tableModels) {
         // First pass, resolve table columns
@@ -2,6 +2,7 @@ package io.cockroachdb.bigbench.model;
 
 import org.springframework.validation.annotation.Validated;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +26,8 @@ public class Column {
 
     private ValueSet<?> valueSet;
 
+    private Distribution distribution;
+
     private Boolean hidden;
 
     public String getTypeName() {
@@ -35,6 +38,15 @@ public class Column {
         this.typeName = typeName;
     }
 
+    /**
+     * @return the type name without modifiers such as precision and scale,
+     * for example NUMERIC for NUMERIC(10,2)
+     */
+    @JsonIgnore
+    public String getBaseTypeName() {
+        return typeName != null ? typeName.replaceAll("\\(.*?\\)", "").trim() : null;
+    }
+
     public Boolean isHidden() {
         return hidden;
     }
@@ -51,6 +63,14 @@ public class Column {
         this.valueSet = valueSet;
     }
 
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    public void setDistribution(Distribution distribution) {
+        this.distribution = distribution;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,25 @@
+package io.cockroachdb.bigbench.model;
+
+/**
+ * Compression codecs for generated streams, each mapped to the value of the
+ * {@code decompress} import option that reads it.
+ */
+public enum Compression {
+    none("none"),
+    gzip("gzip"),
+    bzip2("bzip"),
+    snappy("snappy");
+
+    private final String decompressOption;
+
+    Compression(String decompressOption) {
+        this.decompressOption = decompressOption;
+    }
+
+    /**
+     * @return the value of the IMPORT INTO {@code decompress} option for this codec
+     */
+    public String getDecompressOption() {
+        return decompressOption;
+    }
+}
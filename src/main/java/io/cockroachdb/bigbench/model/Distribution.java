@@ -0,0 +1,137 @@
+package io.cockroachdb.bigbench.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A skewed value distribution for a column. For numeric columns the values are
+ * drawn from the range [from, to]. Combined with a temporal range, the values
+ * are drawn from the steps of that range instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Distribution {
+    public static Distribution of(DistributionType type) {
+        Distribution d = new Distribution();
+        d.setType(type);
+        return d;
+    }
+
+    @NotNull
+    private DistributionType type;
+
+    private Long from;
+
+    private Long to;
+
+    /**
+     * Skew of zipfian and latest distributions, in the range (0, 1).
+     */
+    private Double theta;
+
+    /**
+     * Fraction of the range that is hot in a hotspot distribution.
+     */
+    private Double hotSetFraction;
+
+    /**
+     * Fraction of values drawn from the hot set in a hotspot distribution.
+     */
+    private Double hotAccessFraction;
+
+    private Double mean;
+
+    private Double stddev;
+
+    /**
+     * Scatter the most frequent zipfian values across the range.
+     */
+    private Boolean scrambled;
+
+    public DistributionType getType() {
+        return type;
+    }
+
+    public void setType(DistributionType type) {
+        this.type = type;
+    }
+
+    public Long getFrom() {
+        return from;
+    }
+
+    public void setFrom(Long from) {
+        this.from = from;
+    }
+
+    public Long getTo() {
+        return to;
+    }
+
+    public void setTo(Long to) {
+        this.to = to;
+    }
+
+    public Double getTheta() {
+        return theta;
+    }
+
+    public void setTheta(Double theta) {
+        this.theta = theta;
+    }
+
+    public Double getHotSetFraction() {
+        return hotSetFraction;
+    }
+
+    public void setHotSetFraction(Double hotSetFraction) {
+        this.hotSetFraction = hotSetFraction;
+    }
+
+    public Double getHotAccessFraction() {
+        return hotAccessFraction;
+    }
+
+    public void setHotAccessFraction(Double hotAccessFraction) {
+        this.hotAccessFraction = hotAccessFraction;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    public Double getStddev() {
+        return stddev;
+    }
+
+    public void setStddev(Double stddev) {
+        this.stddev = stddev;
+    }
+
+    public Boolean getScrambled() {
+        return scrambled;
+    }
+
+    public void setScrambled(Boolean scrambled) {
+        this.scrambled = scrambled;
+    }
+
+    @Override
+    public String toString() {
+        return "Distribution{" +
+                "type=" + type +
+                ", from=" + from +
+                ", to=" + to +
+                ", theta=" + theta +
+                ", hotSetFraction=" + hotSetFraction +
+                ", hotAccessFraction=" + hotAccessFraction +
+                ", mean=" + mean +
+                ", stddev=" + stddev +
+                ", scrambled=" + scrambled +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package io.cockroachdb.bigbench.model;
+
+public enum DistributionType {
+    uniform,
+    zipfian,
+    hotspot,
+    gaussian,
+    latest
+}
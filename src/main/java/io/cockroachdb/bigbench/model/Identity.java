@@ -25,6 +25,8 @@ public class Identity {
 
     private Integer batchSize;
 
+    private Long key;
+
     public IdentityType getType() {
         return type;
     }
@@ -72,4 +74,12 @@ public class Identity {
     public void setBatchSize(Integer batchSize) {
         this.batchSize = batchSize;
     }
+
+    public Long getKey() {
+        return key;
+    }
+
+    public void setKey(Long key) {
+        this.key = key;
+    }
 }
@@ -2,8 +2,12 @@ package io.cockroachdb.bigbench.model;
 
 public enum IdentityType {
     sequence,
+    permuted,
     database_sequence,
     ordered,
     unordered,
-    uuid
+    local_ordered,
+    local_unordered,
+    uuid,
+    uuid_v7
 }
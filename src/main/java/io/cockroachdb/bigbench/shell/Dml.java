@@ -1,5 +1,7 @@
 package io.cockroachdb.bigbench.shell;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -11,10 +13,11 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import javax.sql.DataSource;
 
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,7 @@ import org.springframework.dao.TransientDataAccessException;
 import org.springframework.data.util.Pair;
 import org.springframework.hateoas.Link;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.shell.standard.EnumValueProvider;
@@ -32,6 +36,7 @@ import org.springframework.shell.standard.ShellCommandGroup;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
+import org.springframework.util.StringUtils;
 
 import io.cockroachdb.bigbench.jdbc.SchemaExporter;
 import io.cockroachdb.bigbench.model.Column;
@@ -50,8 +55,11 @@ import io.cockroachdb.bigbench.shell.support.ListTableModel;
 import io.cockroachdb.bigbench.shell.support.SchemaNameProvider;
 import io.cockroachdb.bigbench.shell.support.TableNameProvider;
 import io.cockroachdb.bigbench.shell.support.TableRenderer;
+import io.cockroachdb.bigbench.stream.PgCopyStreamGenerator;
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
 import io.cockroachdb.bigbench.util.AsciiArt;
 import io.cockroachdb.bigbench.util.Multiplier;
+import io.cockroachdb.bigbench.web.AbstractStreamController;
 import io.cockroachdb.bigbench.web.LinkRelations;
 import io.cockroachdb.bigbench.web.NotFoundException;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -65,6 +73,8 @@ import static org.springframework.hateoas.mediatype.hal.HalLinkRelation.curied;
 public class Dml {
     private static final Logger logger = LoggerFactory.getLogger(Dml.class);
 
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     private static ErrorHandler<DataAccessException> transientErrorStrategy = ErrorStrategy.LOG_AND_CONTINUE;
 
     private static ErrorHandler<DataAccessException> nonTransientErrorStrategy = ErrorStrategy.RETHROW;
@@ -209,6 +219,108 @@ public class Dml {
                 new SingletonInsertProcessor(schema, table, onConflictDoNothing, upsert, dataSource));
     }
 
+    private Table exportTable(String schema, String table) {
+        return SchemaExporter.exportTable(dataSource, schema,
+                        tableModel -> table.equalsIgnoreCase(tableModel.getName()))
+                .orElseThrow(() -> new NotFoundException("No such table: %s"
+                        .formatted(QualifiedName.of(schema, table))));
+    }
+
+    private void copy(Link streamingLink, String schema, String table, String options) {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        final Instant start = Instant.now();
+
+        Long rowsCopied = hypermediaClient.get(streamingLink, httpResponse -> {
+            // Use the columns of the stream, which follow the posted table form rather than the schema
+            String columns = httpResponse.getHeaders().getFirst(AbstractStreamController.COLUMNS_HEADER);
+            if (!StringUtils.hasLength(columns)) {
+                throw new CommandException("No %s header in stream response"
+                        .formatted(AbstractStreamController.COLUMNS_HEADER));
+            }
+
+            final String sql = "COPY %s (%s) FROM STDIN WITH %s".formatted(
+                    QualifiedName.of(schema, table), columns, options);
+
+            logger.debug("Executing: %s".formatted(sql));
+
+            return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                try {
+                    return copyManager.copyIn(sql, httpResponse.getBody(), COPY_BUFFER_SIZE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        });
+
+        final Duration duration = Duration.between(start, Instant.now());
+
+        logger.info("""
+                ** Finished COPY of input stream **
+                    Copied rows: %,d
+                       Duration: %s
+                     Throughput: %.1f rows/s
+                    %s""".formatted(
+                rowsCopied,
+                duration,
+                rowsCopied / Math.max(0.001, duration.toMillis() / 1000.0),
+                rowsCopied > 0 ? AsciiArt.shrug() : AsciiArt.flipTableRoughly())
+        );
+    }
+
+    @ShellMethod(value = "COPY FROM STDIN using PostgreSQL binary stream", key = {"copy-binary", "cb"})
+    public void copyBinary(@ShellOption(help = "table schema", defaultValue = "public",
+                                   valueProvider = SchemaNameProvider.class) String schema,
+                           @ShellOption(help = "table name(s)",
+                                   valueProvider = TableNameProvider.class) String table,
+                           @ShellOption(help = "number of rows to retrieve", defaultValue = "1k") String rows,
+                           @ShellOption(help = "API root endpoint", defaultValue = "http://localhost:9090/")
+                           String endpoint
+    ) {
+        Table model = exportTable(schema, table);
+        try {
+            PgCopyStreamGenerator.checkSupported(model);
+        } catch (IllegalArgumentException e) {
+            throw new CommandException(e.getMessage() + " - use copy-csv for this table");
+        }
+
+        Link streamingLink = hypermediaClient.from(Link.of(endpoint))
+                .follow(rel(curied(CURIE_NAMESPACE, LinkRelations.TABLE_REL).value())
+                        .withParameter("schema", schema)
+                        .withParameter("table", table))
+                .follow(rel(curied(CURIE_NAMESPACE, LinkRelations.PGCOPY_STREAM_REL).value())
+                        .withParameter("rows", rows))
+                .asTemplatedLink();
+
+        copy(streamingLink, schema, table, "BINARY");
+    }
+
+    @ShellMethod(value = "COPY FROM STDIN using CSV stream", key = {"copy-csv", "cc"})
+    public void copyCSV(@ShellOption(help = "table schema", defaultValue = "public",
+                                valueProvider = SchemaNameProvider.class) String schema,
+                        @ShellOption(help = "table name(s)",
+                                valueProvider = TableNameProvider.class) String table,
+                        @ShellOption(help = "number of rows to retrieve", defaultValue = "1k") String rows,
+                        @ShellOption(help = "CSV column delimiter", defaultValue = ",") String delimiter,
+                        @ShellOption(help = "API root endpoint", defaultValue = "http://localhost:9090/")
+                        String endpoint
+    ) {
+        Link streamingLink = hypermediaClient.from(Link.of(endpoint))
+                .follow(rel(curied(CURIE_NAMESPACE, LinkRelations.TABLE_REL).value())
+                        .withParameter("schema", schema)
+                        .withParameter("table", table))
+                .follow(rel(curied(CURIE_NAMESPACE, LinkRelations.CSV_STREAM_REL).value())
+                        .withParameter("rows", rows)
+                        .withParameter("delimiter", delimiter)
+                        .withParameter("header", true)
+                )
+                .asTemplatedLink();
+
+        copy(streamingLink, schema, table,
+                "CSV HEADER DELIMITER '%s'".formatted(delimiter.replace("'", "''")));
+    }
+
     @ShellMethod(value = "Download and print CSV stream", key = {"download-csv", "dc"})
     public void downloadCSV(@ShellOption(help = "table schema", defaultValue = "public",
                                     valueProvider = SchemaNameProvider.class) String schema,
@@ -404,19 +516,16 @@ public class Dml {
             final int numCols = table.getColumns().size();
 
             Long success = getJdbcTemplate().execute(sql, (PreparedStatementCallback<Long>) ps -> {
-                List<List<String>> columnData = new ArrayList<>();
+                ColumnBuffer columnData = new ColumnBuffer(chunk.size());
 
-                IntStream.range(0, numCols)
-                        .forEach(value -> columnData.add(new ArrayList<>()));
-
-                chunk.forEach(entity -> IntStream.range(0, numCols)
-                        .forEach(value -> columnData.get(value)
-                                .add(entity.get(value))));
-
-                int i = 1;
-                for (List<String> data : columnData) {
-                    Column column = table.getColumns().get(i - 1);
-                    ps.setArray(i++, ps.getConnection().createArrayOf(column.getTypeName(), data.toArray()));
+                for (int col = 0; col < numCols; col++) {
+                    columnData.clear();
+                    for (List<String> row : chunk) {
+                        columnData.add(row.get(col));
+                    }
+                    Column column = table.getColumns().get(col);
+                    ps.setArray(col + 1,
+                            ps.getConnection().createArrayOf(column.getBaseTypeName(), columnData.toArray()));
                 }
 
                 return ps.executeLargeUpdate();
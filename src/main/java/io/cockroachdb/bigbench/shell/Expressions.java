@@ -24,6 +24,9 @@ public class Expressions {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private ExpressionRegistry expressionRegistry;
+
     @Autowired
     private AnsiConsole ansiConsole;
 
@@ -32,7 +35,7 @@ public class Expressions {
             value = {"expression"},
             valueProvider = FunctionValueProvider.class) String expression) {
 
-        final ExpressionRegistry registry = ExpressionRegistryBuilder.build(dataSource);
+        final ExpressionRegistry registry = ExpressionRegistryBuilder.overlay(expressionRegistry, dataSource);
 
         ansiConsole.magenta("Expression: ").green("%s", expression).nl();
 
@@ -55,7 +58,7 @@ public class Expressions {
 
     @ShellMethod(value = "List functions and variables", key = {"functions", "f"})
     public void listFunctions() {
-        final ExpressionRegistry registry = ExpressionRegistryBuilder.build(dataSource);
+        final ExpressionRegistry registry = ExpressionRegistryBuilder.overlay(expressionRegistry, dataSource);
 
         ansiConsole.cyan("-- Functions --").nl();
         registry.functionCategories().forEach(category -> {
@@ -1,8 +1,8 @@
 package io.cockroachdb.bigbench.shell.support;
 
 import io.cockroachdb.bigbench.expression.ExpressionRegistry;
-import io.cockroachdb.bigbench.expression.ExpressionRegistryBuilder;
 import io.cockroachdb.bigbench.expression.FunctionDef;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.shell.CompletionContext;
 import org.springframework.shell.CompletionProposal;
 import org.springframework.shell.standard.ValueProvider;
@@ -11,6 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class FunctionValueProvider implements ValueProvider {
+    @Autowired
+    private ExpressionRegistry expressionRegistry;
+
     @Override
     public List<CompletionProposal> complete(CompletionContext completionContext) {
         List<CompletionProposal> result = new ArrayList<>();
@@ -20,9 +23,7 @@ public class FunctionValueProvider implements ValueProvider {
             prefix = "";
         }
 
-        final ExpressionRegistry registry = ExpressionRegistryBuilder.build(null);
-
-        for (FunctionDef functionDef : registry.functionDefinitions()) {
+        for (FunctionDef functionDef : expressionRegistry.functionDefinitions()) {
             if (functionDef.idMatchesPrefix(prefix)) {
                 result.add(new CompletionProposal(functionDef.getId())
                                 .value("\"" + functionDef.getId() + "(..)\"")
@@ -32,7 +33,7 @@ public class FunctionValueProvider implements ValueProvider {
             }
         }
 
-        registry.variableNames().forEach(fn -> {
+        expressionRegistry.variableNames().forEach(fn -> {
             result.add(new CompletionProposal(fn)
                     .category("constant"));
         });
@@ -1,47 +1,171 @@
 package io.cockroachdb.bigbench.stream;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+import io.cockroachdb.bigbench.expression.ExpressionBackend;
 import io.cockroachdb.bigbench.expression.ExpressionRegistry;
 import io.cockroachdb.bigbench.expression.ExpressionRegistryBuilder;
+import io.cockroachdb.bigbench.expression.Function;
 import io.cockroachdb.bigbench.expression.FunctionDef;
+import io.cockroachdb.bigbench.expression.Volatility;
 import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Compression;
+import io.cockroachdb.bigbench.stream.generator.SeededValueGenerator;
 import io.cockroachdb.bigbench.stream.generator.ValueGenerator;
 import io.cockroachdb.bigbench.stream.generator.ValueGenerators;
+import io.cockroachdb.bigbench.util.RandomSource;
 
 public abstract class AbstractStreamGeneratorSupport implements StreamGenerator {
-    protected static final Predicate<Column> VISIBLE_COLUMN_PREDICATE
+    public static final Predicate<Column> VISIBLE_COLUMN_PREDICATE
             = column -> (column.isHidden() == null || !column.isHidden());
 
-    protected Map<Column, ValueGenerator<?>> columnGenerators(DataSource dataSource,
-                                                              List<Column> columns,
-                                                              AtomicInteger currentRow) {
-        return createColumnGenerators(dataSource, columns, List.of(FunctionDef.builder()
+    private ExpressionBackend expressionBackend = ExpressionBackend.tree;
+
+    private ExpressionRegistry expressionRegistry;
+
+    private Partition partition = Partition.NONE;
+
+    private Long seed;
+
+    private Compression compression = Compression.none;
+
+    public AbstractStreamGeneratorSupport setExpressionBackend(ExpressionBackend expressionBackend) {
+        this.expressionBackend = expressionBackend;
+        return this;
+    }
+
+    /**
+     * Set a shared base registry with stateless built-in functions. Stream-local
+     * functions are added to an overlay per stream. If not set, a full registry
+     * is built for each stream.
+     */
+    public AbstractStreamGeneratorSupport setExpressionRegistry(ExpressionRegistry expressionRegistry) {
+        this.expressionRegistry = expressionRegistry;
+        return this;
+    }
+
+    /**
+     * Set the share of the table rows to generate. Defaults to all rows.
+     */
+    public AbstractStreamGeneratorSupport setPartition(Partition partition) {
+        this.partition = partition;
+        return this;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Set a seed for reproducible output. Each partition and column derives its own
+     * random generator from it. Defaults to unseeded, thread local randomness.
+     */
+    public AbstractStreamGeneratorSupport setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Set the compression of the output. Gzip blocks are compressed in parallel.
+     * Defaults to none.
+     */
+    public AbstractStreamGeneratorSupport setCompression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Wrap an output stream with the configured compression.
+     */
+    protected OutputStream compress(OutputStream outputStream) throws IOException {
+        return switch (compression) {
+            case none -> outputStream;
+            case gzip -> new ParallelGzipOutputStream(outputStream);
+            case bzip2 -> new BZip2CompressorOutputStream(outputStream);
+            case snappy -> new SnappyFramedOutputStream(outputStream);
+        };
+    }
+
+    private static FunctionDef rowNumberFunction(Function.LongNullary rowNumber) {
+        return FunctionDef.builder()
                 .withCategory("other")
                 .withId("rowNumber")
                 .withDescription("Returns current row number.")
                 .withReturnValue(Integer.class)
-                .withFunction(args -> currentRow.get())
-                .build()));
+                .withVolatility(Volatility.VOLATILE)
+                .withLongNullary(rowNumber)
+                .build();
+    }
+
+    protected List<ValueGenerator<?>> columnGenerators(DataSource dataSource,
+                                                       List<Column> columns,
+                                                       RowBlock rowBlock,
+                                                       long firstRow) {
+        Map<Column, ValueGenerator<?>> generatorMap = createColumnGenerators(dataSource, columns, firstRow,
+                List.of(rowNumberFunction(rowBlock::rowNumber)));
+
+        return columns.stream()
+                .<ValueGenerator<?>>map(generatorMap::get)
+                .toList();
+    }
 
+    /**
+     * Check if the stream is seeded and every column generates the same values
+     * for the same seed and row on every run, so that the stream output can be
+     * reproduced from any row, for example to resume at a byte offset.
+     */
+    protected boolean isReproducible(DataSource dataSource, List<Column> columns) {
+        if (seed == null) {
+            return false;
+        }
+        ExpressionRegistry registry = createRegistry(dataSource, List.of(rowNumberFunction(() -> 0)));
+        return columns.stream().allMatch(column -> ValueGenerators.isReproducible(column, registry));
+    }
+
+    private ExpressionRegistry createRegistry(DataSource dataSource, List<FunctionDef> functionDefs) {
+        ExpressionRegistry registry = expressionRegistry != null
+                ? ExpressionRegistryBuilder.overlay(expressionRegistry, dataSource)
+                : ExpressionRegistryBuilder.build(dataSource);
+        functionDefs.forEach(registry::addFunction);
+        return registry;
     }
 
     protected Map<Column, ValueGenerator<?>> createColumnGenerators(DataSource dataSource,
                                                                     List<Column> columns,
+                                                                    long firstRow,
                                                                     List<FunctionDef> functionDefs) {
-        ExpressionRegistry registry = ExpressionRegistryBuilder.build(dataSource);
-        functionDefs.forEach(registry::addFunction);
+        ExpressionRegistry registry = createRegistry(dataSource, functionDefs);
 
         Map<Column, ValueGenerator<?>> generatorMap = new HashMap<>();
 
-        columns.forEach(column ->
-                generatorMap.put(column, ValueGenerators.createValueGenerator(column, dataSource, registry)));
+        columns.forEach(column -> {
+            ValueGenerator<?> generator = ValueGenerators.createValueGenerator(
+                    column, dataSource, registry, expressionBackend, firstRow);
+            if (seed != null) {
+                long partitionSeed = RandomSource.deriveSeed(seed, partition.getIndex());
+                generator = new SeededValueGenerator<>(generator,
+                        RandomSource.deriveSeed(partitionSeed, column.getName().hashCode()), firstRow);
+            }
+            generatorMap.put(column, generator);
+        });
 
         return generatorMap;
     }
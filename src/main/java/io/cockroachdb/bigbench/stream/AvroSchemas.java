@@ -0,0 +1,172 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoField;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.IdentityType;
+
+/**
+ * Maps column type names to typed Avro schemas, so that numeric, temporal and
+ * UUID fields are encoded in binary rather than as text.
+ * <p/>
+ * Both JDBC type names (as introspected) and CockroachDB type names are
+ * recognized. Unknown types, arrays and decimals without a declared scale map
+ * to strings. Identity columns are required and all other fields are nullable
+ * unions.
+ */
+public abstract class AvroSchemas {
+    public static final String NAMESPACE = "io.cockroachdb.bigbench";
+
+    private static final Pattern PRECISION_SCALE = Pattern.compile("\\(\\s*(\\d+)\\s*,\\s*(\\d+)\\s*\\)");
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private AvroSchemas() {
+    }
+
+    /**
+     * Create a record schema with one field per column.
+     *
+     * @param columns the columns
+     * @return the record schema
+     */
+    public static Schema createSchema(List<Column> columns) {
+        SchemaBuilder.FieldAssembler<Schema> fieldAssembler = SchemaBuilder
+                .record(GenericRecord.class.getSimpleName())
+                .namespace(NAMESPACE)
+                .fields();
+        columns.forEach(column -> {
+            SchemaBuilder.GenericDefault<Schema> field = fieldAssembler.name(column.getName())
+                    .type(fieldSchema(column));
+            if (column.getIdentity() != null) {
+                field.noDefault();
+            } else {
+                field.withDefault(null);
+            }
+        });
+        return fieldAssembler.endRecord();
+    }
+
+    /**
+     * @param column the column
+     * @return the field schema, as a union with null unless the column is an identity
+     */
+    public static Schema fieldSchema(Column column) {
+        Schema schema = valueSchema(column);
+        return column.getIdentity() != null ? schema : Schema.createUnion(Schema.create(Schema.Type.NULL), schema);
+    }
+
+    private static Schema valueSchema(Column column) {
+        if (column.getIdentity() != null) {
+            IdentityType type = column.getIdentity().getType();
+            if (type == IdentityType.uuid || type == IdentityType.uuid_v7) {
+                return LogicalTypes.uuid().addToSchema(Schema.create(Schema.Type.STRING));
+            }
+        }
+
+        String typeName = column.getTypeName();
+        if (typeName == null || typeName.endsWith("[]") || typeName.toUpperCase(Locale.ROOT).startsWith("ARRAY")) {
+            return Schema.create(Schema.Type.STRING);
+        }
+
+        String normalized = column.getBaseTypeName().toUpperCase(Locale.ROOT);
+
+        return switch (normalized) {
+            case "BIT", "BOOL", "BOOLEAN" -> Schema.create(Schema.Type.BOOLEAN);
+            case "TINYINT", "SMALLINT", "INTEGER", "INT2", "INT4" -> Schema.create(Schema.Type.INT);
+            case "BIGINT", "INT", "INT8", "INT64", "SERIAL", "SERIAL8", "BIGSERIAL" -> Schema.create(Schema.Type.LONG);
+            case "FLOAT", "REAL", "DOUBLE", "DOUBLE PRECISION", "FLOAT4", "FLOAT8" ->
+                    Schema.create(Schema.Type.DOUBLE);
+            case "DATE" -> LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+            case "TIME", "TIME WITHOUT TIME ZONE" ->
+                    LogicalTypes.timeMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case "TIMESTAMP", "TIMESTAMPTZ", "TIMESTAMP_WITH_TIMEZONE", "TIMESTAMP WITH TIME ZONE",
+                 "TIMESTAMP WITHOUT TIME ZONE" ->
+                    LogicalTypes.timestampMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case "UUID" -> LogicalTypes.uuid().addToSchema(Schema.create(Schema.Type.STRING));
+            case "BINARY", "VARBINARY", "LONGVARBINARY", "BLOB", "BYTES", "BYTEA" -> Schema.create(Schema.Type.BYTES);
+            case "NUMERIC", "DECIMAL", "DEC" -> {
+                Matcher m = PRECISION_SCALE.matcher(typeName);
+                if (m.find()) {
+                    int precision = Math.min(MAX_DECIMAL_PRECISION, Integer.parseInt(m.group(1)));
+                    int scale = Math.min(precision, Integer.parseInt(m.group(2)));
+                    yield LogicalTypes.decimal(precision, scale).addToSchema(Schema.create(Schema.Type.BYTES));
+                }
+                // No fixed scale to encode the unscaled value with
+                yield Schema.create(Schema.Type.STRING);
+            }
+            default -> Schema.create(Schema.Type.STRING);
+        };
+    }
+
+    /**
+     * Create a function that converts generated values to the Avro representation
+     * of a field schema, i.e. epoch days for dates and unscaled bytes for decimals.
+     * Null values are passed through.
+     *
+     * @param fieldSchema the field schema, possibly a nullable union
+     * @return the value converter
+     */
+    public static UnaryOperator<Object> valueConverter(Schema fieldSchema) {
+        final Schema schema = nonNull(fieldSchema);
+        final LogicalType logicalType = schema.getLogicalType();
+
+        final UnaryOperator<Object> converter;
+        if (logicalType instanceof LogicalTypes.Decimal decimal) {
+            final int scale = decimal.getScale();
+            converter = value -> ByteBuffer.wrap(ValueConversions.toBigDecimal(value)
+                    .setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().toByteArray());
+        } else if (logicalType instanceof LogicalTypes.Date) {
+            converter = value -> (int) ValueConversions.toLocalDate(value).toEpochDay();
+        } else if (logicalType instanceof LogicalTypes.TimeMicros) {
+            converter = value -> ValueConversions.toLocalTime(value).getLong(ChronoField.MICRO_OF_DAY);
+        } else if (logicalType instanceof LogicalTypes.TimestampMicros) {
+            converter = value -> {
+                Instant instant = ValueConversions.toInstant(value);
+                return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+                        instant.getNano() / 1000);
+            };
+        } else {
+            converter = switch (schema.getType()) {
+                case BOOLEAN -> value -> value instanceof Boolean ? value : Boolean.parseBoolean(value.toString());
+                case INT -> value -> value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString());
+                case LONG -> value -> value instanceof Number n ? n.longValue() : Long.parseLong(value.toString());
+                case DOUBLE -> value -> value instanceof Number n
+                        ? n.doubleValue() : Double.parseDouble(value.toString());
+                case BYTES -> value -> switch (value) {
+                    case byte[] bytes -> ByteBuffer.wrap(bytes);
+                    case ByteBuffer buffer -> buffer;
+                    default -> ByteBuffer.wrap(value.toString().getBytes(StandardCharsets.UTF_8));
+                };
+                default -> Object::toString;
+            };
+        }
+
+        return value -> value != null ? converter.apply(value) : null;
+    }
+
+    private static Schema nonNull(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            return schema.getTypes().stream()
+                    .filter(s -> s.getType() != Schema.Type.NULL)
+                    .findFirst()
+                    .orElse(schema);
+        }
+        return schema;
+    }
+}
@@ -5,70 +5,118 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.zip.GZIPOutputStream;
 
 import javax.sql.DataSource;
 
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
-import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
 import org.apache.avro.file.DataFileWriter;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.DatumWriter;
-import org.apache.avro.reflect.ReflectDatumWriter;
-import org.apache.avro.specific.SpecificDatumWriter;
-import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.avro.io.EncoderFactory;
 
 import io.cockroachdb.bigbench.model.Column;
 import io.cockroachdb.bigbench.model.Table;
 import io.cockroachdb.bigbench.stream.generator.ValueGenerator;
 
 public class AvroStreamGenerator extends AbstractStreamGeneratorSupport {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private static final int MIN_SIZE = 32;
+
+    private static final int MAX_SYNC_INTERVAL = 1 << 30;
+
+    private static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
     private final DataSource dataSource;
 
     private final Table table;
 
-    private final boolean gzip;
+    private CodecFactory codec = CodecFactory.nullCodec();
+
+    private int syncInterval = DataFileConstants.DEFAULT_SYNC_INTERVAL;
+
+    private int blockSize = DEFAULT_BLOCK_SIZE;
 
-    public AvroStreamGenerator(DataSource dataSource, Table table, boolean gzip) {
+    public AvroStreamGenerator(DataSource dataSource, Table table) {
         this.dataSource = dataSource;
         this.table = table;
-        this.gzip = gzip;
+    }
+
+    /**
+     * Set the OCF block compression codec.
+     *
+     * @param codec one of null, deflate, snappy, zstandard, bzip2 or xz
+     * @throws IllegalArgumentException if the codec is unknown
+     */
+    public AvroStreamGenerator setCodec(String codec) {
+        try {
+            this.codec = CodecFactory.fromString(codec);
+        } catch (AvroRuntimeException e) {
+            throw new IllegalArgumentException("Unknown Avro codec: " + codec, e);
+        }
+        return this;
+    }
+
+    /**
+     * Set the approximate uncompressed size in bytes of each OCF block, after
+     * which a sync marker is written.
+     *
+     * @throws IllegalArgumentException if not in the range [32, 2^30]
+     */
+    public AvroStreamGenerator setSyncInterval(int syncInterval) {
+        if (syncInterval < MIN_SIZE || syncInterval > MAX_SYNC_INTERVAL) {
+            throw new IllegalArgumentException("Sync interval must be in the range [%d, %d]: %d"
+                    .formatted(MIN_SIZE, MAX_SYNC_INTERVAL, syncInterval));
+        }
+        this.syncInterval = syncInterval;
+        return this;
+    }
+
+    /**
+     * Set the buffer size in bytes of the binary encoder writing into each block.
+     *
+     * @throws IllegalArgumentException if not in the range [32, 16MiB]
+     */
+    public AvroStreamGenerator setBlockSize(int blockSize) {
+        if (blockSize < MIN_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be in the range [%d, %d]: %d"
+                    .formatted(MIN_SIZE, MAX_BLOCK_SIZE, blockSize));
+        }
+        this.blockSize = blockSize;
+        return this;
     }
 
     @Override
     public void streamTo(OutputStream outputStream) {
         final AtomicInteger currentRow = new AtomicInteger();
         final List<Column> columns = table.filterColumns(VISIBLE_COLUMN_PREDICATE);
-        final Map<Column, ValueGenerator<?>> columnGenerators = columnGenerators(dataSource, columns, currentRow);
-
-        final Schema schema;
-        {
-            SchemaBuilder.RecordBuilder<Schema> recordBuilder = SchemaBuilder.record(
-                    GenericRecord.class.getSimpleName());
-            SchemaBuilder.FieldAssembler<Schema> fieldAssembler = recordBuilder
-                    .namespace("io.cockroachdb.bigbench").fields();
-            columns.forEach(column -> {
-                fieldAssembler.name(column.getName()).type().stringType().noDefault();
-            });
-            schema = fieldAssembler.endRecord();
-        }
+        final RowBlock rowBlock = new RowBlock(columns.size());
+        final int totalRows = table.parseRowCount();
+        final int firstRow = getPartition().firstRow(totalRows);
+        final int rowCount = getPartition().rowCount(totalRows);
+        final List<ValueGenerator<?>> columnGenerators = columnGenerators(dataSource, columns, rowBlock, firstRow);
+
+        final Schema schema = AvroSchemas.createSchema(columns);
+        final RowBlockDatumWriter datumWriter = new RowBlockDatumWriter(schema);
+        final EncoderFactory encoderFactory = new EncoderFactory().configureBufferSize(blockSize);
 
-        try (DataFileWriter<GenericRecord> dataFileWriter
-                     = new DataFileWriter<>(datumWriterForClass(GenericRecord.class))) {
-            dataFileWriter.create(schema, gzip
-                    ? new GZIPOutputStream(outputStream, true) : outputStream);
+        try (DataFileWriter<RowBlock> dataFileWriter = new DataFileWriter<>(datumWriter)) {
+            dataFileWriter.setCodec(codec);
+            dataFileWriter.setSyncInterval(syncInterval);
+            dataFileWriter.setEncoder(out -> encoderFactory.binaryEncoder(out, null));
+            dataFileWriter.setFlushOnEveryBlock(false);
+            dataFileWriter.create(schema, compress(outputStream));
 
-            for (int i = 0; i < table.parseRowCount(); i++) {
-                GenericRecord genericRecord = new GenericData.Record(schema);
-                for (Column col : columns) {
-                    genericRecord.put(col.getName(), "" + columnGenerators.get(col).nextValue());
+            for (int i = 0; i < rowCount; i += rowBlock.size()) {
+                rowBlock.fill(columnGenerators, firstRow + i, rowCount - i);
+
+                for (int row = 0; row < rowBlock.size(); row++) {
+                    datumWriter.setRow(row);
+                    dataFileWriter.append(rowBlock);
+                    currentRow.incrementAndGet();
                 }
-                dataFileWriter.append(genericRecord);
-                currentRow.incrementAndGet();
             }
 
             dataFileWriter.flush();
@@ -78,14 +126,4 @@ public class AvroStreamGenerator extends AbstractStreamGeneratorSupport {
             throw new UndeclaredThrowableException(e, "Exception at row " + currentRow.get());
         }
     }
-
-    private static <T> DatumWriter<T> datumWriterForClass(Class<T> clazz) {
-        if (SpecificRecordBase.class.isAssignableFrom(clazz)) {
-            return new SpecificDatumWriter<>(clazz);
-        }
-        if (GenericRecord.class.isAssignableFrom(clazz)) {
-            return new GenericDatumWriter<>();
-        }
-        return new ReflectDatumWriter<>(clazz);
-    }
 }
@@ -2,15 +2,10 @@ package io.cockroachdb.bigbench.stream;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
 import java.io.UncheckedIOException;
 import java.lang.reflect.UndeclaredThrowableException;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
 import javax.sql.DataSource;
 
@@ -29,12 +24,15 @@ public class CsvStreamGenerator extends AbstractStreamGeneratorSupport implement
 
     private final Table table;
 
-    private final boolean gzip;
+    private StreamCheckpoints checkpoints;
 
-    public CsvStreamGenerator(DataSource dataSource, Table table, boolean gzip) {
+    private long rangeFirst;
+
+    private long rangeLast = Long.MAX_VALUE;
+
+    public CsvStreamGenerator(DataSource dataSource, Table table) {
         this.dataSource = dataSource;
         this.table = table;
-        this.gzip = gzip;
     }
 
     public CsvStreamGenerator setDelimiter(String delimiter) {
@@ -52,38 +50,87 @@ public class CsvStreamGenerator extends AbstractStreamGeneratorSupport implement
         return this;
     }
 
+    /**
+     * @return true if the stream is seeded and all columns are reproducible, so
+     * that checkpoints recorded in one run are valid in the next
+     */
+    public boolean isReproducible() {
+        return isReproducible(dataSource, table.filterColumns(VISIBLE_COLUMN_PREDICATE));
+    }
+
+    /**
+     * Set the checkpoints to record while streaming and to resume from. Only
+     * meaningful for reproducible streams.
+     *
+     * @see #isReproducible()
+     */
+    public CsvStreamGenerator setCheckpoints(StreamCheckpoints checkpoints) {
+        this.checkpoints = checkpoints;
+        return this;
+    }
+
+    /**
+     * Limit the output to an inclusive range of uncompressed byte positions.
+     */
+    public CsvStreamGenerator setRange(long first, long last) {
+        this.rangeFirst = first;
+        this.rangeLast = last;
+        return this;
+    }
+
     @Override
     public void streamTo(OutputStream outputStream) {
-        final AtomicInteger currentRow = new AtomicInteger();
         final List<Column> columns = table.filterColumns(VISIBLE_COLUMN_PREDICATE);
-        final Map<Column, ValueGenerator<?>> columnGenerators = columnGenerators(dataSource, columns, currentRow);
-
-        try (PrintWriter writer = new PrintWriter(gzip
-                ? new GZIPOutputStream(outputStream, true) : outputStream)) {
-            if (includeHeader) {
-                String header = columns.stream()
-                        .map(Column::getName)
-                        .collect(Collectors.joining(this.delimiter));
-                writer.println(header);
+        final RowBlock rowBlock = new RowBlock(columns.size());
+        final int totalRows = table.parseRowCount();
+        final int firstRow = getPartition().firstRow(totalRows);
+        final int rowCount = getPartition().rowCount(totalRows);
+
+        int startRow = 0;
+        long startPosition = 0;
+        if (checkpoints != null && rangeFirst > 0) {
+            Map.Entry<Long, Integer> checkpoint = checkpoints.floor(rangeFirst);
+            if (checkpoint != null) {
+                startPosition = checkpoint.getKey();
+                startRow = checkpoint.getValue();
             }
+        }
 
-            for (int i = 0; i < table.parseRowCount(); i++) {
-                Object[] fields = new Object[columns.size()];
+        final List<ValueGenerator<?>> columnGenerators
+                = columnGenerators(dataSource, columns, rowBlock, firstRow + startRow);
+
+        try (RangeOutputStream range = new RangeOutputStream(
+                compress(outputStream), startPosition, rangeFirst, rangeLast);
+             CsvWriter writer = new CsvWriter(range, delimiter, quoteCharacter)) {
+            if (includeHeader && startPosition == 0) {
+                for (Column column : columns) {
+                    writer.writeName(column.getName());
+                }
+                writer.endRow();
+            }
 
-                int j = 0;
-                for (Column col : columns) {
-                    Object field = columnGenerators.get(col).nextValue();
-                    fields[j++] = field;
+            int i = startRow;
+            for (; i < rowCount && !range.isPastEnd(); i += rowBlock.size()) {
+                if (checkpoints != null && i % checkpoints.interval() == 0) {
+                    // Drain the pending block so the position is exact
+                    writer.flush();
+                    checkpoints.record(range.position(), i);
                 }
 
-                String line = Arrays.stream(fields)
-                        .map(field -> this.quoteCharacter + field + this.quoteCharacter)
-                        .collect(Collectors.joining(this.delimiter));
-                writer.println(line);
+                rowBlock.fill(columnGenerators, firstRow + i, rowCount - i);
 
-                currentRow.incrementAndGet();
+                for (int row = 0; row < rowBlock.size(); row++) {
+                    for (int col = 0; col < rowBlock.columns(); col++) {
+                        writer.writeColumn(rowBlock.column(col), row);
+                    }
+                    writer.endRow();
+                }
             }
             writer.flush();
+
+            if (checkpoints != null && i >= rowCount) {
+                checkpoints.setLength(range.position());
+            }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } catch (Exception e) {
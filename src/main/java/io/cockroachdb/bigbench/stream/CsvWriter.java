@@ -0,0 +1,330 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+import io.cockroachdb.bigbench.stream.generator.LongEncoding;
+
+/**
+ * A CSV writer that encodes fields as UTF-8 straight into a reusable byte block,
+ * which is written to the underlying stream only when full. Longs and UUIDs are
+ * encoded without intermediate objects, and other values go through a reused
+ * builder.
+ * <p/>
+ * Without an explicit quote character, fields are quoted as in RFC 4180 only
+ * when they contain the delimiter, a double quote or a line break. With a quote
+ * character, every row field is quoted and embedded quotes are doubled.
+ */
+public class CsvWriter implements Flushable, Closeable {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final char RFC_QUOTE = '"';
+
+    private final OutputStream out;
+
+    private final byte[] block;
+
+    private final char[] delimiter;
+
+    private final char quote;
+
+    private final boolean alwaysQuote;
+
+    private final StringBuilder scratch = new StringBuilder(64);
+
+    private int count;
+
+    private boolean firstField = true;
+
+    public CsvWriter(OutputStream out, String delimiter, String quoteCharacter) {
+        this(out, delimiter, quoteCharacter, DEFAULT_BLOCK_SIZE);
+    }
+
+    public CsvWriter(OutputStream out, String delimiter, String quoteCharacter, int blockSize) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Empty delimiter");
+        }
+        if (blockSize < 64) {
+            throw new IllegalArgumentException("Block size must be at least 64 bytes");
+        }
+        this.out = out;
+        this.block = new byte[blockSize];
+        this.delimiter = delimiter.toCharArray();
+        this.alwaysQuote = quoteCharacter != null && !quoteCharacter.isEmpty();
+        this.quote = alwaysQuote ? quoteCharacter.charAt(0) : RFC_QUOTE;
+    }
+
+    /**
+     * Write a header field, which is only quoted when needed.
+     */
+    public CsvWriter writeName(String name) throws IOException {
+        beginField();
+        writeText(name, false);
+        return this;
+    }
+
+    public CsvWriter writeLong(long value) throws IOException {
+        beginField();
+        if (alwaysQuote) {
+            writeByte(quote);
+            appendLong(value);
+            writeByte(quote);
+        } else {
+            appendLong(value);
+        }
+        return this;
+    }
+
+    public CsvWriter writeUUID(UUID value) throws IOException {
+        beginField();
+        if (alwaysQuote) {
+            writeByte(quote);
+            appendUUID(value);
+            writeByte(quote);
+        } else {
+            appendUUID(value);
+        }
+        return this;
+    }
+
+    /**
+     * Write a value of any type, using the fast paths where they apply. Null
+     * values are written as the text null, as expected by the import options.
+     */
+    public CsvWriter writeValue(Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return writeLong(((Number) value).longValue());
+        }
+        if (value instanceof UUID uuid) {
+            return writeUUID(uuid);
+        }
+        beginField();
+        if (value instanceof CharSequence cs) {
+            writeText(cs, alwaysQuote);
+        } else if (value != null) {
+            scratch.setLength(0);
+            // Appending primitives and temporals to a builder avoids an intermediate string
+            if (value instanceof Double d) {
+                scratch.append(d.doubleValue());
+            } else {
+                scratch.append(value);
+            }
+            writeText(scratch, alwaysQuote);
+        } else {
+            writeText("null", alwaysQuote);
+        }
+        return this;
+    }
+
+    /**
+     * Write a value from a column buffer, without boxing primitive values.
+     */
+    public CsvWriter writeColumn(ColumnBuffer column, int index) throws IOException {
+        if (column.isLongs()) {
+            LongEncoding encoding = column.getEncoding();
+            if (encoding == null) {
+                return writeLong(column.getLong(index));
+            }
+            beginField();
+            scratch.setLength(0);
+            encoding.appendTo(scratch, column.getLong(index));
+            writeText(scratch, alwaysQuote);
+            return this;
+        }
+        return writeValue(column.get(index));
+    }
+
+    public CsvWriter endRow() throws IOException {
+        writeByte('\n');
+        firstField = true;
+        return this;
+    }
+
+    /**
+     * @return the number of bytes held in the block and not yet written
+     */
+    public int pending() {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(block, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensure(int n) throws IOException {
+        if (count + n > block.length) {
+            drain();
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (count == block.length) {
+            drain();
+        }
+        block[count++] = (byte) b;
+    }
+
+    private void beginField() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            for (char c : delimiter) {
+                writeChar(c);
+            }
+        }
+    }
+
+    private void writeText(CharSequence text, boolean quoted) throws IOException {
+        if (!quoted && needsQuotes(text)) {
+            quoted = true;
+        }
+        if (quoted) {
+            writeByte(quote);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == quote) {
+                    writeByte(quote);
+                }
+                i = writeChar(text, i);
+            }
+            writeByte(quote);
+        } else {
+            for (int i = 0; i < text.length(); i++) {
+                i = writeChar(text, i);
+            }
+        }
+    }
+
+    private boolean needsQuotes(CharSequence text) {
+        final char first = delimiter[0];
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == quote || c == '\n' || c == '\r') {
+                return true;
+            }
+            if (c == first && regionMatches(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(CharSequence text, int offset) {
+        if (offset + delimiter.length > text.length()) {
+            return false;
+        }
+        for (int j = 1; j < delimiter.length; j++) {
+            if (text.charAt(offset + j) != delimiter[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode the char at the given index, consuming a following low surrogate
+     * if present.
+     *
+     * @return the index of the last char consumed
+     */
+    private int writeChar(CharSequence text, int i) throws IOException {
+        char c = text.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, text.charAt(i + 1));
+            ensure(4);
+            block[count++] = (byte) (0xf0 | (cp >> 18));
+            block[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+            block[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+            block[count++] = (byte) (0x80 | (cp & 0x3f));
+            return i + 1;
+        }
+        writeChar(c);
+        return i;
+    }
+
+    private void writeChar(char c) throws IOException {
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            ensure(2);
+            block[count++] = (byte) (0xc0 | (c >> 6));
+            block[count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            ensure(3);
+            block[count++] = (byte) (0xe0 | (c >> 12));
+            block[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            block[count++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeText(Long.toString(value), false);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            block[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int pos = count + digits;
+        count = pos;
+        do {
+            block[--pos] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    private void appendUUID(UUID uuid) throws IOException {
+        ensure(36);
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        appendHex(msb >>> 32, 8);
+        block[count++] = '-';
+        appendHex(msb >>> 16, 4);
+        block[count++] = '-';
+        appendHex(msb, 4);
+        block[count++] = '-';
+        appendHex(lsb >>> 48, 4);
+        block[count++] = '-';
+        appendHex(lsb, 12);
+    }
+
+    private void appendHex(long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            block[count++] = HEX_DIGITS[(int) (value >>> shift) & 0xf];
+        }
+    }
+}
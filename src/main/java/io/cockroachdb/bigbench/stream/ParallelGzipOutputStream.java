@@ -0,0 +1,206 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip output stream that splits the output into fixed size blocks, deflates
+ * them in parallel on a shared worker pool and writes each block as a separate
+ * gzip member, in order. Concatenated members form a valid gzip stream (RFC 1952)
+ * that standard decoders read as one.
+ * <p/>
+ * Flushing writes the blocks compressed so far without waiting for the ones in
+ * progress, so the pipeline is not stalled. All remaining blocks are written on
+ * close. Not thread safe.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS,
+            Thread.ofPlatform().daemon().name("gzip-", 0).factory());
+
+    private static final ThreadLocal<Deflater> DEFLATERS = new ThreadLocal<>();
+
+    private static final byte[] MEMBER_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final OutputStream out;
+
+    private final int blockSize;
+
+    private final int level;
+
+    private final int maxPending;
+
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block;
+
+    private int count;
+
+    private long members;
+
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public ParallelGzipOutputStream(OutputStream out, int blockSize, int level) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPending = THREADS * 2;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[count++] = (byte) b;
+        if (count == blockSize) {
+            submit();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submit();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            writeFirst();
+        }
+        out.flush();
+    }
+
+    /**
+     * Compress and write all remaining data without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (count > 0 || members == 0) {
+            submit();
+        }
+        while (!pending.isEmpty()) {
+            writeFirst();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submit() throws IOException {
+        final byte[] data = block;
+        final int length = count;
+        pending.addLast(EXECUTOR.submit(() -> compress(data, length, level)));
+        members++;
+
+        block = new byte[blockSize];
+        count = 0;
+
+        while (pending.size() >= maxPending) {
+            writeFirst();
+        }
+    }
+
+    private void writeFirst() throws IOException {
+        Future<byte[]> future = pending.removeFirst();
+        try {
+            out.write(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Error compressing block", e.getCause());
+        }
+    }
+
+    /**
+     * Compress a block into a complete gzip member.
+     */
+    static byte[] compress(byte[] data, int length, int level) {
+        Deflater deflater = DEFLATERS.get();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            DEFLATERS.set(deflater);
+        } else {
+            deflater.reset();
+            deflater.setLevel(level);
+        }
+
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        member.write(MEMBER_HEADER, 0, MEMBER_HEADER.length);
+
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+
+        byte[] buffer = new byte[Math.max(512, Math.min(length, 64 * 1024))];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            member.write(buffer, 0, n);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        writeIntLE(member, (int) crc.getValue());
+        writeIntLE(member, length);
+
+        return member.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -0,0 +1,59 @@
+package io.cockroachdb.bigbench.stream;
+
+/**
+ * One of a number of disjoint shares of a stream. The rows of a table are split
+ * into contiguous ranges so that partitions generated by separate requests,
+ * for example one per node in a multi-node import, never overlap in row
+ * numbers or sequence values.
+ */
+public final class Partition {
+    public static final Partition NONE = new Partition(0, 1);
+
+    public static Partition of(int index, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("partitions must be > 0");
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("partition must be >= 0 and < " + count);
+        }
+        return new Partition(index, count);
+    }
+
+    private final int index;
+
+    private final int count;
+
+    private Partition(int index, int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param totalRows the number of rows across all partitions
+     * @return the zero-based row number of the first row in this partition
+     */
+    public int firstRow(int totalRows) {
+        return index * (totalRows / count) + Math.min(index, totalRows % count);
+    }
+
+    /**
+     * @param totalRows the number of rows across all partitions
+     * @return the number of rows in this partition
+     */
+    public int rowCount(int totalRows) {
+        return totalRows / count + (index < totalRows % count ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,288 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.postgresql.util.ByteConverter;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.IdentityType;
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.model.Table;
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+import io.cockroachdb.bigbench.stream.generator.LongEncoding;
+import io.cockroachdb.bigbench.stream.generator.TemporalEncoding;
+import io.cockroachdb.bigbench.stream.generator.ValueGenerator;
+
+/**
+ * Generates a stream in the PostgreSQL binary COPY format, for use with
+ * {@code COPY .. FROM STDIN WITH BINARY}. Each field is encoded in the binary
+ * send format of the column type, which is resolved from the column type name
+ * like for Avro. Values of the JDBC type {@code OTHER} are sent as UUID or JSONB
+ * depending on the generated value.
+ * <p/>
+ * Arrays, {@code BIT(n)} and other types without a binary encoder here are
+ * rejected when the generator is created, since the server would reject or
+ * misread them as text. Use the CSV format for such tables.
+ */
+public class PgCopyStreamGenerator extends AbstractStreamGeneratorSupport implements StreamGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+    private static final long PG_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+
+    private static final long PG_EPOCH_SECOND = PG_EPOCH_DAY * 86_400;
+
+    private static final int JSONB_VERSION = 1;
+
+    @FunctionalInterface
+    private interface FieldEncoder {
+        void write(ColumnBuffer column, int row, DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ValueEncoder {
+        void write(Object value, DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Check that all visible columns of a table have a binary COPY encoding.
+     *
+     * @param table the table
+     * @throws IllegalArgumentException if a column type has no binary encoding
+     */
+    public static void checkSupported(Table table) {
+        fieldEncoders(table.filterColumns(VISIBLE_COLUMN_PREDICATE));
+    }
+
+    private final DataSource dataSource;
+
+    private final Table table;
+
+    private final List<Column> columns;
+
+    private final FieldEncoder[] encoders;
+
+    /**
+     * @throws IllegalArgumentException if a column type has no binary encoding
+     */
+    public PgCopyStreamGenerator(DataSource dataSource, Table table) {
+        this.dataSource = dataSource;
+        this.table = table;
+        this.columns = table.filterColumns(VISIBLE_COLUMN_PREDICATE);
+        this.encoders = fieldEncoders(columns);
+    }
+
+    @Override
+    public void streamTo(OutputStream outputStream) {
+        final RowBlock rowBlock = new RowBlock(columns.size());
+        final int totalRows = table.parseRowCount();
+        final int firstRow = getPartition().firstRow(totalRows);
+        final int rowCount = getPartition().rowCount(totalRows);
+        final List<ValueGenerator<?>> columnGenerators = columnGenerators(dataSource, columns, rowBlock, firstRow);
+
+        int i = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(compress(outputStream), DEFAULT_BLOCK_SIZE))) {
+            out.write(SIGNATURE);
+            out.writeInt(0); // flags
+            out.writeInt(0); // header extension length
+
+            for (; i < rowCount; i += rowBlock.size()) {
+                rowBlock.fill(columnGenerators, firstRow + i, rowCount - i);
+
+                for (int row = 0; row < rowBlock.size(); row++) {
+                    out.writeShort(encoders.length);
+                    for (int col = 0; col < encoders.length; col++) {
+                        encoders[col].write(rowBlock.column(col), row, out);
+                    }
+                }
+            }
+
+            out.writeShort(-1); // trailer
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("I/O exception at row " + (firstRow + i), e);
+        } catch (Exception e) {
+            throw new UndeclaredThrowableException(e, "Exception at row " + (firstRow + i));
+        }
+    }
+
+    private static FieldEncoder[] fieldEncoders(List<Column> columns) {
+        return columns.stream()
+                .map(PgCopyStreamGenerator::fieldEncoder)
+                .toArray(FieldEncoder[]::new);
+    }
+
+    private static FieldEncoder fieldEncoder(Column column) {
+        final FieldEncoder encoder = typeEncoder(column);
+        return (buffer, row, out) -> {
+            if (!buffer.isLongs() && buffer.get(row) == null) {
+                out.writeInt(-1);
+            } else {
+                encoder.write(buffer, row, out);
+            }
+        };
+    }
+
+    private static FieldEncoder typeEncoder(Column column) {
+        if (column.getIdentity() != null) {
+            IdentityType type = column.getIdentity().getType();
+            if (type == IdentityType.uuid || type == IdentityType.uuid_v7) {
+                return generic(PgCopyStreamGenerator::writeUUID);
+            }
+        }
+
+        String typeName = column.getTypeName();
+        if (typeName == null || typeName.endsWith("[]") || typeName.startsWith("_")
+            || typeName.toUpperCase(Locale.ROOT).startsWith("ARRAY")) {
+            throw unsupportedType(column);
+        }
+
+        return switch (column.getBaseTypeName().toUpperCase(Locale.ROOT)) {
+            case "BOOL", "BOOLEAN" -> generic((value, out) -> {
+                out.writeInt(1);
+                out.writeBoolean(value instanceof Boolean b ? b : Boolean.parseBoolean(value.toString()));
+            });
+            case "TINYINT", "SMALLINT", "INT2" -> integral(2);
+            case "INTEGER", "INT4" -> integral(4);
+            case "BIGINT", "INT", "INT8", "INT64", "SERIAL", "SERIAL8", "BIGSERIAL" -> integral(8);
+            case "REAL", "FLOAT4" -> generic((value, out) -> {
+                out.writeInt(4);
+                out.writeFloat(value instanceof Number n ? n.floatValue() : Float.parseFloat(value.toString()));
+            });
+            case "FLOAT", "DOUBLE", "DOUBLE PRECISION", "FLOAT8" -> generic((value, out) -> {
+                out.writeInt(8);
+                out.writeDouble(value instanceof Number n ? n.doubleValue() : Double.parseDouble(value.toString()));
+            });
+            case "NUMERIC", "DECIMAL", "DEC" -> generic((value, out) -> {
+                BigDecimal decimal = value instanceof Double d
+                        ? BigDecimal.valueOf(d) : ValueConversions.toBigDecimal(value);
+                writeBytes(ByteConverter.numeric(decimal), out);
+            });
+            case "DATE" -> temporal(RangeType.date, 1, PG_EPOCH_DAY, true, (value, out) -> {
+                out.writeInt(4);
+                out.writeInt((int) (ValueConversions.toLocalDate(value).toEpochDay() - PG_EPOCH_DAY));
+            });
+            case "TIME", "TIME WITHOUT TIME ZONE" -> temporal(RangeType.time, 1_000_000L, 0, false, (value, out) -> {
+                out.writeInt(8);
+                out.writeLong(ValueConversions.toLocalTime(value).getLong(ChronoField.MICRO_OF_DAY));
+            });
+            case "TIMESTAMP", "TIMESTAMPTZ", "TIMESTAMP_WITH_TIMEZONE", "TIMESTAMP WITH TIME ZONE",
+                 "TIMESTAMP WITHOUT TIME ZONE" ->
+                    temporal(RangeType.datetime, 1_000_000L, PG_EPOCH_SECOND, false, (value, out) -> {
+                        Instant instant = ValueConversions.toInstant(value);
+                        out.writeInt(8);
+                        out.writeLong(Math.addExact(Math.multiplyExact(instant.getEpochSecond() - PG_EPOCH_SECOND,
+                                1_000_000L), instant.getNano() / 1000));
+                    });
+            case "UUID" -> generic(PgCopyStreamGenerator::writeUUID);
+            case "BINARY", "VARBINARY", "LONGVARBINARY", "BLOB", "BYTES", "BYTEA" -> generic((value, out) ->
+                    writeBytes(value instanceof byte[] bytes
+                            ? bytes : value.toString().getBytes(StandardCharsets.UTF_8), out));
+            case "JSON", "JSONB" -> generic(PgCopyStreamGenerator::writeJson);
+            case "OTHER" -> generic((value, out) -> {
+                if (value instanceof UUID) {
+                    writeUUID(value, out);
+                } else {
+                    writeJson(value, out);
+                }
+            });
+            case "STRING", "TEXT", "VARCHAR", "CHAR", "CHARACTER", "CHARACTER VARYING", "BPCHAR", "NAME",
+                 "NCHAR", "NVARCHAR", "LONGVARCHAR", "LONGNVARCHAR", "CLOB", "NCLOB" ->
+                    generic(PgCopyStreamGenerator::writeText);
+            default -> throw unsupportedType(column);
+        };
+    }
+
+    private static IllegalArgumentException unsupportedType(Column column) {
+        return new IllegalArgumentException("No binary COPY encoding for column '%s' of type '%s'"
+                .formatted(column.getName(), column.getTypeName()));
+    }
+
+    private static FieldEncoder generic(ValueEncoder encoder) {
+        return (column, row, out) -> encoder.write(column.get(row), out);
+    }
+
+    private static FieldEncoder integral(int size) {
+        final ValueEncoder generic = (value, out) -> writeIntegral(size,
+                value instanceof Number n ? n.longValue() : Long.parseLong(value.toString()), out);
+        return (column, row, out) -> {
+            if (column.isLongs() && column.getEncoding() == null) {
+                writeIntegral(size, column.getLong(row), out);
+            } else {
+                generic.write(column.get(row), out);
+            }
+        };
+    }
+
+    private static void writeIntegral(int size, long value, DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        switch (size) {
+            case 2 -> out.writeShort(Math.toIntExact(value));
+            case 4 -> out.writeInt(Math.toIntExact(value));
+            default -> out.writeLong(value);
+        }
+    }
+
+    /**
+     * Encode temporal values kept as epoch days or seconds directly, shifted
+     * to the PostgreSQL epoch and scaled to the unit of the type.
+     */
+    private static FieldEncoder temporal(RangeType type, long scale, long epochOffset, boolean asInt,
+                                         ValueEncoder generic) {
+        return (column, row, out) -> {
+            LongEncoding encoding = column.isLongs() ? column.getEncoding() : null;
+            if (encoding instanceof TemporalEncoding temporal && temporal.getType() == type) {
+                long value = Math.multiplyExact(column.getLong(row) - epochOffset, scale);
+                if (asInt) {
+                    out.writeInt(4);
+                    out.writeInt(Math.toIntExact(value));
+                } else {
+                    out.writeInt(8);
+                    out.writeLong(value);
+                }
+            } else {
+                generic.write(column.get(row), out);
+            }
+        };
+    }
+
+    private static void writeUUID(Object value, DataOutputStream out) throws IOException {
+        UUID uuid = value instanceof UUID u ? u : UUID.fromString(value.toString());
+        out.writeInt(16);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void writeJson(Object value, DataOutputStream out) throws IOException {
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length + 1);
+        out.writeByte(JSONB_VERSION);
+        out.write(bytes);
+    }
+
+    private static void writeText(Object value, DataOutputStream out) throws IOException {
+        writeBytes(value.toString().getBytes(StandardCharsets.UTF_8), out);
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
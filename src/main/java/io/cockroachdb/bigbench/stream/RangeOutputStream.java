@@ -0,0 +1,63 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that tracks the absolute byte position of a generated stream
+ * and only passes through the bytes within an inclusive range. Bytes before the
+ * range are generated but discarded, bytes after it are dropped.
+ */
+public class RangeOutputStream extends FilterOutputStream {
+    private final long first;
+
+    private final long last;
+
+    private long position;
+
+    /**
+     * @param out      the target stream
+     * @param position the absolute position of the first byte written
+     * @param first    the absolute position of the first byte to pass through
+     * @param last     the absolute position of the last byte to pass through
+     */
+    public RangeOutputStream(OutputStream out, long position, long first, long last) {
+        super(out);
+        this.position = position;
+        this.first = first;
+        this.last = last;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position >= first && position <= last) {
+            out.write(b);
+        }
+        position++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long from = Math.max(position, first);
+        long to = Math.min(position + len - 1, last);
+        if (from <= to) {
+            out.write(b, off + (int) (from - position), (int) (to - from + 1));
+        }
+        position += len;
+    }
+
+    /**
+     * @return the absolute position of the next byte written
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return true if all bytes in the range have been written
+     */
+    public boolean isPastEnd() {
+        return position > last;
+    }
+}
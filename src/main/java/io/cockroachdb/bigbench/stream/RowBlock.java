@@ -0,0 +1,78 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.util.List;
+
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+import io.cockroachdb.bigbench.stream.generator.ValueGenerator;
+
+/**
+ * A block of generated rows stored column by column. Each column is filled
+ * in one pass by its value generator before the rows are written out.
+ */
+public class RowBlock {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final ColumnBuffer[] buffers;
+
+    private final int capacity;
+
+    private int firstRow;
+
+    private int size;
+
+    private ColumnBuffer filling;
+
+    public RowBlock(int columns) {
+        this(columns, DEFAULT_CAPACITY);
+    }
+
+    public RowBlock(int columns, int capacity) {
+        this.capacity = capacity;
+        this.buffers = new ColumnBuffer[columns];
+        for (int i = 0; i < columns; i++) {
+            buffers[i] = new ColumnBuffer(capacity);
+        }
+    }
+
+    /**
+     * Fill the block with a number of rows, column by column.
+     *
+     * @param generators value generators in column order
+     * @param firstRow   the row number of the first row in the block
+     * @param count      number of rows, at most the block capacity
+     */
+    public void fill(List<ValueGenerator<?>> generators, int firstRow, int count) {
+        this.firstRow = firstRow;
+        this.size = Math.min(count, capacity);
+
+        for (int i = 0; i < buffers.length; i++) {
+            filling = buffers[i];
+            filling.clear();
+            generators.get(i).fill(filling, size);
+        }
+        filling = null;
+    }
+
+    /**
+     * @return the row number of the value being generated
+     */
+    public int rowNumber() {
+        return firstRow + (filling != null ? filling.size() : 0);
+    }
+
+    public ColumnBuffer column(int index) {
+        return buffers[index];
+    }
+
+    public int columns() {
+        return buffers.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
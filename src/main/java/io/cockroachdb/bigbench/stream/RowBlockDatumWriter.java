@@ -0,0 +1,175 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+import io.cockroachdb.bigbench.stream.generator.LongEncoding;
+import io.cockroachdb.bigbench.stream.generator.TemporalEncoding;
+
+/**
+ * A datum writer that encodes one row of a row block straight from the column
+ * buffers, in column order, without building a record per row or resolving the
+ * schema per datum. Primitive long columns, including dates, times and date times
+ * kept as epoch values, are encoded without boxing.
+ * <p/>
+ * The row to write is set with {@link #setRow(int)} before each append.
+ */
+public class RowBlockDatumWriter implements DatumWriter<RowBlock> {
+    @FunctionalInterface
+    private interface FieldEncoder {
+        void write(ColumnBuffer column, int row, Encoder out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ValueEncoder {
+        void write(Object value, Encoder out) throws IOException;
+    }
+
+    private final Schema schema;
+
+    private final FieldEncoder[] encoders;
+
+    private int row;
+
+    public RowBlockDatumWriter(Schema schema) {
+        this.schema = schema;
+        List<Schema.Field> fields = schema.getFields();
+        this.encoders = new FieldEncoder[fields.size()];
+        for (int i = 0; i < encoders.length; i++) {
+            encoders[i] = fieldEncoder(fields.get(i));
+        }
+    }
+
+    public RowBlockDatumWriter setRow(int row) {
+        this.row = row;
+        return this;
+    }
+
+    @Override
+    public void setSchema(Schema schema) {
+        if (!this.schema.equals(schema)) {
+            throw new IllegalArgumentException("Schema mismatch: " + schema);
+        }
+    }
+
+    @Override
+    public void write(RowBlock block, Encoder out) throws IOException {
+        for (int col = 0; col < encoders.length; col++) {
+            encoders[col].write(block.column(col), row, out);
+        }
+    }
+
+    private static FieldEncoder fieldEncoder(Schema.Field field) {
+        final Schema fieldSchema = field.schema();
+
+        int nullIndex = -1;
+        int valueIndex = -1;
+        Schema valueSchema = fieldSchema;
+        if (fieldSchema.getType() == Schema.Type.UNION) {
+            List<Schema> types = fieldSchema.getTypes();
+            for (int i = 0; i < types.size(); i++) {
+                if (types.get(i).getType() == Schema.Type.NULL) {
+                    nullIndex = i;
+                } else {
+                    valueIndex = i;
+                    valueSchema = types.get(i);
+                }
+            }
+        }
+
+        final FieldEncoder valueEncoder = valueEncoder(valueSchema, AvroSchemas.valueConverter(valueSchema));
+
+        if (valueIndex < 0) {
+            return (column, row, out) -> {
+                if (!column.isLongs() && column.get(row) == null) {
+                    throw new IllegalStateException("Null value for required field: " + field.name());
+                }
+                valueEncoder.write(column, row, out);
+            };
+        }
+
+        final int nullBranch = nullIndex;
+        final int valueBranch = valueIndex;
+        return (column, row, out) -> {
+            if (!column.isLongs() && column.get(row) == null) {
+                out.writeIndex(nullBranch);
+                out.writeNull();
+            } else {
+                out.writeIndex(valueBranch);
+                valueEncoder.write(column, row, out);
+            }
+        };
+    }
+
+    private static FieldEncoder valueEncoder(Schema schema, UnaryOperator<Object> converter) {
+        final ValueEncoder generic = switch (schema.getType()) {
+            case BOOLEAN -> (value, out) -> out.writeBoolean((Boolean) converter.apply(value));
+            case INT -> (value, out) -> out.writeInt((Integer) converter.apply(value));
+            case LONG -> (value, out) -> out.writeLong((Long) converter.apply(value));
+            case DOUBLE -> (value, out) -> out.writeDouble((Double) converter.apply(value));
+            case BYTES -> (value, out) -> out.writeBytes((ByteBuffer) converter.apply(value));
+            default -> (value, out) -> out.writeString((String) converter.apply(value));
+        };
+
+        final LogicalType logicalType = schema.getLogicalType();
+
+        if (logicalType instanceof LogicalTypes.Date) {
+            return longFastPath(RangeType.date, 1, generic, true);
+        }
+        if (logicalType instanceof LogicalTypes.TimeMicros) {
+            return longFastPath(RangeType.time, 1_000_000L, generic, false);
+        }
+        if (logicalType instanceof LogicalTypes.TimestampMicros) {
+            return longFastPath(RangeType.datetime, 1_000_000L, generic, false);
+        }
+        if (logicalType == null && schema.getType() == Schema.Type.LONG) {
+            return (column, row, out) -> {
+                if (column.isLongs() && column.getEncoding() == null) {
+                    out.writeLong(column.getLong(row));
+                } else {
+                    generic.write(column.get(row), out);
+                }
+            };
+        }
+        if (logicalType == null && schema.getType() == Schema.Type.INT) {
+            return (column, row, out) -> {
+                if (column.isLongs() && column.getEncoding() == null) {
+                    out.writeInt(Math.toIntExact(column.getLong(row)));
+                } else {
+                    generic.write(column.get(row), out);
+                }
+            };
+        }
+        return (column, row, out) -> generic.write(column.get(row), out);
+    }
+
+    /**
+     * Encode temporal values kept as epoch days or seconds directly, scaled
+     * to the unit of the logical type.
+     */
+    private static FieldEncoder longFastPath(RangeType type, long scale, ValueEncoder generic, boolean asInt) {
+        return (column, row, out) -> {
+            LongEncoding encoding = column.isLongs() ? column.getEncoding() : null;
+            if (encoding instanceof TemporalEncoding temporal && temporal.getType() == type) {
+                long value = Math.multiplyExact(column.getLong(row), scale);
+                if (asInt) {
+                    out.writeInt(Math.toIntExact(value));
+                } else {
+                    out.writeLong(value);
+                }
+            } else {
+                generic.write(column.get(row), out);
+            }
+        };
+    }
+}
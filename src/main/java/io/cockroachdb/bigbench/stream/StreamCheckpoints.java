@@ -0,0 +1,98 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Byte offsets of row blocks in a reproducible (seeded) stream, recorded while
+ * streaming. A resumed stream starts generating at the nearest checkpoint before
+ * the requested offset rather than from the first row.
+ * <p/>
+ * Checkpoints are kept per stream key in a bounded LRU registry. They are only
+ * valid as long as the table definition is unchanged.
+ */
+public class StreamCheckpoints {
+    /**
+     * Rows between checkpoints, a multiple of the row block size.
+     */
+    public static final int DEFAULT_INTERVAL = RowBlock.DEFAULT_CAPACITY * 16;
+
+    public static final int MAX_STREAMS = 256;
+
+    private static final Map<String, StreamCheckpoints> REGISTRY
+            = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StreamCheckpoints> eldest) {
+            return size() > MAX_STREAMS;
+        }
+    };
+
+    /**
+     * Lookup or create the checkpoints of a stream.
+     *
+     * @param key identifies the stream, including all parameters affecting its output
+     * @return the stream checkpoints
+     */
+    public static StreamCheckpoints forKey(String key) {
+        synchronized (REGISTRY) {
+            return REGISTRY.computeIfAbsent(key, k -> new StreamCheckpoints(DEFAULT_INTERVAL));
+        }
+    }
+
+    /**
+     * Discard the checkpoints of all streams with a key prefix, for example
+     * when the definition of the table leading the key changes.
+     *
+     * @param prefix the key prefix
+     */
+    public static void clear(String prefix) {
+        synchronized (REGISTRY) {
+            REGISTRY.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private final NavigableMap<Long, Integer> offsets = new ConcurrentSkipListMap<>();
+
+    private final int interval;
+
+    private volatile long length = -1;
+
+    public StreamCheckpoints(int interval) {
+        if (interval <= 0 || interval % RowBlock.DEFAULT_CAPACITY != 0) {
+            throw new IllegalArgumentException("Interval must be a positive multiple of "
+                    + RowBlock.DEFAULT_CAPACITY);
+        }
+        this.interval = interval;
+    }
+
+    public int interval() {
+        return interval;
+    }
+
+    /**
+     * Record the byte offset of a row, relative to the first row of the stream.
+     */
+    public void record(long offset, int row) {
+        offsets.putIfAbsent(offset, row);
+    }
+
+    /**
+     * @return the nearest checkpoint at or before an offset, or null if none
+     */
+    public Map.Entry<Long, Integer> floor(long offset) {
+        return offsets.floorEntry(offset);
+    }
+
+    /**
+     * @return the total stream length in bytes, or -1 if not yet known
+     */
+    public long length() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+}
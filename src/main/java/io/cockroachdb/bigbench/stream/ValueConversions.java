@@ -0,0 +1,60 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Lenient conversions of generated values for typed binary encodings. Values
+ * are either of the expected type, a related type or their text form. Date
+ * times without a zone are taken as UTC.
+ */
+abstract class ValueConversions {
+    private ValueConversions() {
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal bd) {
+            return bd;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    static LocalDate toLocalDate(Object value) {
+        return switch (value) {
+            case LocalDate localDate -> localDate;
+            case LocalDateTime localDateTime -> localDateTime.toLocalDate();
+            case java.sql.Date date -> date.toLocalDate();
+            default -> LocalDate.parse(value.toString());
+        };
+    }
+
+    static LocalTime toLocalTime(Object value) {
+        return switch (value) {
+            case LocalTime localTime -> localTime;
+            case LocalDateTime localDateTime -> localDateTime.toLocalTime();
+            case java.sql.Time time -> time.toLocalTime();
+            default -> LocalTime.parse(value.toString());
+        };
+    }
+
+    static Instant toInstant(Object value) {
+        return switch (value) {
+            case Instant instant -> instant;
+            case LocalDateTime localDateTime -> localDateTime.toInstant(ZoneOffset.UTC);
+            case OffsetDateTime offsetDateTime -> offsetDateTime.toInstant();
+            case ZonedDateTime zonedDateTime -> zonedDateTime.toInstant();
+            case LocalDate localDate -> localDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+            case java.sql.Timestamp timestamp -> timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+            default -> LocalDateTime.parse(value.toString()).toInstant(ZoneOffset.UTC);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A fixed capacity buffer holding a block of values for one column. Values
+ * are kept in a primitive long array as long as only longs are added, and
+ * otherwise in an object array.
+ */
+public class ColumnBuffer implements Consumer<Object> {
+    private final Object[] values;
+
+    private final long[] longs;
+
+    private boolean longMode;
+
+    private LongEncoding encoding;
+
+    private int size;
+
+    public ColumnBuffer(int capacity) {
+        this.values = new Object[capacity];
+        this.longs = new long[capacity];
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        this.size = 0;
+        this.longMode = false;
+        this.encoding = null;
+    }
+
+    /**
+     * Set the encoding of primitive long values that represent some other type,
+     * such as epoch days for dates. Reset when the buffer is cleared.
+     *
+     * @param encoding the encoding or null for plain longs
+     */
+    public void setEncoding(LongEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public LongEncoding getEncoding() {
+        return encoding;
+    }
+
+    public void add(Object value) {
+        if (longMode) {
+            for (int i = 0; i < size; i++) {
+                values[i] = decode(longs[i]);
+            }
+            longMode = false;
+        }
+        values[size++] = value;
+    }
+
+    public void addLong(long value) {
+        if (size == 0) {
+            longMode = true;
+        }
+        if (longMode) {
+            longs[size++] = value;
+        } else {
+            values[size++] = decode(value);
+        }
+    }
+
+    @Override
+    public void accept(Object value) {
+        add(value);
+    }
+
+    public Object get(int index) {
+        checkIndex(index);
+        return longMode ? decode(longs[index]) : values[index];
+    }
+
+    public long getLong(int index) {
+        checkIndex(index);
+        return longMode ? longs[index] : ((Number) values[index]).longValue();
+    }
+
+    public Object[] toArray() {
+        Object[] copy = new Object[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = get(i);
+        }
+        return copy;
+    }
+
+    public boolean isLongs() {
+        return longMode;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    private Object decode(long value) {
+        return encoding != null ? encoding.decode(value) : value;
+    }
+
+    private void checkIndex(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.function.ToLongFunction;
+import java.util.random.RandomGenerator;
+
+import io.cockroachdb.bigbench.util.RandomSource;
+
+/**
+ * Generates longs in a range with a skewed distribution.
+ */
+public class DistributionGenerator implements ValueGenerator<Long> {
+    private final long from;
+
+    private final ToLongFunction<RandomGenerator> sampler;
+
+    /**
+     * @param from    the lower bound of the range
+     * @param sampler draws an offset from the lower bound
+     */
+    public DistributionGenerator(long from, ToLongFunction<RandomGenerator> sampler) {
+        this.from = from;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public Long nextValue() {
+        return from + sampler.applyAsLong(RandomSource.current());
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        RandomGenerator random = RandomSource.current();
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(from + sampler.applyAsLong(random));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
+import java.util.Objects;
+
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
+
+/**
+ * Base class for temporal range generators stepping a primitive epoch counter,
+ * for step units with a fixed length. Values are written to column buffers as
+ * longs with a {@link TemporalEncoding}, so no temporal objects are created.
+ * <p/>
+ * The first value is one step after the start of the range, and the range
+ * wraps around to the start once the next step would pass the end.
+ */
+public abstract class EpochRangeGenerator<T extends Temporal> implements ValueGenerator<T> {
+    private static final long SECONDS_PER_DAY = 86400;
+
+    /**
+     * @return true if the range steps by a fixed number of epoch units from
+     * a start, and to an end, in whole seconds
+     */
+    public static boolean isEpochStep(Range range) {
+        long seconds = stepSeconds(stepUnit(range));
+        if (seconds <= 0) {
+            return false;
+        }
+        if (range.getType() == RangeType.date) {
+            return seconds % SECONDS_PER_DAY == 0;
+        }
+        return range.getFrom() != null
+               && isWholeSecond(parse(range, range.getFrom()))
+               && (range.getTo() == null || isWholeSecond(parse(range, range.getTo())));
+    }
+
+    private static boolean isWholeSecond(Temporal temporal) {
+        return !temporal.isSupported(ChronoField.NANO_OF_SECOND) || temporal.get(ChronoField.NANO_OF_SECOND) == 0;
+    }
+
+    /**
+     * @param range the range
+     * @param value a range bound
+     * @return the range bound, which must be in whole seconds
+     * @throws IllegalArgumentException if the bound has fractional seconds or is missing
+     */
+    static Temporal parseWholeSecond(Range range, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Range start is required for epoch steps: " + range);
+        }
+        Temporal temporal = parse(range, value);
+        if (!isWholeSecond(temporal)) {
+            throw new IllegalArgumentException("Range bound has fractional seconds: " + value);
+        }
+        return temporal;
+    }
+
+    static long stepSeconds(TemporalUnit unit) {
+        if (unit instanceof ChronoUnit chronoUnit) {
+            return switch (chronoUnit) {
+                case SECONDS, MINUTES, HOURS, HALF_DAYS, DAYS, WEEKS -> chronoUnit.getDuration().getSeconds();
+                default -> -1;
+            };
+        }
+        return -1;
+    }
+
+    static Temporal parse(Range range, String value) {
+        return switch (range.getType()) {
+            case date -> LocalDate.parse(value);
+            case time -> LocalTime.parse(value);
+            case datetime -> LocalDateTime.parse(value);
+        };
+    }
+
+    static Temporal now(Range range) {
+        return switch (range.getType()) {
+            case date -> LocalDate.now();
+            case time -> LocalTime.now();
+            case datetime -> LocalDateTime.now();
+        };
+    }
+
+    static long stepAmount(Range range) {
+        return Math.max(1, Objects.requireNonNullElse(range.getStep(), 1));
+    }
+
+    static TemporalUnit stepUnit(Range range) {
+        if (range.getStepUnit() != null) {
+            return range.getStepUnit();
+        }
+        return switch (range.getType()) {
+            case date -> ChronoUnit.DAYS;
+            case time, datetime -> ChronoUnit.SECONDS;
+        };
+    }
+
+    private final long start;
+
+    private final long step;
+
+    private final long cycle;
+
+    private final long modulus;
+
+    private final TemporalEncoding encoding;
+
+    private long position;
+
+    /**
+     * @param type    the range type
+     * @param start   the start of the range in epoch units
+     * @param end     the end of the range in epoch units, or null if unbounded
+     * @param step    the step in epoch units
+     * @param modulus wrap values around this modulus, or 0 for none
+     * @param offset  number of values to skip, wrapping around like the range itself
+     */
+    protected EpochRangeGenerator(RangeType type, long start, Long end, long step, long modulus, long offset) {
+        if (end != null && end < start) {
+            throw new IllegalArgumentException("Range end is before start");
+        }
+        this.start = start;
+        this.step = step;
+        this.cycle = end != null ? (end - start) / step + 1 : 0;
+        this.modulus = modulus;
+        this.encoding = new TemporalEncoding(type);
+        this.position = cycle > 0 ? offset % cycle : offset;
+    }
+
+    private long nextEpoch() {
+        long index = ++position;
+        if (cycle > 0) {
+            if (index >= cycle) {
+                index = 0;
+                position = 0;
+            }
+        }
+        long value = start + index * step;
+        return modulus > 0 ? Math.floorMod(value, modulus) : value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T nextValue() {
+        return (T) encoding.decode(nextEpoch());
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        buffer.setEncoding(encoding);
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(nextEpoch());
+        }
+    }
+}
@@ -1,28 +1,21 @@
 package io.cockroachdb.bigbench.stream.generator;
 
-import io.cockroachdb.bigbench.model.Column;
-import io.cockroachdb.bigbench.expression.ExpressionRegistry;
-import io.cockroachdb.bigbench.expression.Expression;
-import org.springframework.util.StringUtils;
+import io.cockroachdb.bigbench.expression.CompiledExpression;
 
 public class ExpressionGenerator implements ValueGenerator<Object> {
-    private final Column column;
+    private final CompiledExpression expression;
 
-    private final ExpressionRegistry registry;
-
-    public ExpressionGenerator(Column column, ExpressionRegistry registry) {
-        this.column = column;
-        this.registry = registry;
+    public ExpressionGenerator(CompiledExpression expression) {
+        this.expression = expression;
     }
 
     @Override
     public Object nextValue() {
-        String expression = column.getExpression();
-        if (StringUtils.hasLength(expression)) {
-            return Expression.evaluate(expression, Object.class, registry);
-        }
-        throw new IllegalStateException("Undefined column value generator for: "
-                + column.getName());
+        return expression.evaluate();
     }
 
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        expression.evaluate(buffer, count);
+    }
 }
@@ -1,49 +1,32 @@
 package io.cockroachdb.bigbench.stream.generator;
 
 import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.TemporalUnit;
-import java.util.Optional;
-
-public class LocalDateRangeGenerator implements ValueGenerator<LocalDate> {
-    private final LocalDate startDate;
-
-    private final LocalDate endDate;
-
-    private final long stepAmount;
-
-    private final TemporalUnit stepUnit;
-
-    private LocalDate nextDate;
 
+/**
+ * Generates dates by stepping an epoch day counter.
+ */
+public class LocalDateRangeGenerator extends EpochRangeGenerator<LocalDate> {
     public LocalDateRangeGenerator(Range range)
             throws DateTimeParseException {
-        this.startDate = range.getFrom() != null ?
-                LocalDate.parse(range.getFrom(), DateTimeFormatter.ISO_LOCAL_DATE)
-                : LocalDate.now();
-        if (Optional.ofNullable(range.getTo()).isPresent()) {
-            this.endDate =
-                    LocalDate.parse(range.getTo(), DateTimeFormatter.ISO_LOCAL_DATE);
-            if (endDate.isBefore(startDate)) {
-                throw new IllegalArgumentException("endDate is before startDate");
-            }
-        } else {
-            this.endDate = null;
-        }
-        this.nextDate = startDate;
-        this.stepAmount = range.getStep();
-        this.stepUnit = range.getStepUnit();
+        this(range, 0);
+    }
+
+    public LocalDateRangeGenerator(Range range, long offset)
+            throws DateTimeParseException {
+        super(RangeType.date,
+                parseDate(range.getFrom(), LocalDate.now()).toEpochDay(),
+                range.getTo() != null ? parseDate(range.getTo(), null).toEpochDay() : null,
+                stepAmount(range) * stepSeconds(stepUnit(range)) / 86400,
+                0,
+                offset);
     }
 
-    @Override
-    public LocalDate nextValue() {
-        nextDate = nextDate.plus(stepAmount, stepUnit);
-        if (endDate != null && nextDate.isAfter(endDate)) {
-            nextDate = startDate;
-        }
-        return nextDate;
+    private static LocalDate parseDate(String value, LocalDate defaultValue) {
+        return value != null ? LocalDate.parse(value, DateTimeFormatter.ISO_LOCAL_DATE) : defaultValue;
     }
 }
@@ -1,50 +1,33 @@
 package io.cockroachdb.bigbench.stream.generator;
 
 import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.TemporalUnit;
-import java.util.Optional;
-
-public class LocalDateTimeGenerator implements ValueGenerator<LocalDateTime> {
-    private final LocalDateTime startTime;
-
-    private final LocalDateTime endTime;
-
-    private final long stepAmount;
-
-    private final TemporalUnit stepUnit;
-
-    private LocalDateTime nextTime;
 
+/**
+ * Generates date times by stepping an epoch second counter. The range start
+ * is required and both bounds must be in whole seconds.
+ */
+public class LocalDateTimeGenerator extends EpochRangeGenerator<LocalDateTime> {
     public LocalDateTimeGenerator(Range range)
             throws DateTimeParseException {
-        this.startTime = range.getFrom() != null ?
-                LocalDateTime.parse(range.getFrom(), DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                : LocalDateTime.now();
-        if (Optional.ofNullable(range.getTo()).isPresent()) {
-            this.endTime =
-                    LocalDateTime.parse(range.getTo(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            if (endTime.isBefore(startTime)) {
-                throw new IllegalArgumentException("endDateTime is before startDateTime");
-            }
-        } else {
-            this.endTime = null;
-        }
-        this.nextTime = startTime;
-        this.stepAmount = range.getStep();
-        this.stepUnit = range.getStepUnit();
+        this(range, 0);
     }
 
-    @Override
-    public LocalDateTime nextValue() {
-        nextTime = nextTime.plus(stepAmount, stepUnit);
-        if (endTime != null && nextTime.isAfter(endTime)) {
-            nextTime = startTime;
-        }
-        return nextTime;
+    public LocalDateTimeGenerator(Range range, long offset)
+            throws DateTimeParseException {
+        super(RangeType.datetime,
+                parseDateTime(range, range.getFrom()).toEpochSecond(ZoneOffset.UTC),
+                range.getTo() != null ? parseDateTime(range, range.getTo()).toEpochSecond(ZoneOffset.UTC) : null,
+                stepAmount(range) * stepSeconds(stepUnit(range)),
+                0,
+                offset);
     }
-}
 
+    private static LocalDateTime parseDateTime(Range range, String value) {
+        return (LocalDateTime) parseWholeSecond(range, value);
+    }
+}
@@ -0,0 +1,89 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+
+/**
+ * Generates IDs locally with the same layout as CockroachDB's {@code unique_rowid()}
+ * and {@code unordered_unique_rowid()}: a 48-bit timestamp in 10 microsecond units since
+ * 2015-01-01 followed by a 15-bit instance ID, with the timestamp bits reversed
+ * for the unordered variant.
+ * <p/>
+ * Timestamps are reserved from a JVM-wide counter that never goes backwards, so IDs
+ * are unique across parallel streams. The instance ID is taken from the system property
+ * {@code bigbench.instance-id}, or picked at random, and must be distinct between
+ * concurrent processes generating IDs for the same table.
+ */
+public class LocalRowIdGenerator implements ValueGenerator<Long> {
+    public static final int INSTANCE_ID_BITS = 15;
+
+    public static final int INSTANCE_ID = Integer.getInteger("bigbench.instance-id",
+            ThreadLocalRandom.current().nextInt(1, 1 << INSTANCE_ID_BITS)) & ((1 << INSTANCE_ID_BITS) - 1);
+
+    private static final long EPOCH_MILLIS = 1420070400000L;
+
+    private static final int RESERVATION_SIZE = 256;
+
+    private static final AtomicLong lastTimestamp = new AtomicLong();
+
+    /**
+     * Reserve a range of unique timestamps.
+     *
+     * @param count number of timestamps
+     * @return the first timestamp in the range
+     */
+    static long reserveTimestamps(int count) {
+        long now = Math.max(0, System.currentTimeMillis() - EPOCH_MILLIS) * 100;
+        while (true) {
+            long last = lastTimestamp.get();
+            long first = Math.max(now, last + 1);
+            if (lastTimestamp.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    public static long uniqueRowId(long timestamp, int instanceId) {
+        return (timestamp << INSTANCE_ID_BITS) ^ instanceId;
+    }
+
+    public static long unorderedUniqueRowId(long timestamp, int instanceId) {
+        return (Long.reverse(timestamp) >>> 1) | instanceId;
+    }
+
+    private final boolean ordered;
+
+    private long nextTimestamp;
+
+    private long endTimestamp;
+
+    public LocalRowIdGenerator(Identity gen) {
+        this.ordered = gen.getType().equals(IdentityType.local_ordered);
+    }
+
+    @Override
+    public Long nextValue() {
+        return nextId();
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(nextId());
+        }
+    }
+
+    private long nextId() {
+        if (nextTimestamp == endTimestamp) {
+            nextTimestamp = reserveTimestamps(RESERVATION_SIZE);
+            endTimestamp = nextTimestamp + RESERVATION_SIZE;
+        }
+        long timestamp = nextTimestamp++;
+        return ordered
+                ? uniqueRowId(timestamp, INSTANCE_ID)
+                : unorderedUniqueRowId(timestamp, INSTANCE_ID);
+    }
+}
@@ -1,51 +1,33 @@
 package io.cockroachdb.bigbench.stream.generator;
 
 import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.TemporalUnit;
-import java.util.Optional;
-
-public class LocalTimeRangeGenerator implements ValueGenerator<LocalTime> {
-    private final LocalTime startTime;
-
-    private final LocalTime endTime;
-
-    private final long stepAmount;
-
-    private final TemporalUnit stepUnit;
-
-    private LocalTime nextTime;
 
+/**
+ * Generates times of day by stepping a second of day counter, wrapping
+ * around at midnight. The range start is required and both bounds must be
+ * in whole seconds.
+ */
+public class LocalTimeRangeGenerator extends EpochRangeGenerator<LocalTime> {
     public LocalTimeRangeGenerator(Range range)
             throws DateTimeParseException {
-        this.startTime = range.getFrom() != null ?
-                LocalTime.parse(range.getFrom(), DateTimeFormatter.ISO_LOCAL_TIME)
-                : LocalTime.now();
-        if (Optional.ofNullable(range.getTo()).isPresent()) {
-            this.endTime =
-                    LocalTime.parse(range.getTo(), DateTimeFormatter.ISO_LOCAL_TIME);
-            if (endTime.isBefore(startTime)) {
-                throw new IllegalArgumentException("endTime is before startTime");
-            }
-        } else {
-            this.endTime = null;
-        }
-        this.nextTime = startTime;
-        this.stepAmount = range.getStep();
-        this.stepUnit = range.getStepUnit();
+        this(range, 0);
+    }
+
+    public LocalTimeRangeGenerator(Range range, long offset)
+            throws DateTimeParseException {
+        super(RangeType.time,
+                parseTime(range, range.getFrom()).toSecondOfDay(),
+                range.getTo() != null ? (long) parseTime(range, range.getTo()).toSecondOfDay() : null,
+                stepAmount(range) * stepSeconds(stepUnit(range)),
+                86400,
+                offset);
     }
 
-    @Override
-    public LocalTime nextValue() {
-        nextTime = nextTime.plus(stepAmount, stepUnit);
-        if (endTime != null) {
-            if (nextTime.isAfter(endTime)) {
-                nextTime = startTime;
-            }
-        }
-        return nextTime;
+    private static LocalTime parseTime(Range range, String value) {
+        return (LocalTime) parseWholeSecond(range, value);
     }
 }
@@ -0,0 +1,22 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+/**
+ * Encodes values of some other type as primitive longs in a column buffer,
+ * so that they can be generated and written without allocating objects.
+ */
+public interface LongEncoding {
+    /**
+     * @param value the encoded value
+     * @return the value as an object
+     */
+    Object decode(long value);
+
+    /**
+     * Append the text representation of an encoded value.
+     *
+     * @param sb    the target builder
+     * @param value the encoded value
+     * @return the target builder
+     */
+    StringBuilder appendTo(StringBuilder sb, long value);
+}
@@ -0,0 +1,62 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.Objects;
+
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.util.FeistelPermutation;
+
+/**
+ * Generates unique but scattered keys in the range [from, to] by mapping the
+ * row index through a keyed permutation. Unlike a sequence, consecutive rows
+ * do not land in the same key range, and unlike random keys there are no
+ * collisions until the range wraps around.
+ */
+public class PermutationGenerator implements ValueGenerator<Long> {
+    private final long startNumber;
+
+    private final FeistelPermutation permutation;
+
+    private long nextIndex;
+
+    public PermutationGenerator(Identity gen) {
+        this(gen, 0);
+    }
+
+    /**
+     * @param gen    the identity
+     * @param offset the row index of the first value, wrapping around the range
+     */
+    public PermutationGenerator(Identity gen, long offset) {
+        this.startNumber = Objects.requireNonNullElse(gen.getFrom(), 1);
+
+        long stopNumber = Objects.nonNull(gen.getTo()) ? gen.getTo() : Long.MAX_VALUE;
+        if (stopNumber < startNumber) {
+            throw new IllegalArgumentException("Identity range is empty: " + startNumber + ".." + stopNumber);
+        }
+
+        this.permutation = new FeistelPermutation(stopNumber - startNumber + 1,
+                Objects.requireNonNullElse(gen.getKey(), 0L));
+        this.nextIndex = offset % permutation.size();
+    }
+
+    @Override
+    public Long nextValue() {
+        long next = startNumber + permutation.permute(nextIndex);
+        advance();
+        return next;
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(startNumber + permutation.permute(nextIndex));
+            advance();
+        }
+    }
+
+    private void advance() {
+        if (++nextIndex == permutation.size()) {
+            nextIndex = 0;
+        }
+    }
+}
@@ -1,48 +1,31 @@
 package io.cockroachdb.bigbench.stream.generator;
 
-import io.cockroachdb.bigbench.model.Identity;
-import io.cockroachdb.bigbench.model.IdentityType;
+import java.util.Objects;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Deque;
-import java.util.LinkedList;
-
-public class RowIdGenerator implements ValueGenerator<Long> {
-    private final DataSource dataSource;
-
-    private final String function;
 
-    private final int batchSize;
+import io.cockroachdb.bigbench.jdbc.IdPrefetcher;
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
 
-    private final Deque<Long> uniqueRowIdBuffer = new LinkedList<>();
+public class RowIdGenerator implements ValueGenerator<Long> {
+    private final IdPrefetcher prefetcher;
 
     public RowIdGenerator(DataSource dataSource, Identity gen) {
-        this.dataSource = dataSource;
-        this.function = gen.getType().equals(IdentityType.ordered)
-                ? "unique_rowid()" : "unordered_unique_rowid()";
-        this.batchSize = gen.getBatchSize();
+        this.prefetcher = new IdPrefetcher(dataSource,
+                gen.getType().equals(IdentityType.ordered) ? "unique_rowid()" : "unordered_unique_rowid()",
+                Objects.requireNonNullElse(gen.getBatchSize(), IdPrefetcher.DEFAULT_BATCH_SIZE));
     }
 
     @Override
     public Long nextValue() {
-        if (uniqueRowIdBuffer.isEmpty()) {
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(
-                         "select " + function + " from generate_series(1, " + batchSize + ")")) {
-                ps.setFetchSize(batchSize);
-                try (ResultSet res = ps.executeQuery()) {
-                    while (res.next()) {
-                        uniqueRowIdBuffer.add(res.getLong(1));
-                    }
-                }
-            } catch (SQLException e) {
-                throw new IllegalStateException(e);
-            }
+        return prefetcher.nextLong();
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(prefetcher.nextLong());
         }
-        return uniqueRowIdBuffer.pop();
     }
 }
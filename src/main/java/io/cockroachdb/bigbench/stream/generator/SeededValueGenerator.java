@@ -0,0 +1,63 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import io.cockroachdb.bigbench.util.RandomSource;
+
+/**
+ * Decorates a value generator with its own seeded random generator, bound to
+ * the calling thread while values are generated. Each column gets an
+ * independent, reproducible sequence of random values.
+ * <p/>
+ * The random generator is re-seeded from the row number at the start of each
+ * filled block, so a stream resumed at a block boundary reproduces the same
+ * values without replaying the preceding rows.
+ */
+public class SeededValueGenerator<T> implements ValueGenerator<T> {
+    private final ValueGenerator<T> delegate;
+
+    private final long seed;
+
+    private long position;
+
+    private RandomGenerator random;
+
+    public SeededValueGenerator(ValueGenerator<T> delegate, long seed) {
+        this(delegate, seed, 0);
+    }
+
+    /**
+     * @param firstRow the row number of the first generated value
+     */
+    public SeededValueGenerator(ValueGenerator<T> delegate, long seed, long firstRow) {
+        this.delegate = delegate;
+        this.seed = seed;
+        this.position = firstRow;
+        this.random = new SplittableRandom(RandomSource.deriveSeed(seed, firstRow));
+    }
+
+    @Override
+    public T nextValue() {
+        RandomGenerator previous = RandomSource.bind(random);
+        try {
+            position++;
+            return delegate.nextValue();
+        } finally {
+            RandomSource.bind(previous);
+        }
+    }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        random = new SplittableRandom(RandomSource.deriveSeed(seed, position));
+        position += count;
+
+        RandomGenerator previous = RandomSource.bind(random);
+        try {
+            delegate.fill(buffer, count);
+        } finally {
+            RandomSource.bind(previous);
+        }
+    }
+}
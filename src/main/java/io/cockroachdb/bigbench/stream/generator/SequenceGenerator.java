@@ -15,6 +15,14 @@ public class SequenceGenerator implements ValueGenerator<Long> {
     private final int increment;
 
     public SequenceGenerator(Identity gen) {
+        this(gen, 0);
+    }
+
+    /**
+     * @param gen    the identity
+     * @param offset number of values to skip, wrapping around like the sequence itself
+     */
+    public SequenceGenerator(Identity gen, long offset) {
         this.increment = Math.max(1, gen.getStep());
 
         if (Objects.nonNull(gen.getFrom())) {
@@ -29,7 +37,8 @@ public class SequenceGenerator implements ValueGenerator<Long> {
             this.stopNumber = Long.MAX_VALUE;
         }
 
-        this.nextNumber.set(startNumber);
+        long values = (stopNumber - startNumber) / increment + 1;
+        this.nextNumber.set(startNumber + (values > 0 ? offset % values : offset) * increment);
     }
 
     @Override
@@ -40,4 +49,17 @@ public class SequenceGenerator implements ValueGenerator<Long> {
         }
         return next;
     }
+
+    @Override
+    public void fill(ColumnBuffer buffer, int count) {
+        long next = nextNumber.get();
+        for (int i = 0; i < count; i++) {
+            buffer.addLong(next);
+            next += increment;
+            if (next > stopNumber) {
+                next = startNumber;
+            }
+        }
+        nextNumber.set(next);
+    }
 }
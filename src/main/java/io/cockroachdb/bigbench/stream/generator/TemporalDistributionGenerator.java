@@ -0,0 +1,71 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
+import java.util.function.ToLongFunction;
+import java.util.random.RandomGenerator;
+
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.util.RandomSource;
+
+/**
+ * Generates temporal values from the steps of a range with a skewed distribution,
+ * for example clustered towards the end of the range for the latest distribution.
+ */
+public class TemporalDistributionGenerator implements ValueGenerator<Temporal> {
+    /**
+     * @return the number of steps in a range, including both ends
+     */
+    public static long steps(Range range) {
+        Temporal start = parse(range, range.getFrom());
+        Temporal end = range.getTo() != null ? parse(range, range.getTo()) : now(range);
+        long steps = stepUnit(range).between(start, end) / stepAmount(range) + 1;
+        if (steps <= 0) {
+            throw new IllegalArgumentException("Range end is before start: " + range);
+        }
+        return steps;
+    }
+
+    private final Temporal start;
+
+    private final long stepAmount;
+
+    private final TemporalUnit stepUnit;
+
+    private final ToLongFunction<RandomGenerator> sampler;
+
+    /**
+     * @param range   the range, where the start is required and the end defaults to now
+     * @param sampler draws a step index in the range [0, steps)
+     */
+    public TemporalDistributionGenerator(Range range, ToLongFunction<RandomGenerator> sampler) {
+        this.start = parse(range, range.getFrom());
+        this.stepAmount = stepAmount(range);
+        this.stepUnit = stepUnit(range);
+        this.sampler = sampler;
+    }
+
+    @Override
+    public Temporal nextValue() {
+        return start.plus(sampler.applyAsLong(RandomSource.current()) * stepAmount, stepUnit);
+    }
+
+    private static Temporal parse(Range range, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Range start is required for distributions: " + range);
+        }
+        return EpochRangeGenerator.parse(range, value);
+    }
+
+    private static Temporal now(Range range) {
+        return EpochRangeGenerator.now(range);
+    }
+
+    private static long stepAmount(Range range) {
+        return EpochRangeGenerator.stepAmount(range);
+    }
+
+    private static TemporalUnit stepUnit(Range range) {
+        return EpochRangeGenerator.stepUnit(range);
+    }
+}
@@ -0,0 +1,85 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+import io.cockroachdb.bigbench.model.RangeType;
+
+/**
+ * Encodes dates as epoch days, times as seconds of day and date times as epoch
+ * seconds (in UTC). The text form is ISO-8601 with whole seconds. The date
+ * prefix of the current month, or the date and hour prefix of the current hour,
+ * is cached since consecutive values usually share it.
+ * <p/>
+ * Not thread safe, use one instance per generator.
+ */
+public class TemporalEncoding implements LongEncoding {
+    private final RangeType type;
+
+    private long prefixStart = 1;
+
+    private long prefixEnd = 0;
+
+    private String prefix;
+
+    public TemporalEncoding(RangeType type) {
+        this.type = type;
+    }
+
+    public RangeType getType() {
+        return type;
+    }
+
+    @Override
+    public Object decode(long value) {
+        return switch (type) {
+            case date -> LocalDate.ofEpochDay(value);
+            case time -> LocalTime.ofSecondOfDay(value);
+            case datetime -> LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+        };
+    }
+
+    @Override
+    public StringBuilder appendTo(StringBuilder sb, long value) {
+        if (value < prefixStart || value >= prefixEnd) {
+            updatePrefix(value);
+        }
+        sb.append(prefix);
+        int offset = (int) (value - prefixStart);
+        if (type == RangeType.date) {
+            return appendTwoDigits(sb, offset + 1);
+        }
+        appendTwoDigits(sb, offset / 60).append(':');
+        return appendTwoDigits(sb, offset % 60);
+    }
+
+    private void updatePrefix(long value) {
+        switch (type) {
+            case date -> {
+                LocalDate date = LocalDate.ofEpochDay(value);
+                String text = date.toString();
+                prefix = text.substring(0, text.length() - 2);
+                prefixStart = value - date.getDayOfMonth() + 1;
+                prefixEnd = prefixStart + date.lengthOfMonth();
+            }
+            case time -> {
+                prefixStart = value / 3600 * 3600;
+                prefixEnd = prefixStart + 3600;
+                prefix = appendTwoDigits(new StringBuilder(), (int) (value / 3600)).append(':').toString();
+            }
+            case datetime -> {
+                prefixStart = Math.floorDiv(value, 3600) * 3600;
+                prefixEnd = prefixStart + 3600;
+                LocalDateTime hour = LocalDateTime.ofEpochSecond(prefixStart, 0, ZoneOffset.UTC);
+                prefix = appendTwoDigits(new StringBuilder().append(hour.toLocalDate()).append('T'),
+                        hour.getHour()).append(':').toString();
+            }
+        }
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,59 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalUnit;
+
+import io.cockroachdb.bigbench.model.Range;
+
+/**
+ * Generates temporal values by adding a multiple of the step to the range
+ * start, for calendar based or sub-second step units that have no fixed
+ * epoch length.
+ */
+public class TemporalStepGenerator implements ValueGenerator<Temporal> {
+    private final Temporal start;
+
+    private final long stepAmount;
+
+    private final TemporalUnit stepUnit;
+
+    private final long cycle;
+
+    private long position;
+
+    public TemporalStepGenerator(Range range) {
+        this(range, 0);
+    }
+
+    /**
+     * @param range  the range
+     * @param offset number of values to skip, wrapping around like the range itself
+     */
+    public TemporalStepGenerator(Range range, long offset) {
+        this.start = range.getFrom() != null
+                ? EpochRangeGenerator.parse(range, range.getFrom())
+                : EpochRangeGenerator.now(range);
+        this.stepAmount = EpochRangeGenerator.stepAmount(range);
+        this.stepUnit = EpochRangeGenerator.stepUnit(range);
+        if (range.getTo() != null) {
+            long steps = start.until(EpochRangeGenerator.parse(range, range.getTo()), stepUnit);
+            if (steps < 0) {
+                throw new IllegalArgumentException("Range end is before start");
+            }
+            this.cycle = steps / stepAmount + 1;
+        } else {
+            this.cycle = 0;
+        }
+        this.position = cycle > 0 ? offset % cycle : offset;
+    }
+
+    @Override
+    public Temporal nextValue() {
+        long index = ++position;
+        if (cycle > 0 && index >= cycle) {
+            index = 0;
+            position = 0;
+        }
+        return start.plus(index * stepAmount, stepUnit);
+    }
+}
@@ -2,9 +2,25 @@ package io.cockroachdb.bigbench.stream.generator;
 
 import java.util.UUID;
 
+import io.cockroachdb.bigbench.util.RandomData;
+
+/**
+ * Generates random version 4 UUIDs, or time-ordered version 7 UUIDs for
+ * comparing random and ordered UUID keys under ingest.
+ */
 public class UUIDGenerator implements ValueGenerator<UUID> {
+    private final boolean timeOrdered;
+
+    public UUIDGenerator() {
+        this(false);
+    }
+
+    public UUIDGenerator(boolean timeOrdered) {
+        this.timeOrdered = timeOrdered;
+    }
+
     @Override
     public UUID nextValue() {
-        return UUID.randomUUID();
+        return timeOrdered ? RandomData.randomUUIDv7() : RandomData.randomUUID();
     }
 }
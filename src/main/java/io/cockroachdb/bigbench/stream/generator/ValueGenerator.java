@@ -2,4 +2,16 @@ package io.cockroachdb.bigbench.stream.generator;
 
 public interface ValueGenerator<T> {
     T nextValue();
+
+    /**
+     * Append a block of values to a column buffer.
+     *
+     * @param buffer the target buffer
+     * @param count number of values to append
+     */
+    default void fill(ColumnBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.add(nextValue());
+        }
+    }
 }
@@ -1,17 +1,28 @@
 package io.cockroachdb.bigbench.stream.generator;
 
 import java.time.temporal.Temporal;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import java.util.random.RandomGenerator;
 
 import javax.sql.DataSource;
 
 import org.springframework.util.StringUtils;
 
 import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Distribution;
 import io.cockroachdb.bigbench.model.Identity;
 import io.cockroachdb.bigbench.model.Range;
 import io.cockroachdb.bigbench.model.ValueSet;
+import io.cockroachdb.bigbench.expression.Expression;
+import io.cockroachdb.bigbench.expression.ExpressionBackend;
 import io.cockroachdb.bigbench.expression.ExpressionRegistry;
+import io.cockroachdb.bigbench.util.AliasTable;
+import io.cockroachdb.bigbench.util.FeistelPermutation;
+import io.cockroachdb.bigbench.util.HotspotDistribution;
 import io.cockroachdb.bigbench.util.RandomData;
+import io.cockroachdb.bigbench.util.RandomSource;
+import io.cockroachdb.bigbench.util.ZipfianDistribution;
 
 public abstract class ValueGenerators {
     private ValueGenerators() {
@@ -20,13 +31,37 @@ public abstract class ValueGenerators {
     public static ValueGenerator<?> createValueGenerator(Column column,
                                                          DataSource dataSource,
                                                          ExpressionRegistry expressionRegistry) {
+        return createValueGenerator(column, dataSource, expressionRegistry, ExpressionBackend.tree);
+    }
+
+    public static ValueGenerator<?> createValueGenerator(Column column,
+                                                         DataSource dataSource,
+                                                         ExpressionRegistry expressionRegistry,
+                                                         ExpressionBackend expressionBackend) {
+        return createValueGenerator(column, dataSource, expressionRegistry, expressionBackend, 0);
+    }
+
+    /**
+     * Create a value generator for a column.
+     *
+     * @param rowOffset the number of rows preceding the first generated row, used
+     *                  to give partitioned streams disjoint sequence ranges
+     */
+    public static ValueGenerator<?> createValueGenerator(Column column,
+                                                         DataSource dataSource,
+                                                         ExpressionRegistry expressionRegistry,
+                                                         ExpressionBackend expressionBackend,
+                                                         long rowOffset) {
         if (column.getRange() != null) {
-            return ValueGenerators.createRangeGenerator(column.getRange());
+            if (column.getDistribution() != null) {
+                return ValueGenerators.createRangeGenerator(column.getRange(), column.getDistribution());
+            }
+            return ValueGenerators.createRangeGenerator(column.getRange(), rowOffset);
         }
 
         Identity gen = column.getIdentity();
         if (gen != null) {
-            return ValueGenerators.createIdGenerator(gen, dataSource);
+            return ValueGenerators.createIdGenerator(gen, dataSource, rowOffset);
         }
 
         String constant = column.getConstant();
@@ -35,32 +70,147 @@ public abstract class ValueGenerators {
         }
 
         if (StringUtils.hasLength(column.getExpression())) {
-            return ValueGenerators.createExpressionGenerator(column, expressionRegistry);
+            return ValueGenerators.createExpressionGenerator(column, expressionRegistry, expressionBackend);
         }
 
         ValueSet<?> set = column.getValueSet();
         if (set != null) {
+            if (column.getDistribution() != null) {
+                return ValueGenerators.createValueSetGenerator(set, column.getDistribution());
+            }
             return ValueGenerators.createValueSetGenerator(set);
         }
 
+        if (column.getDistribution() != null) {
+            return ValueGenerators.createDistributionGenerator(column.getDistribution());
+        }
+
         throw new IllegalStateException("No column value generator found for " + column);
     }
 
+    /**
+     * Check if the generator of a column yields the same values for the same seed
+     * and row offset on every run, independent of the clock, host or database.
+     *
+     * @param column             the column
+     * @param expressionRegistry the registry to compile column expressions with
+     * @return true if the column values are reproducible for a seed
+     */
+    public static boolean isReproducible(Column column, ExpressionRegistry expressionRegistry) {
+        Range range = column.getRange();
+        if (range != null) {
+            // Ranges start at now() without a start, and distributions end at now() without an end
+            return range.getFrom() != null && (column.getDistribution() == null || range.getTo() != null);
+        }
+
+        Identity gen = column.getIdentity();
+        if (gen != null) {
+            return switch (gen.getType()) {
+                case uuid, sequence, permuted -> true;
+                case uuid_v7, database_sequence, ordered, unordered, local_ordered, local_unordered -> false;
+            };
+        }
+
+        if (StringUtils.hasLength(column.getConstant())) {
+            return true;
+        }
+
+        if (StringUtils.hasLength(column.getExpression())) {
+            return Expression.compile(column.getExpression(), expressionRegistry).isReproducible();
+        }
+
+        // Value sets and distributions draw from the seeded random source
+        return true;
+    }
 
     public static ValueGenerator<? extends Temporal> createRangeGenerator(Range range) {
+        return createRangeGenerator(range, 0);
+    }
+
+    /**
+     * Create a temporal range generator.
+     *
+     * @param rowOffset number of values to skip
+     */
+    public static ValueGenerator<? extends Temporal> createRangeGenerator(Range range, long rowOffset) {
+        if (!EpochRangeGenerator.isEpochStep(range)) {
+            return new TemporalStepGenerator(range, rowOffset);
+        }
         return switch (range.getType()) {
-            case date -> new LocalDateRangeGenerator(range);
-            case time -> new LocalTimeRangeGenerator(range);
-            case datetime -> new LocalDateTimeGenerator(range);
+            case date -> new LocalDateRangeGenerator(range, rowOffset);
+            case time -> new LocalTimeRangeGenerator(range, rowOffset);
+            case datetime -> new LocalDateTimeGenerator(range, rowOffset);
+        };
+    }
+
+    public static ValueGenerator<? extends Temporal> createRangeGenerator(Range range, Distribution distribution) {
+        long steps = TemporalDistributionGenerator.steps(range);
+        return new TemporalDistributionGenerator(range, createSampler(distribution, 0, steps));
+    }
+
+    public static ValueGenerator<Long> createDistributionGenerator(Distribution distribution) {
+        long from = Objects.requireNonNullElse(distribution.getFrom(), 1L);
+        long to = Objects.requireNonNullElse(distribution.getTo(), (long) Integer.MAX_VALUE);
+        if (to < from) {
+            throw new IllegalArgumentException("Distribution range is empty: " + distribution);
+        }
+        return new DistributionGenerator(from, createSampler(distribution, from, to - from + 1));
+    }
+
+    /**
+     * Create a sampler drawing offsets in the range [0, items) from a distribution.
+     * Constants are computed up front so that each sample is constant time.
+     *
+     * @param distribution the distribution
+     * @param from         the value at offset zero, for the gaussian mean
+     * @param items        the size of the range
+     * @return the sampler
+     */
+    public static ToLongFunction<RandomGenerator> createSampler(Distribution distribution, long from, long items) {
+        final double theta = Objects.requireNonNullElse(distribution.getTheta(), ZipfianDistribution.DEFAULT_THETA);
+
+        return switch (distribution.getType()) {
+            case uniform -> random -> random.nextLong(items);
+            case zipfian -> {
+                ZipfianDistribution zipfian = ZipfianDistribution.of(items, theta);
+                if (Boolean.TRUE.equals(distribution.getScrambled())) {
+                    FeistelPermutation permutation = new FeistelPermutation(items, 0);
+                    yield random -> permutation.permute(zipfian.sample(random));
+                }
+                yield zipfian::sample;
+            }
+            case latest -> {
+                ZipfianDistribution zipfian = ZipfianDistribution.of(items, theta);
+                yield random -> items - 1 - zipfian.sample(random);
+            }
+            case hotspot -> {
+                HotspotDistribution hotspot = new HotspotDistribution(items,
+                        Objects.requireNonNullElse(distribution.getHotSetFraction(), 0.2),
+                        Objects.requireNonNullElse(distribution.getHotAccessFraction(), 0.8));
+                yield hotspot::sample;
+            }
+            case gaussian -> {
+                double mean = distribution.getMean() != null ? distribution.getMean() - from : (items - 1) / 2.0;
+                double stddev = Objects.requireNonNullElse(distribution.getStddev(), items / 6.0);
+                yield random -> Math.min(items - 1,
+                        Math.max(0, Math.round(mean + stddev * random.nextGaussian())));
+            }
         };
     }
 
     public static ValueGenerator<?> createIdGenerator(Identity gen, DataSource dataSource) {
+        return createIdGenerator(gen, dataSource, 0);
+    }
+
+    public static ValueGenerator<?> createIdGenerator(Identity gen, DataSource dataSource, long rowOffset) {
         return switch (gen.getType()) {
             case uuid -> new UUIDGenerator();
-            case sequence -> new SequenceGenerator(gen);
+            case uuid_v7 -> new UUIDGenerator(true);
+            case sequence -> new SequenceGenerator(gen, rowOffset);
+            case permuted -> new PermutationGenerator(gen, rowOffset);
             case database_sequence -> new DatabaseSequenceGenerator(dataSource, gen);
             case ordered, unordered -> new RowIdGenerator(dataSource, gen);
+            case local_ordered, local_unordered -> new LocalRowIdGenerator(gen);
         };
     }
 
@@ -69,15 +219,46 @@ public abstract class ValueGenerators {
     }
 
     public static ValueGenerator<?> createExpressionGenerator(Column column, ExpressionRegistry registry) {
-        return new ExpressionGenerator(column, registry);
+        return createExpressionGenerator(column, registry, ExpressionBackend.tree);
+    }
+
+    public static ValueGenerator<?> createExpressionGenerator(Column column, ExpressionRegistry registry,
+                                                              ExpressionBackend backend) {
+        String expression = column.getExpression();
+        if (!StringUtils.hasLength(expression)) {
+            throw new IllegalStateException("Undefined column value generator for: " + column.getName());
+        }
+        return new ExpressionGenerator(Expression.compile(expression, registry, backend));
     }
 
     public static ValueGenerator<?> createValueSetGenerator(ValueSet<?> valueSet) {
-        return () -> {
-            if (valueSet.getWeights().isEmpty()) {
-                return RandomData.selectRandom(valueSet.getValues());
-            }
-            return RandomData.selectRandomWeighted(valueSet.getValues(), valueSet.getWeights());
-        };
+        final Object[] values = valueSet.getValues().toArray();
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Empty collection");
+        }
+
+        if (valueSet.getWeights().isEmpty()) {
+            return () -> RandomData.selectRandom(values);
+        }
+
+        if (values.length != valueSet.getWeights().size()) {
+            throw new IllegalArgumentException("Collection and weights mismatch");
+        }
+
+        // Precompute once, so each weighted draw is constant time
+        final AliasTable aliasTable = new AliasTable(valueSet.getWeights());
+
+        return () -> values[aliasTable.sample(RandomSource.current())];
+    }
+
+    public static ValueGenerator<?> createValueSetGenerator(ValueSet<?> valueSet, Distribution distribution) {
+        final Object[] values = valueSet.getValues().toArray();
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Empty collection");
+        }
+
+        final ToLongFunction<RandomGenerator> sampler = createSampler(distribution, 0, values.length);
+
+        return () -> values[(int) sampler.applyAsLong(RandomSource.current())];
     }
 }
@@ -0,0 +1,96 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker's alias method for sampling from a discrete weighted distribution in
+ * constant time, using Vose's construction. The table is built once in O(n)
+ * and each draw costs two random numbers and two array reads.
+ */
+public class AliasTable {
+    private final double[] probability;
+
+    private final int[] alias;
+
+    public AliasTable(List<Double> weights) {
+        this(weights.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    public AliasTable(double[] weights) {
+        final int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Empty weights");
+        }
+
+        double total = 0;
+        for (double w : weights) {
+            if (w < 0 || !Double.isFinite(w)) {
+                throw new IllegalArgumentException("Invalid weight: " + w);
+            }
+            total += w;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Sum of weights must be positive");
+        }
+
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale to an average of 1 and partition into under- and overfull columns
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+
+        // Remaining columns are full, up to rounding errors
+        while (largeSize > 0) {
+            int i = large[--largeSize];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallSize > 0) {
+            int i = small[--smallSize];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * @param random the random generator to draw from
+     * @return an index in the range [0, size) drawn according to the weights
+     */
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,115 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A keyed pseudorandom permutation of the range [0, size), using a balanced
+ * Feistel network over the smallest even number of bits covering the range,
+ * and cycle walking for values that fall outside of it.
+ * <p/>
+ * Mapping row indexes through the permutation gives unique and uniformly
+ * scattered values without any shared state, so disjoint index ranges (such
+ * as stream partitions) always produce disjoint values. Not a cipher for
+ * security purposes.
+ */
+public class FeistelPermutation {
+    private static final int ROUNDS = 6;
+
+    /**
+     * Maximum number of permutations kept by {@link #of(long, long)}.
+     */
+    private static final int CACHE_CAPACITY = 256;
+
+    private record Key(long size, long key) {
+    }
+
+    private static final Map<Key, FeistelPermutation> INSTANCES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, FeistelPermutation> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private static volatile FeistelPermutation lastUsed;
+
+    /**
+     * Lookup or create a permutation, sharing the round keys through a bounded
+     * LRU cache. Meant for per-row calls, where the size and key rarely change
+     * and the last used permutation is returned without locking.
+     */
+    public static FeistelPermutation of(long size, long key) {
+        FeistelPermutation permutation = lastUsed;
+        if (permutation != null && permutation.size == size && permutation.key == key) {
+            return permutation;
+        }
+        Key cacheKey = new Key(size, key);
+        synchronized (INSTANCES) {
+            permutation = INSTANCES.get(cacheKey);
+            if (permutation == null) {
+                permutation = new FeistelPermutation(size, key);
+                INSTANCES.put(cacheKey, permutation);
+            }
+        }
+        lastUsed = permutation;
+        return permutation;
+    }
+
+    private final long size;
+
+    private final long key;
+
+    private final int halfBits;
+
+    private final long halfMask;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param size the size of the permuted range
+     * @param key  the permutation key, the same key always gives the same permutation
+     */
+    public FeistelPermutation(long size, long key) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1));
+        this.size = size;
+        this.key = key;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = RandomSource.deriveSeed(key, i);
+        }
+    }
+
+    /**
+     * @param index a value in the range [0, size)
+     * @return the permuted value in the range [0, size)
+     */
+    public long permute(long index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("index out of range [0, " + size + "): " + index);
+        }
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (Long.compareUnsigned(value, size) >= 0);
+        return value;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private long encrypt(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (RandomSource.deriveSeed(roundKey, right) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
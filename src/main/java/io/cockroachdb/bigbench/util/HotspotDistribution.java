@@ -0,0 +1,35 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Values in the range [0, items) where a fraction of the range (the hot set,
+ * at the start of the range) receives a given fraction of all samples, and
+ * values are uniform within the hot and cold sets.
+ */
+public class HotspotDistribution {
+    private final long hotItems;
+
+    private final long coldItems;
+
+    private final double hotAccessFraction;
+
+    public HotspotDistribution(long items, double hotSetFraction, double hotAccessFraction) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("items must be positive: " + items);
+        }
+        if (hotSetFraction < 0 || hotSetFraction > 1 || hotAccessFraction < 0 || hotAccessFraction > 1) {
+            throw new IllegalArgumentException("fractions must be in range [0, 1]");
+        }
+        this.hotItems = Math.max(1, (long) (items * hotSetFraction));
+        this.coldItems = items - hotItems;
+        this.hotAccessFraction = coldItems > 0 ? hotAccessFraction : 1;
+    }
+
+    public long sample(RandomGenerator random) {
+        if (random.nextDouble() < hotAccessFraction) {
+            return random.nextLong(hotItems);
+        }
+        return hotItems + random.nextLong(coldItems);
+    }
+}
@@ -0,0 +1,85 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded ring buffer of primitive longs for a single producer and a single
+ * consumer thread. The producer may append while the consumer drains.
+ */
+public class LongRingBuffer {
+    private final long[] buffer;
+
+    private final int mask;
+
+    /**
+     * Next position to read, only advanced by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Next position to write, only advanced by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new long[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    /**
+     * Append values, called by the producer only.
+     *
+     * @param values the source array
+     * @param offset the source offset
+     * @param length number of values to append
+     * @return number of values appended, less than length if the buffer is full
+     */
+    public int offer(long[] values, int offset, int length) {
+        long t = tail.get();
+        int n = Math.min(length, buffer.length - (int) (t - head.get()));
+        for (int i = 0; i < n; i++) {
+            buffer[(int) (t + i) & mask] = values[offset + i];
+        }
+        tail.set(t + n);
+        return n;
+    }
+
+    /**
+     * Remove the next value, called by the consumer only.
+     *
+     * @return the next value
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public long poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            throw new NoSuchElementException("Buffer is empty");
+        }
+        long value = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return value;
+    }
+}
@@ -30,7 +30,8 @@ import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
 import java.util.StringJoiner;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -95,38 +96,97 @@ public class RandomData {
     }
 
     public static boolean randomBoolean() {
-        return ThreadLocalRandom.current().nextBoolean();
+        return RandomSource.current().nextBoolean();
     }
 
     public static int randomInt(int start, int end) {
-        return ThreadLocalRandom.current().nextInt(start, end);
+        return RandomSource.current().nextInt(start, end);
     }
 
     public static long randomLong(long start, long end) {
-        return ThreadLocalRandom.current().nextLong(start, end);
+        return RandomSource.current().nextLong(start, end);
     }
 
     public static double randomDouble(double start, double end) {
-        return ThreadLocalRandom.current().nextDouble(start, end);
+        return RandomSource.current().nextDouble(start, end);
     }
 
     public static LocalDate randomDate() {
-        return LocalDate.now().plusDays(ThreadLocalRandom.current().nextBoolean()
+        return LocalDate.now().plusDays(RandomSource.current().nextBoolean()
                 ? randomInt(0, 90) : -randomInt(0, 90));
     }
 
     public static LocalTime randomTime() {
-        return LocalTime.now().plusHours(ThreadLocalRandom.current().nextBoolean()
+        return LocalTime.now().plusHours(RandomSource.current().nextBoolean()
                 ? randomInt(0, 24) : -randomInt(0, 24));
     }
 
     public static LocalDateTime randomDateTime() {
-        ThreadLocalRandom r = ThreadLocalRandom.current();
+        RandomGenerator r = RandomSource.current();
         return LocalDateTime.now()
                 .plusDays(r.nextBoolean() ? randomInt(0, 90) : -randomInt(0, 90))
                 .plusHours(r.nextBoolean() ? randomInt(0, 24) : -randomInt(0, 24));
     }
 
+    /**
+     * @return a random version 4 UUID, drawn from the thread local or bound seeded
+     * generator rather than the shared SecureRandom used by {@link UUID#randomUUID()}
+     */
+    public static UUID randomUUID() {
+        RandomGenerator random = RandomSource.current();
+        long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * @return a time-ordered version 7 UUID for the current time
+     */
+    public static UUID randomUUIDv7() {
+        return randomUUIDv7(System.currentTimeMillis());
+    }
+
+    /**
+     * Create a version 7 UUID with a 48-bit Unix epoch millisecond prefix and
+     * random bits after it, so values are ordered by millisecond but randomized
+     * within the same millisecond.
+     *
+     * @param epochMillis the timestamp in milliseconds since the Unix epoch
+     * @return a version 7 UUID
+     */
+    public static UUID randomUUIDv7(long epochMillis) {
+        RandomGenerator random = RandomSource.current();
+        long msb = (epochMillis << 16) | 0x7000L | (random.nextInt() & 0x0fffL);
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * @return a zipfian distributed long in the range [from, to], where from is the most frequent
+     */
+    public static long randomZipfian(long from, long to, double theta) {
+        return from + ZipfianDistribution.of(to - from + 1, theta).sample(RandomSource.current());
+    }
+
+    /**
+     * @return a zipfian distributed long in the range [from, to], where to is the most frequent
+     */
+    public static long randomLatest(long from, long to, double theta) {
+        return to - ZipfianDistribution.of(to - from + 1, theta).sample(RandomSource.current());
+    }
+
+    /**
+     * @return a long in the range [from, to] where a fraction of the range receives a fraction of the values
+     */
+    public static long randomHotspot(long from, long to, double hotSetFraction, double hotAccessFraction) {
+        return from + new HotspotDistribution(to - from + 1, hotSetFraction, hotAccessFraction)
+                .sample(RandomSource.current());
+    }
+
+    public static double randomGaussian(double mean, double stddev) {
+        return RandomSource.current().nextGaussian(mean, stddev);
+    }
+
     public static BigDecimal randomBigDecimal() {
         return randomBigDecimal(0, 2 ^ 16);
     }
@@ -136,16 +196,16 @@ public class RandomData {
     }
 
     public static BigDecimal randomBigDecimal(double origin, double bound, int scale) {
-        return BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble(origin, bound))
+        return BigDecimal.valueOf(RandomSource.current().nextDouble(origin, bound))
                 .setScale(scale, RoundingMode.HALF_UP);
     }
 
     public static <E> E selectRandom(List<E> collection) {
-        return collection.get(ThreadLocalRandom.current().nextInt(collection.size()));
+        return collection.get(RandomSource.current().nextInt(collection.size()));
     }
 
     public static <E> E selectRandom(E[] collection) {
-        return collection[ThreadLocalRandom.current().nextInt(collection.length)];
+        return collection[RandomSource.current().nextInt(collection.length)];
     }
 
     public static <T> T selectRandomWeighted(Collection<T> items, List<Double> weights) {
@@ -157,7 +217,7 @@ public class RandomData {
         }
 
         double totalWeight = weights.stream().mapToDouble(w -> w).sum();
-        double randomWeight = ThreadLocalRandom.current().nextDouble() * totalWeight;
+        double randomWeight = RandomSource.current().nextDouble() * totalWeight;
         double cumulativeWeight = 0;
 
         int idx = 0;
@@ -184,7 +244,7 @@ public class RandomData {
     }
 
     public static String randomPhoneNumber() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         StringBuilder sb = new StringBuilder()
                 .append("(")
                 .append(random.nextInt(9) + 1);
@@ -221,7 +281,7 @@ public class RandomData {
 
     public static String randomZipCode() {
         StringBuilder sb = new StringBuilder();
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         for (int i = 0; i < 5; i++) {
             sb.append(random.nextInt(10));
         }
@@ -236,6 +296,24 @@ public class RandomData {
         return sb.replace(' ', '.');
     }
 
+    /**
+     * Create a user name that is unique for a given number. The name part is
+     * picked from a hash of the number, and the number is appended as a suffix.
+     *
+     * @param id a unique number, for example a permuted row index
+     * @return a user name like 'first.last42'
+     */
+    public static String uniqueUserName(long id) {
+        long hash = RandomSource.deriveSeed(id, 0);
+        String first = firstNames.get((int) Long.remainderUnsigned(hash, firstNames.size()));
+        String last = lastNames.get((int) Long.remainderUnsigned(hash >>> 32, lastNames.size()));
+        return (first + "." + last).toLowerCase().replace(' ', '.') + id;
+    }
+
+    public static String uniqueEmail(long id) {
+        return uniqueUserName(id) + "@example.com";
+    }
+
     public static String randomLoreIpsum(int min, int max, boolean paragraphs) {
         return new LoreIpsum(min, max, paragraphs).generate();
     }
@@ -281,7 +359,7 @@ public class RandomData {
 
     public static byte[] randomBytes(int min) {
         byte[] arr = new byte[min];
-        ThreadLocalRandom.current().nextBytes(arr);
+        RandomSource.current().nextBytes(arr);
         return arr;
     }
 
@@ -298,7 +376,7 @@ public class RandomData {
     public static String randomString(int min, int max) {
         int leftLimit = 48; // numeral '0'
         int rightLimit = 122; // letter 'z'
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         return random.ints(leftLimit, rightLimit + 1)
                 .filter(i -> (i <= 57 || i >= 65) && (i <= 90 || i >= 97))
                 .limit(random.nextInt(min, max))
@@ -309,7 +387,7 @@ public class RandomData {
     public static String randomString(int min) {
         int leftLimit = 48; // numeral '0'
         int rightLimit = 122; // letter 'z'
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         return random.ints(leftLimit, rightLimit + 1)
                 .filter(i -> (i <= 57 || i >= 65) && (i <= 90 || i >= 97))
                 .limit(min)
@@ -320,7 +398,7 @@ public class RandomData {
     public static String randomWord(int min) {
         StringBuilder sb = new StringBuilder();
         boolean vowelStart = true;
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         for (int i = 0; i < min; i++) {
             if (vowelStart) {
                 sb.append(VOWELS[random.nextInt(VOWELS.length)]);
@@ -351,7 +429,7 @@ public class RandomData {
     );
 
     public static String randomRoachFact() {
-        return FACTS.get(ThreadLocalRandom.current().nextInt(FACTS.size()));
+        return FACTS.get(RandomSource.current().nextInt(FACTS.size()));
     }
 
     private static class LoreIpsum {
@@ -375,7 +453,7 @@ public class RandomData {
 
         public String getParagraphs(int min, int max) {
             StringBuilder sb = new StringBuilder();
-            ThreadLocalRandom random = ThreadLocalRandom.current();
+            RandomGenerator random = RandomSource.current();
 
             for (int j = 0; j < getCount(min, max); j++) {
                 for (int i = 0; i < random.nextInt(5) + 2; i++) {
@@ -393,14 +471,14 @@ public class RandomData {
             if (max < min) {
                 max = min;
             }
-            return max != min ? ThreadLocalRandom.current().nextInt(max - min) + min : min;
+            return max != min ? RandomSource.current().nextInt(max - min) + min : min;
         }
 
         private String getWords(int count, boolean capitalize) {
             StringBuilder sb = new StringBuilder();
 
             int wordCount = 0;
-            ThreadLocalRandom random = ThreadLocalRandom.current();
+            RandomGenerator random = RandomSource.current();
             while (wordCount < count) {
                 String word = lorem.get(random.nextInt(lorem.size()));
                 if (capitalize) {
@@ -417,7 +495,7 @@ public class RandomData {
     }
 
     public static String randomIPv4() {
-        ThreadLocalRandom r = ThreadLocalRandom.current();
+        RandomGenerator r = RandomSource.current();
         StringJoiner joiner = new StringJoiner(".");
         joiner.add(r.nextInt(0, 255) + "");
         joiner.add(r.nextInt(0, 255) + "");
@@ -429,7 +507,7 @@ public class RandomData {
     private static final char[] hexChars = "0123456789abcdef".toCharArray();
 
     public static String randomIPv6() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RandomGenerator random = RandomSource.current();
         StringJoiner joiner = new StringJoiner(":");
         IntStream.range(0, 8).mapToObj(i -> new StringBuilder()).forEach(b -> {
             IntStream.rangeClosed(1, 4).forEach(value ->
@@ -0,0 +1,62 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The random generator used by {@link RandomData} and the value generators on the
+ * current thread. Defaults to {@link ThreadLocalRandom}, unless a seeded generator
+ * is bound for reproducible output.
+ */
+public abstract class RandomSource {
+    private static final ThreadLocal<RandomGenerator> boundGenerator = new ThreadLocal<>();
+
+    private RandomSource() {
+    }
+
+    /**
+     * @return the generator bound to the current thread, or the thread local random
+     */
+    public static RandomGenerator current() {
+        RandomGenerator generator = boundGenerator.get();
+        return generator != null ? generator : ThreadLocalRandom.current();
+    }
+
+    /**
+     * @return true if a seeded generator is bound to the current thread
+     */
+    public static boolean isBound() {
+        return boundGenerator.get() != null;
+    }
+
+    /**
+     * Bind a generator to the current thread.
+     *
+     * @param generator the generator or null to unbind
+     * @return the previously bound generator or null, to be restored with {@link #bind}
+     */
+    public static RandomGenerator bind(RandomGenerator generator) {
+        RandomGenerator previous = boundGenerator.get();
+        if (generator != null) {
+            boundGenerator.set(generator);
+        } else {
+            boundGenerator.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Derive an independent seed from a parent seed and a key, such as a
+     * partition or column index, using the SplitMix64 finalizer.
+     *
+     * @param seed the parent seed
+     * @param key  the key
+     * @return the derived seed
+     */
+    public static long deriveSeed(long seed, long key) {
+        long z = seed + 0x9e3779b97f4a7c15L * (key + 1);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,122 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipfian distributed values in the range [0, items), where 0 is the most
+ * frequent value. Uses the algorithm from "Quickly Generating Billion-Record
+ * Synthetic Databases" (Gray et al.) as in YCSB, with the zeta constant
+ * computed once so that each sample is constant time.
+ */
+public class ZipfianDistribution {
+    public static final double DEFAULT_THETA = 0.99;
+
+    /**
+     * Number of terms summed exactly when computing zeta, the rest is approximated.
+     */
+    private static final long EXACT_ZETA_TERMS = 1_000_000;
+
+    /**
+     * Maximum number of distributions kept by {@link #of(long, double)}.
+     */
+    private static final int CACHE_CAPACITY = 256;
+
+    private record Key(long items, double theta) {
+    }
+
+    private static final Map<Key, ZipfianDistribution> INSTANCES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ZipfianDistribution> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Lookup or create a distribution, sharing the precomputed constants through
+     * a bounded LRU cache. Creating a distribution takes time linear in the number
+     * of items (up to a million terms), so callers should keep the range constant
+     * rather than vary it per value.
+     */
+    public static ZipfianDistribution of(long items, double theta) {
+        Key key = new Key(items, theta);
+        ZipfianDistribution distribution;
+        synchronized (INSTANCES) {
+            distribution = INSTANCES.get(key);
+        }
+        if (distribution == null) {
+            // Compute outside the lock, a concurrent miss on the same key just wastes the work
+            distribution = new ZipfianDistribution(items, theta);
+            synchronized (INSTANCES) {
+                INSTANCES.put(key, distribution);
+            }
+        }
+        return distribution;
+    }
+
+    private final long items;
+
+    private final double theta;
+
+    private final double zetan;
+
+    private final double alpha;
+
+    private final double eta;
+
+    private final double halfPowTheta;
+
+    public ZipfianDistribution(long items, double theta) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("items must be positive: " + items);
+        }
+        if (!(theta > 0 && theta < 1)) {
+            throw new IllegalArgumentException("theta must be in range (0, 1): " + theta);
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+        this.halfPowTheta = 1 + Math.pow(0.5, theta);
+    }
+
+    static double zeta(long n, double theta) {
+        long exact = Math.min(n, EXACT_ZETA_TERMS);
+        double sum = 0;
+        for (long i = 1; i <= exact; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        if (n > exact) {
+            // Euler-Maclaurin approximation of the remaining terms
+            sum += (Math.pow(n, 1 - theta) - Math.pow(exact, 1 - theta)) / (1 - theta)
+                    + (Math.pow(n, -theta) - Math.pow(exact, -theta)) / 2;
+        }
+        return sum;
+    }
+
+    public long sample(RandomGenerator random) {
+        if (items == 1) {
+            return 0;
+        }
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < halfPowTheta) {
+            return 1;
+        }
+        long value = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(value, items - 1);
+    }
+
+    public long items() {
+        return items;
+    }
+
+    public double theta() {
+        return theta;
+    }
+}
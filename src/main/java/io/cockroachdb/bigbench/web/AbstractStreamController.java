@@ -1,7 +1,9 @@
 package io.cockroachdb.bigbench.web;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -9,17 +11,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.cockroachdb.bigbench.ApplicationModel;
 import io.cockroachdb.bigbench.config.ProfileNames;
+import io.cockroachdb.bigbench.expression.ExpressionRegistry;
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Compression;
+import io.cockroachdb.bigbench.model.ImportOption;
 import io.cockroachdb.bigbench.model.QualifiedName;
 import io.cockroachdb.bigbench.model.Table;
 import io.cockroachdb.bigbench.jdbc.SchemaExporter;
+import io.cockroachdb.bigbench.stream.AbstractStreamGeneratorSupport;
+import io.cockroachdb.bigbench.stream.StreamCheckpoints;
 
 @RestController
 @Profile(ProfileNames.HTTP)
 public abstract class AbstractStreamController {
+    /**
+     * Response header with the comma separated names of the streamed columns in
+     * stream order, for clients that need a matching column list such as COPY.
+     */
+    public static final String COLUMNS_HEADER = "X-Stream-Columns";
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final Map<QualifiedName, Table> tableFormCache = new ConcurrentHashMap<>();
@@ -30,6 +46,9 @@ public abstract class AbstractStreamController {
     @Autowired
     protected DataSource dataSource;
 
+    @Autowired
+    protected ExpressionRegistry expressionRegistry;
+
     protected Table lookupTable(QualifiedName qn) {
         Table table;
         if (!tableFormCache.containsKey(qn)) {
@@ -45,5 +64,55 @@ public abstract class AbstractStreamController {
 
     protected void putTable(QualifiedName qn, Table table) {
         tableFormCache.put(qn, table);
+        // Recorded byte offsets no longer match the streams of a changed table
+        StreamCheckpoints.clear(checkpointKey(qn));
+    }
+
+    /**
+     * @param qn the table name
+     * @param params parameters affecting the stream output
+     * @return the checkpoint key of a table stream, led by the table name
+     */
+    protected static String checkpointKey(QualifiedName qn, String... params) {
+        return qn + "|" + String.join("|", params);
+    }
+
+    /**
+     * @param table the table form
+     * @return the names of the columns included in streams, in stream order
+     */
+    protected static String streamedColumnNames(Table table) {
+        return table.filterColumns(AbstractStreamGeneratorSupport.VISIBLE_COLUMN_PREDICATE).stream()
+                .map(Column::getName)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Resolve the stream compression. An explicit codec compresses the body as a
+     * file, for the import decompress option. Otherwise, gzip is used as content
+     * encoding if accepted by the client.
+     *
+     * @param compression    the codec name or empty
+     * @param acceptEncoding the accept encoding header
+     * @param headers        response headers to add the content encoding to
+     * @return the compression
+     */
+    protected Compression resolveCompression(String compression, String acceptEncoding, HttpHeaders headers) {
+        if (StringUtils.hasLength(compression)) {
+            return Compression.valueOf(compression);
+        }
+        if (acceptEncoding.contains("gzip")) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return Compression.gzip;
+        }
+        return Compression.none;
+    }
+
+    protected Map<ImportOption, String> importOptions(Map<ImportOption, String> defaults, String compression) {
+        Map<ImportOption, String> options = new LinkedHashMap<>(defaults);
+        if (StringUtils.hasLength(compression)) {
+            options.put(ImportOption.decompress, Compression.valueOf(compression).getDecompressOption());
+        }
+        return options;
     }
 }
@@ -2,6 +2,7 @@ package io.cockroachdb.bigbench.web;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -13,6 +14,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,11 +29,14 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import jakarta.validation.Valid;
 
 import io.cockroachdb.bigbench.config.ProfileNames;
+import io.cockroachdb.bigbench.expression.ExpressionBackend;
 import io.cockroachdb.bigbench.stream.generator.ImportInto;
+import io.cockroachdb.bigbench.model.Compression;
 import io.cockroachdb.bigbench.model.Format;
 import io.cockroachdb.bigbench.model.QualifiedName;
 import io.cockroachdb.bigbench.model.Table;
 import io.cockroachdb.bigbench.stream.AvroStreamGenerator;
+import io.cockroachdb.bigbench.stream.Partition;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.afford;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -49,6 +54,14 @@ public class AvroStreamController extends AbstractStreamController {
             @PathVariable(name = "schema") String schema,
             @PathVariable(name = "name") String name,
             @RequestParam(required = false, name = "rows", defaultValue = "100") String rows,
+            @RequestParam(required = false, name = "backend", defaultValue = "tree") ExpressionBackend backend,
+            @RequestParam(required = false, name = "partition", defaultValue = "0") String partition,
+            @RequestParam(required = false, name = "partitions", defaultValue = "1") String partitions,
+            @RequestParam(required = false, name = "seed", defaultValue = "") String seed,
+            @RequestParam(required = false, name = "codec", defaultValue = "null") String codec,
+            @RequestParam(required = false, name = "syncInterval", defaultValue = "64000") String syncInterval,
+            @RequestParam(required = false, name = "blockSize", defaultValue = "65536") String blockSize,
+            @RequestParam(required = false, name = "compression", defaultValue = "") String compression,
             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false, defaultValue = "")
             String acceptEncoding) {
         logger.debug("""
@@ -56,27 +69,46 @@ public class AvroStreamController extends AbstractStreamController {
                     schema = %s
                     name = %s
                     rows = %s
+                    backend = %s
+                    partition = %s
+                    partitions = %s
+                    seed = %s
+                    codec = %s
+                    syncInterval = %s
+                    blockSize = %s
+                    compression = %s
                     acceptEncoding = %s"""
-                .formatted(schema, name, rows, acceptEncoding));
+                .formatted(schema, name, rows, backend, partition, partitions, seed, codec, syncInterval,
+                        blockSize, compression, acceptEncoding));
 
         Table table = lookupTable(QualifiedName.of(schema, name));
         table.setRows(rows);
 
-        final boolean gzip = acceptEncoding.contains("gzip");
+        final Partition streamPartition = Partition.of(Integer.parseInt(partition), Integer.parseInt(partitions));
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(APPLICATION_AVRO_SCHEMA);
         headers.setContentDisposition(ContentDisposition.inline().build());
         headers.setCacheControl(CacheControl.noCache().noTransform().mustRevalidate());
 
-        if (gzip) {
-            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
-        }
+        final Compression streamCompression = resolveCompression(compression, acceptEncoding, headers);
+
+        // Reject invalid codec and sizes before the response is committed
+        final AvroStreamGenerator generator = new AvroStreamGenerator(dataSource, table)
+                .setCodec(codec)
+                .setSyncInterval(Integer.parseInt(syncInterval))
+                .setBlockSize(Integer.parseInt(blockSize));
 
         return ResponseEntity.ok()
                 .headers(headers)
                 .body(outputStream ->
-                        new AvroStreamGenerator(dataSource, table, gzip).streamTo(outputStream));
+                        generator
+                                .setExpressionBackend(backend)
+                                .setExpressionRegistry(expressionRegistry)
+                                .setPartition(streamPartition)
+                                .setSeed(StringUtils.hasLength(seed) ? Long.parseLong(seed) : null)
+                                .setCompression(streamCompression)
+                                .streamTo(outputStream));
     }
 
     @GetMapping(value = "/{name}.avro/form")
@@ -114,24 +146,36 @@ public class AvroStreamController extends AbstractStreamController {
             @PathVariable(name = "schema") String schema,
             @PathVariable(name = "name") String name,
             @RequestParam(required = false, name = "rows", defaultValue = "100") String rows,
+            @RequestParam(required = false, name = "backend", defaultValue = "tree") ExpressionBackend backend,
+            @RequestParam(required = false, name = "seed", defaultValue = "") String seed,
+            @RequestParam(required = false, name = "codec", defaultValue = "null") String codec,
+            @RequestParam(required = false, name = "syncInterval", defaultValue = "64000") String syncInterval,
+            @RequestParam(required = false, name = "blockSize", defaultValue = "65536") String blockSize,
+            @RequestParam(required = false, name = "compression", defaultValue = "") String compression,
             @RequestParam(required = false, name = "nodes", defaultValue = "6") Integer nodes) {
         Table table = lookupTable(QualifiedName.of(schema, name));
 
-        final String uri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .pathSegment(schema, name + ".avro")
-                .queryParam("rows", rows)
-                .buildAndExpand()
-                .toUriString();
-
-        List<String> paths = IntStream.rangeClosed(1, nodes)
-                .mapToObj(value -> uri)
+        List<String> paths = IntStream.range(0, nodes)
+                .mapToObj(partition -> ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .pathSegment(schema, name + ".avro")
+                        .queryParam("rows", rows)
+                        .queryParam("backend", backend)
+                        .queryParam("partition", partition)
+                        .queryParam("partitions", nodes)
+                        .queryParamIfPresent("seed", Optional.of(seed).filter(StringUtils::hasLength))
+                        .queryParam("codec", codec)
+                        .queryParam("syncInterval", syncInterval)
+                        .queryParam("blockSize", blockSize)
+                        .queryParamIfPresent("compression", Optional.of(compression).filter(StringUtils::hasLength))
+                        .buildAndExpand()
+                        .toUriString())
                 .collect(Collectors.toCollection(LinkedList::new));
 
         return ResponseEntity.ok(ImportInto.builder()
                 .withFormat(Format.AVRO)
                 .withTable(table)
                 .withPaths(paths)
-                .withOptions(applicationModel.getAvroOptions())
+                .withOptions(importOptions(applicationModel.getAvroOptions(), compression))
                 .build()
                 .getImportStatement());
     }
@@ -1,9 +1,13 @@
 package io.cockroachdb.bigbench.web;
 
+import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -12,9 +16,12 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,11 +36,15 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import jakarta.validation.Valid;
 
 import io.cockroachdb.bigbench.config.ProfileNames;
+import io.cockroachdb.bigbench.expression.ExpressionBackend;
 import io.cockroachdb.bigbench.stream.generator.ImportInto;
+import io.cockroachdb.bigbench.model.Compression;
 import io.cockroachdb.bigbench.model.Format;
 import io.cockroachdb.bigbench.model.QualifiedName;
 import io.cockroachdb.bigbench.model.Table;
 import io.cockroachdb.bigbench.stream.CsvStreamGenerator;
+import io.cockroachdb.bigbench.stream.Partition;
+import io.cockroachdb.bigbench.stream.StreamCheckpoints;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.afford;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -54,8 +65,15 @@ public class CsvStreamController extends AbstractStreamController {
             @RequestParam(required = false, name = "quoteCharacter", defaultValue = "") String quoteCharacter,
             @RequestParam(required = false, name = "header", defaultValue = "true") String header,
             @RequestParam(required = false, name = "rows", defaultValue = "100") String rows,
+            @RequestParam(required = false, name = "backend", defaultValue = "tree") ExpressionBackend backend,
+            @RequestParam(required = false, name = "partition", defaultValue = "0") String partition,
+            @RequestParam(required = false, name = "partitions", defaultValue = "1") String partitions,
+            @RequestParam(required = false, name = "seed", defaultValue = "") String seed,
+            @RequestParam(required = false, name = "compression", defaultValue = "") String compression,
             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false, defaultValue = "")
-            String acceptEncoding) {
+            String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false, defaultValue = "")
+            String range) {
         logger.debug("""
                 >> streamTableInCSVFormat:
                     schema = %s
@@ -64,32 +82,108 @@ public class CsvStreamController extends AbstractStreamController {
                     quoteCharacter = %s
                     header = %s
                     rows = %s
-                    acceptEncoding = %s"""
-                .formatted(schema, name, delimiter, quoteCharacter, header, rows, acceptEncoding));
+                    backend = %s
+                    partition = %s
+                    partitions = %s
+                    seed = %s
+                    compression = %s
+                    acceptEncoding = %s
+                    range = %s"""
+                .formatted(schema, name, delimiter, quoteCharacter, header, rows, backend,
+                        partition, partitions, seed, compression, acceptEncoding, range));
 
         Table table = lookupTable(QualifiedName.of(schema, name));
         table.setRows(rows);
 
-        boolean gzip = acceptEncoding.contains("gzip");
+        final Partition streamPartition = Partition.of(Integer.parseInt(partition), Integer.parseInt(partitions));
+
+        final Long streamSeed = StringUtils.hasLength(seed) ? Long.parseLong(seed) : null;
+
+        final Function<Compression, CsvStreamGenerator> generatorFactory = codec -> {
+            CsvStreamGenerator generator = new CsvStreamGenerator(dataSource, table)
+                    .setDelimiter(URLDecoder.decode(delimiter, Charset.defaultCharset()))
+                    .setQuoteCharacter(URLDecoder.decode(quoteCharacter, Charset.defaultCharset()))
+                    .setIncludeHeader(Boolean.parseBoolean(header));
+            generator.setExpressionBackend(backend)
+                    .setExpressionRegistry(expressionRegistry)
+                    .setPartition(streamPartition)
+                    .setSeed(streamSeed)
+                    .setCompression(codec);
+            return generator;
+        };
+
+        // Only streams where every column is reproducible for the seed can be resumed at a
+        // byte offset, unless compressed as a file where offsets would refer to the compressed bytes
+        final StreamCheckpoints checkpoints = streamSeed != null && !StringUtils.hasLength(compression)
+                && generatorFactory.apply(Compression.none).isReproducible()
+                ? StreamCheckpoints.forKey(checkpointKey(QualifiedName.of(schema, name),
+                delimiter, quoteCharacter, header, rows, partition, partitions, seed))
+                : null;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(TEXT_CSV);
         headers.setContentDisposition(ContentDisposition.inline().build());
         headers.setCacheControl(CacheControl.noCache().noTransform().mustRevalidate());
+        headers.set(HttpHeaders.ACCEPT_RANGES, checkpoints != null ? "bytes" : "none");
+        headers.set(COLUMNS_HEADER, streamedColumnNames(table));
+
+        final HttpRange httpRange = checkpoints != null ? parseSingleRange(range) : null;
+
+        if (httpRange != null) {
+            if (checkpoints.length() < 0) {
+                // Measure the length, for example after an interrupted download, by generating
+                // from the last checkpoint to the end. The position is counted by the range filter.
+                generatorFactory.apply(Compression.none)
+                        .setCheckpoints(checkpoints)
+                        .setRange(Long.MAX_VALUE, Long.MAX_VALUE)
+                        .streamTo(OutputStream.nullOutputStream());
+            }
+
+            final long length = checkpoints.length();
+            final long first = httpRange.getRangeStart(length);
+            final long last = httpRange.getRangeEnd(length);
+
+            if (first >= length || first > last) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
 
-        if (gzip) {
-            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(first, last, length));
+            headers.setContentLength(last - first + 1);
+
+            // Byte offsets refer to the identity encoding
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(headers)
+                    .body(outputStream -> generatorFactory.apply(Compression.none)
+                            .setCheckpoints(checkpoints)
+                            .setRange(first, last)
+                            .streamTo(outputStream));
         }
 
+        final Compression streamCompression = resolveCompression(compression, acceptEncoding, headers);
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(outputStream -> new CsvStreamGenerator(dataSource, table, gzip)
-                        .setDelimiter(URLDecoder.decode(delimiter, Charset.defaultCharset()))
-                        .setQuoteCharacter(URLDecoder.decode(quoteCharacter, Charset.defaultCharset()))
-                        .setIncludeHeader(Boolean.parseBoolean(header))
+                .body(outputStream -> generatorFactory.apply(streamCompression)
+                        .setCheckpoints(checkpoints)
                         .streamTo(outputStream));
     }
 
+    private HttpRange parseSingleRange(String range) {
+        if (!StringUtils.hasLength(range)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            // Multiple ranges are not supported, serve the full stream instead
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring invalid range header: " + range);
+            return null;
+        }
+    }
+
     @GetMapping(value = "/{name}.csv/form")
     public ResponseEntity<EntityModel<Table>> getTableForm(
             @PathVariable(name = "schema") String schema,
@@ -127,27 +221,37 @@ public class CsvStreamController extends AbstractStreamController {
             @RequestParam(required = false, name = "quoteCharacter", defaultValue = "") String quoteCharacter,
             @RequestParam(required = false, name = "header", defaultValue = "true") String header,
             @RequestParam(required = false, name = "rows", defaultValue = "100") String rows,
+            @RequestParam(required = false, name = "backend", defaultValue = "tree") ExpressionBackend backend,
+            @RequestParam(required = false, name = "seed", defaultValue = "") String seed,
+            @RequestParam(required = false, name = "compression", defaultValue = "") String compression,
             @RequestParam(required = false, name = "nodes", defaultValue = "6") Integer nodes
     ) {
         Table table = lookupTable(QualifiedName.of(schema, name));
 
-        final String uri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .pathSegment(schema, name + ".csv")
-                .queryParam("delimiter", URLDecoder.decode(delimiter, Charset.defaultCharset()))
-                .queryParam("quoteCharacter", URLDecoder.decode(quoteCharacter, Charset.defaultCharset()))
-                .queryParam("header", header)
-                .queryParam("rows", rows)
-                .buildAndExpand()
-                .toUriString();
-
-        List<String> paths = IntStream.rangeClosed(1, nodes)
-                .mapToObj(value -> uri)
+        // Pin a seed so that streams retried by the import can be resumed
+        final String importSeed = StringUtils.hasLength(seed)
+                ? seed : Long.toString(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE));
+
+        List<String> paths = IntStream.range(0, nodes)
+                .mapToObj(partition -> ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .pathSegment(schema, name + ".csv")
+                        .queryParam("delimiter", URLDecoder.decode(delimiter, Charset.defaultCharset()))
+                        .queryParam("quoteCharacter", URLDecoder.decode(quoteCharacter, Charset.defaultCharset()))
+                        .queryParam("header", header)
+                        .queryParam("rows", rows)
+                        .queryParam("backend", backend)
+                        .queryParam("partition", partition)
+                        .queryParam("partitions", nodes)
+                        .queryParam("seed", importSeed)
+                        .queryParamIfPresent("compression", Optional.of(compression).filter(StringUtils::hasLength))
+                        .buildAndExpand()
+                        .toUriString())
                 .collect(Collectors.toCollection(LinkedList::new));
 
         String sql = ImportInto.builder().withFormat(Format.CSV)
                 .withTable(table)
                 .withPaths(paths)
-                .withOptions(applicationModel.getCsvOptions())
+                .withOptions(importOptions(applicationModel.getCsvOptions(), compression))
                 .build()
                 .getImportStatement();
 
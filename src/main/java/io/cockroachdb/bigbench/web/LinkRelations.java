@@ -19,6 +19,8 @@ public abstract class LinkRelations {
 
     public static final String AVRO_IMPORT_REL = "avro-import";
 
+    public static final String PGCOPY_STREAM_REL = "pgcopy-stream";
+
     // IANA standard link relations:
     // http://www.iana.org/assignments/link-relations/link-relations.xhtml
 
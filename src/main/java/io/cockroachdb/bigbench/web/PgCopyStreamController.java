@@ -0,0 +1,83 @@
+package io.cockroachdb.bigbench.web;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.cockroachdb.bigbench.config.ProfileNames;
+import io.cockroachdb.bigbench.expression.ExpressionBackend;
+import io.cockroachdb.bigbench.model.Compression;
+import io.cockroachdb.bigbench.model.QualifiedName;
+import io.cockroachdb.bigbench.model.Table;
+import io.cockroachdb.bigbench.stream.Partition;
+import io.cockroachdb.bigbench.stream.PgCopyStreamGenerator;
+
+@RestController
+@Profile(ProfileNames.HTTP)
+@RequestMapping(value = "/{schema}")
+public class PgCopyStreamController extends AbstractStreamController {
+    @GetMapping(value = "/{name}.pgcopy", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTableInPgCopyFormat(
+            @PathVariable(name = "schema") String schema,
+            @PathVariable(name = "name") String name,
+            @RequestParam(required = false, name = "rows", defaultValue = "100") String rows,
+            @RequestParam(required = false, name = "backend", defaultValue = "tree") ExpressionBackend backend,
+            @RequestParam(required = false, name = "partition", defaultValue = "0") String partition,
+            @RequestParam(required = false, name = "partitions", defaultValue = "1") String partitions,
+            @RequestParam(required = false, name = "seed", defaultValue = "") String seed,
+            @RequestParam(required = false, name = "compression", defaultValue = "") String compression,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false, defaultValue = "")
+            String acceptEncoding) {
+        logger.debug("""
+                >> streamTableInPgCopyFormat:
+                    schema = %s
+                    name = %s
+                    rows = %s
+                    backend = %s
+                    partition = %s
+                    partitions = %s
+                    seed = %s
+                    compression = %s
+                    acceptEncoding = %s"""
+                .formatted(schema, name, rows, backend, partition, partitions, seed, compression,
+                        acceptEncoding));
+
+        Table table = lookupTable(QualifiedName.of(schema, name));
+        table.setRows(rows);
+
+        final Partition streamPartition = Partition.of(Integer.parseInt(partition), Integer.parseInt(partitions));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDisposition(ContentDisposition.inline().build());
+        headers.setCacheControl(CacheControl.noCache().noTransform().mustRevalidate());
+        headers.set(COLUMNS_HEADER, streamedColumnNames(table));
+
+        final Compression streamCompression = resolveCompression(compression, acceptEncoding, headers);
+
+        // Reject column types without a binary encoding before the response is committed
+        final PgCopyStreamGenerator generator = new PgCopyStreamGenerator(dataSource, table);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(outputStream ->
+                        generator
+                                .setExpressionBackend(backend)
+                                .setExpressionRegistry(expressionRegistry)
+                                .setPartition(streamPartition)
+                                .setSeed(StringUtils.hasLength(seed) ? Long.parseLong(seed) : null)
+                                .setCompression(streamCompression)
+                                .streamTo(outputStream));
+    }
+}
@@ -56,6 +56,11 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return toEntity(HttpStatus.NOT_FOUND, "Resource not found", ex);
     }
 
+    @ExceptionHandler(value = {IllegalArgumentException.class})
+    public ResponseEntity<ProblemDetail> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return toEntity(HttpStatus.BAD_REQUEST, "Bad request", ex);
+    }
+
     @ExceptionHandler(IOException.class)
     public ResponseEntity<ProblemDetail> handleIOException(IOException e) {
         return toEntity(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error", e);
@@ -22,13 +22,13 @@ public class TableModelAssembler implements RepresentationModelAssembler<Table,
         {
             resource.add(linkTo(methodOn(CsvStreamController.class)
                     .streamTableInCSVFormat(entity.getSchema(), entity.getName(),
-                            null, null, null, null, null))
+                            null, null, null, null, null, null, null, null, null, null, null))
                     .withRel(LinkRelations.CSV_STREAM_REL)
                     .withType(CsvStreamController.TEXT_CSV_VALUE)
                     .withTitle("Export table stream in CSV text format"));
             resource.add(linkTo(methodOn(CsvStreamController.class)
                     .getImportInto(entity.getSchema(), entity.getName(),
-                            null, null, null, null, null))
+                            null, null, null, null, null, null, null, null))
                     .withRel(LinkRelations.CSV_IMPORT_REL)
                     .withType(MediaType.TEXT_PLAIN_VALUE)
                     .withTitle("Generate IMPORT INTO statement"));
@@ -42,12 +42,14 @@ public class TableModelAssembler implements RepresentationModelAssembler<Table,
 
         {
             resource.add(linkTo(methodOn(AvroStreamController.class)
-                    .streamTableInAvroFormat(entity.getSchema(), entity.getName(), null, null))
+                    .streamTableInAvroFormat(entity.getSchema(), entity.getName(),
+                            null, null, null, null, null, null, null, null, null, null))
                     .withRel(LinkRelations.AVRO_STREAM_REL)
                     .withType(AvroStreamController.APPLICATION_AVRO_SCHEMA_VALUE)
                     .withTitle("Export table stream in Avro OCF format"));
             resource.add(linkTo(methodOn(AvroStreamController.class)
-                    .getImportInto(entity.getSchema(), entity.getName(), null, null))
+                    .getImportInto(entity.getSchema(), entity.getName(),
+                            null, null, null, null, null, null, null, null))
                     .withRel(LinkRelations.AVRO_IMPORT_REL)
                     .withType(MediaType.TEXT_PLAIN_VALUE)
                     .withTitle("Generate IMPORT INTO statement"));
@@ -59,6 +61,15 @@ public class TableModelAssembler implements RepresentationModelAssembler<Table,
             );
         }
 
+        {
+            resource.add(linkTo(methodOn(PgCopyStreamController.class)
+                    .streamTableInPgCopyFormat(entity.getSchema(), entity.getName(),
+                            null, null, null, null, null, null, null))
+                    .withRel(LinkRelations.PGCOPY_STREAM_REL)
+                    .withType(MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                    .withTitle("Export table stream in PostgreSQL binary COPY format"));
+        }
+
         return resource;
     }
 }
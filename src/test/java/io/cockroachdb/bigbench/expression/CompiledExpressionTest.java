@@ -0,0 +1,379 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@Tag("unit-test")
+public class CompiledExpressionTest {
+    private static DefaultExpressionRegistry createRegistry() {
+        DefaultExpressionRegistry registry = new DefaultExpressionRegistry();
+        registry.addVariable("pi", Math.PI);
+        registry.addVariable("x", new BigDecimal("5"));
+        registry.addVariable("y", new BigDecimal("10"));
+        registry.addFunction("one", args -> 1.0);
+        registry.addFunction(FunctionDef.builder()
+                .withId("pow")
+                .withArgs(List.of("arg1", "arg2"))
+                .withFunction(args -> {
+                    Number arg1 = (Number) args[0];
+                    Number arg2 = (Number) args[1];
+                    return Math.pow(arg1.doubleValue(), arg2.doubleValue());
+                }).build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("upper")
+                .withArgs(List.of("arg1"))
+                .withFunction(args -> ((String) args[0]).toUpperCase())
+                .build());
+        return registry;
+    }
+
+    private static void assertSameOutcome(Object expected, Object actual, String expression) {
+        if (expected instanceof Number e && actual instanceof Number a) {
+            Assertions.assertEquals(0, NumericOperations.toBigDecimal(e).compareTo(NumericOperations.toBigDecimal(a)),
+                    expression + ": " + expected + " != " + actual);
+        } else {
+            Assertions.assertEquals(expected, actual, expression);
+        }
+    }
+
+    public static Stream<Arguments> expressions() {
+        return Stream.of(
+                Arguments.of("1+1"),
+                Arguments.of("(2*-(1+ 2))*2"),
+                Arguments.of("7/2"),
+                Arguments.of("1.05 + 0.45"),
+                Arguments.of("2^3"),
+                Arguments.of("10 min 5-2"),
+                Arguments.of("(2 % 4)-2"),
+                Arguments.of("-7/2 + 5/2 + 9/4 + 1/3"),
+                Arguments.of("9223372036854775807 + 1"),
+                Arguments.of("3037000500 * 3037000500"),
+                Arguments.of("2^64"),
+                Arguments.of("x / 3 + 1.5"),
+                Arguments.of("pi * 2"),
+                Arguments.of("pow(3,pow(2,1+2))"),
+                Arguments.of("one() + x * y"),
+                Arguments.of("'a' + 'b' + upper('c')"),
+                Arguments.of("if x < y then x+y else x-y"),
+                Arguments.of("if x > y then x+y else x-y"),
+                Arguments.of("if (1+2+3)*4 == 24 and not false then 'yes' else 'no'"),
+                Arguments.of("if 'a' in ('a','b','c') then 1 else 0"),
+                Arguments.of("if {d '2016-01-02'} > {d '2016-01-01'} then 'yes' else 'no'"),
+                Arguments.of("{dt '2021-01-01 12:00:05'}"),
+                Arguments.of("true")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("expressions")
+    public void whenCompiled_thenEvaluateSameAsInterpreted(String expression) {
+        DefaultExpressionRegistry registry = createRegistry();
+
+        CompiledExpression compiledExpression = Expression.compile(expression, registry);
+
+        assertSameOutcome(Expression.evaluate(expression, registry), compiledExpression.evaluate(), expression);
+        assertSameOutcome(Expression.evaluate(expression, registry), compiledExpression.evaluate(), expression);
+    }
+
+    @ParameterizedTest
+    @MethodSource("expressions")
+    public void whenCompiledToBytecode_thenEvaluateSameAsTree(String expression) {
+        DefaultExpressionRegistry registry = createRegistry();
+
+        CompiledExpression tree = Expression.compile(expression, registry, ExpressionBackend.tree);
+        CompiledExpression bytecode = Expression.compile(expression, registry, ExpressionBackend.bytecode);
+
+        Assertions.assertEquals(tree.evaluate(), bytecode.evaluate(), expression);
+        Assertions.assertEquals(tree.evaluate(), bytecode.evaluate(), expression);
+    }
+
+    @Test
+    public void whenCompiled_thenNumbersAreTyped() {
+        DefaultExpressionRegistry registry = createRegistry();
+
+        Assertions.assertEquals(2L, Expression.compile("1+1", registry).evaluate());
+        Assertions.assertEquals(4L, Expression.compile("7/2", registry).evaluate());
+        Assertions.assertEquals(2.0, Expression.compile("one() * 2", registry).evaluate());
+        Assertions.assertEquals(new BigDecimal("2.5"), Expression.compile("1.5 + 1", registry).evaluate());
+        Assertions.assertEquals(new BigDecimal("9223372036854775808"),
+                Expression.compile("9223372036854775807 + 1", registry).evaluate());
+        Assertions.assertEquals("yes", Expression.compile("if 2 == 2.0 then 'yes' else 'no'", registry).evaluate());
+    }
+
+    @Test
+    public void whenCompiled_thenFunctionsAreCalledPerEvaluation() {
+        AtomicInteger rowNumber = new AtomicInteger();
+
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction("rowNumber", args -> rowNumber.incrementAndGet());
+
+        CompiledExpression compiledExpression
+                = Expression.compile("if rowNumber() % 2 == 0 then 'even' otherwise 'odd'", registry);
+
+        Assertions.assertEquals("odd", compiledExpression.evaluate());
+        Assertions.assertEquals("even", compiledExpression.evaluate());
+        Assertions.assertEquals("odd", compiledExpression.evaluate());
+        Assertions.assertEquals(3, rowNumber.get());
+    }
+
+    @Test
+    public void whenCompiled_thenFoldByVolatility() {
+        AtomicInteger immutableCalls = new AtomicInteger();
+        AtomicInteger stableCalls = new AtomicInteger();
+        AtomicInteger volatileCalls = new AtomicInteger();
+
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("immutableFn")
+                .withVolatility(Volatility.IMMUTABLE)
+                .withFunction(args -> immutableCalls.incrementAndGet() + (Long) args[0])
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("stableFn")
+                .withVolatility(Volatility.STABLE)
+                .withFunction(args -> stableCalls.incrementAndGet())
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("volatileFn")
+                .withFunction(args -> volatileCalls.incrementAndGet())
+                .build());
+
+        CompiledExpression compiledExpression
+                = Expression.compile("immutableFn(2 * 3) + stableFn() + volatileFn()", registry);
+        Assertions.assertEquals(1, immutableCalls.get());
+        Assertions.assertEquals(0, stableCalls.get());
+        Assertions.assertEquals(0, volatileCalls.get());
+
+        Assertions.assertEquals(9L, compiledExpression.evaluate());
+        Assertions.assertEquals(10L, compiledExpression.evaluate());
+        Assertions.assertEquals(1, immutableCalls.get());
+        Assertions.assertEquals(1, stableCalls.get());
+        Assertions.assertEquals(2, volatileCalls.get());
+
+        CompiledExpression bytecode = Expression.compile("stableFn() + volatileFn()", registry,
+                ExpressionBackend.bytecode);
+        Assertions.assertEquals(5L, bytecode.evaluate());
+        Assertions.assertEquals(6L, bytecode.evaluate());
+        Assertions.assertEquals(2, stableCalls.get());
+    }
+
+    @Test
+    public void whenArityFunctions_thenResolveByArgumentCount() {
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("sum")
+                .withNullary(() -> 0)
+                .withLongUnary(arg1 -> arg1)
+                .withLongBinary(Long::sum)
+                .withTernary((arg1, arg2, arg3) -> "" + arg1 + arg2 + arg3)
+                .build());
+
+        for (ExpressionBackend backend : ExpressionBackend.values()) {
+            Assertions.assertEquals(0L, Expression.compile("sum()", registry, backend).evaluate());
+            Assertions.assertEquals(7L, Expression.compile("sum(3+4)", registry, backend).evaluate());
+            Assertions.assertEquals(5L, Expression.compile("sum(x, sum())", registry, backend).evaluate());
+            Assertions.assertEquals("abc", Expression.compile("sum('a','b','c')", registry, backend).evaluate());
+            Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("sum(1,2,3,4)", registry, backend).evaluate());
+            Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("sum('a')", registry, backend).evaluate());
+        }
+
+        Assertions.assertEquals(new BigDecimal("3"), Expression.evaluate("sum(1,2)", registry));
+    }
+
+    @Test
+    public void whenArityNotSupported_thenFailAtCompileTime() {
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("range")
+                .withNullary(() -> 0)
+                .withLongBinary(Long::sum)
+                .build());
+
+        for (ExpressionBackend backend : ExpressionBackend.values()) {
+            ExpressionException e = Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("range(5)", registry, backend));
+            Assertions.assertTrue(e.getMessage().startsWith("Function range does not take 1 argument(s)"),
+                    e.getMessage());
+            Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("1 + range(1, 2, 3)", registry, backend));
+
+            // Functions taking variable arguments accept any count
+            Assertions.assertEquals(1.0, Expression.compile("one(1, 2, 3)", registry, backend).evaluate());
+        }
+
+        ExpressionRegistry builtIns = ExpressionRegistryBuilder.build(null);
+        Assertions.assertThrows(ExpressionException.class, () -> Expression.compile("randomInt(5)", builtIns));
+        Assertions.assertThrows(ExpressionException.class, () -> Expression.compile("randomBigDecimal(1)", builtIns));
+    }
+
+    @Test
+    public void whenPrimitiveFunctions_thenEvaluateUnboxedWithSameOutcome() {
+        AtomicInteger calls = new AtomicInteger();
+
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("next")
+                .withLongNullary(calls::incrementAndGet)
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("sum")
+                .withLongBinaryOperator(Long::sum)
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("half")
+                .withDoubleUnaryOperator(arg1 -> arg1 / 2)
+                .build());
+
+        for (ExpressionBackend backend : ExpressionBackend.values()) {
+            calls.set(0);
+
+            Assertions.assertEquals(3L, Expression.compile("next() * 2 + 1", registry, backend).evaluate());
+            Assertions.assertEquals(9L, Expression.compile("sum(next(), 7) min 10", registry, backend).evaluate());
+            Assertions.assertEquals(1.5, Expression.compile("half(next())", registry, backend).evaluate());
+            Assertions.assertEquals(-4L, Expression.compile("-next()", registry, backend).evaluate());
+            Assertions.assertEquals("yes", Expression.compile("if next() % 5 == 0 then 'yes' else 'no'",
+                    registry, backend).evaluate());
+            Assertions.assertEquals(5, calls.get());
+
+            // Overflow is promoted to BigDecimal without evaluating operands twice
+            Assertions.assertEquals(new BigDecimal("9223372036854775807"),
+                    Expression.compile("9223372036854775807 + next() - 6", registry, backend).evaluate());
+            Assertions.assertEquals(new BigDecimal("-9223372036854775814"),
+                    Expression.compile("-(9223372036854775807 + next())", registry, backend).evaluate());
+            Assertions.assertEquals("big", Expression.compile(
+                    "if next() * 4611686018427387904 > 9223372036854775807 then 'big' else 'small'",
+                    registry, backend).evaluate());
+            Assertions.assertEquals(8, calls.get());
+
+            Assertions.assertThrows(ArithmeticException.class,
+                    () -> Expression.compile("next() / 0", registry, backend).evaluate());
+        }
+    }
+
+    @Test
+    public void whenOverflowingConcurrently_thenPromotePerThread() throws Exception {
+        ThreadLocal<Long> input = new ThreadLocal<>();
+
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("input")
+                .withLongNullary(input::get)
+                .build());
+
+        for (ExpressionBackend backend : ExpressionBackend.values()) {
+            CompiledExpression expression = Expression.compile(
+                    "input() * 9223372036854775807 + input()", registry, backend);
+
+            List<Thread> threads = new ArrayList<>();
+            AtomicInteger failures = new AtomicInteger();
+            for (long n = 1; n <= 4; n++) {
+                final long value = n;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    input.set(value);
+                    BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE)
+                            .multiply(BigDecimal.valueOf(value));
+                    for (int i = 0; i < 20_000; i++) {
+                        if (!expected.equals(expression.evaluate())) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Assertions.assertEquals(0, failures.get(), backend.name());
+        }
+    }
+
+    @Test
+    public void whenConstantArguments_thenBindOnceAtCompileTime() {
+        AtomicInteger binds = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+
+        DefaultExpressionRegistry registry = createRegistry();
+        registry.addFunction(FunctionDef.builder()
+                .withId("next")
+                .withLongNullary(calls::incrementAndGet)
+                .build());
+        registry.addFunction(FunctionDef.builder()
+                .withId("offset")
+                .withLongBinaryOperator((from, to) -> from + to + 100)
+                .withLongBinder(args -> {
+                    binds.incrementAndGet();
+                    long sum = ((Number) args[0]).longValue() + ((Number) args[1]).longValue();
+                    return () -> sum + 100;
+                })
+                .build());
+
+        for (ExpressionBackend backend : ExpressionBackend.values()) {
+            binds.set(0);
+
+            CompiledExpression bound = Expression.compile("offset(1, 2 * 5) + 1", registry, backend);
+            Assertions.assertEquals(1, binds.get());
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertEquals(112L, bound.evaluate());
+            }
+            Assertions.assertEquals(1, binds.get());
+
+            calls.set(0);
+            CompiledExpression unbound = Expression.compile("offset(1, next())", registry, backend);
+            Assertions.assertEquals(102L, unbound.evaluate());
+            Assertions.assertEquals(103L, unbound.evaluate());
+            Assertions.assertEquals(1, binds.get());
+        }
+
+        assertSameOutcome(112L, Expression.evaluate("offset(1, 2 * 5) + 1", registry), "offset(1, 2 * 5) + 1");
+    }
+
+    @Test
+    public void whenUnknownFunctionOrVariable_thenReportPosition() {
+        DefaultExpressionRegistry registry = createRegistry();
+
+        // Second round compiles from cached parse trees
+        for (int i = 0; i < 2; i++) {
+            ExpressionException e = Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("1 + nope(2)", registry));
+            Assertions.assertTrue(e.getMessage().contains("Near token 'nope' at position 4"), e.getMessage());
+
+            e = Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.compile("2 * (zz + 1)", registry));
+            Assertions.assertTrue(e.getMessage().contains("Near token 'zz' at position 5"), e.getMessage());
+
+            e = Assertions.assertThrows(ExpressionException.class,
+                    () -> Expression.evaluate("1 + nope(2)", registry));
+            Assertions.assertTrue(e.getMessage().contains("Near token 'nope' at position 4"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void whenIllegalExpression_thenFailAtCompileTime() {
+        Assertions.assertThrows(ExpressionException.class,
+                () -> Expression.compile("1+", createRegistry()));
+        Assertions.assertThrows(ExpressionException.class,
+                () -> Expression.compile("nope(1)", createRegistry()));
+        Assertions.assertThrows(ExpressionException.class,
+                () -> Expression.compile("nope + 1", createRegistry()));
+    }
+
+    @Test
+    public void whenTypeMismatch_thenFailAtEvaluation() {
+        CompiledExpression compiledExpression = Expression.compile("'a'+1", createRegistry());
+        Assertions.assertThrows(ExpressionException.class, compiledExpression::evaluate);
+
+        CompiledExpression bytecode = Expression.compile("'a'+1", createRegistry(), ExpressionBackend.bytecode);
+        Assertions.assertThrows(ExpressionException.class, bytecode::evaluate);
+    }
+}
@@ -0,0 +1,55 @@
+package io.cockroachdb.bigbench.expression;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class ExpressionCacheTest {
+    private static ExpressionCache.ParsedExpression parse(String expression) {
+        return new ExpressionCache.ParsedExpression(null, null);
+    }
+
+    @Test
+    public void whenRepeatingLookups_thenCountHitsAndMisses() {
+        ExpressionCache cache = new ExpressionCache(2);
+
+        cache.get("1 + 1", ExpressionCacheTest::parse);
+        cache.get("1 + 1", ExpressionCacheTest::parse);
+        cache.get("2 + 2", ExpressionCacheTest::parse);
+
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void whenExceedingCapacity_thenEvictLeastRecentlyUsed() {
+        ExpressionCache cache = new ExpressionCache(2);
+
+        ExpressionCache.ParsedExpression first = cache.get("1", ExpressionCacheTest::parse);
+        cache.get("2", ExpressionCacheTest::parse);
+        cache.get("1", ExpressionCacheTest::parse);
+        cache.get("3", ExpressionCacheTest::parse);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertSame(first, cache.get("1", ExpressionCacheTest::parse));
+        Assertions.assertEquals(3, cache.misses());
+
+        cache.get("2", ExpressionCacheTest::parse);
+        Assertions.assertEquals(4, cache.misses());
+    }
+
+    @Test
+    public void whenEvaluatingSameText_thenParseOnce() {
+        long misses = Expression.getCache().misses();
+
+        Assertions.assertTrue(Expression.isValid("3 * 7 + 0.5"));
+        Assertions.assertTrue(Expression.isValid("3 * 7 + 0.5"));
+        Assertions.assertEquals(42L, Expression.compile("3 * 7 * 2", Expression.EMPTY_REGISTRY)
+                .evaluate(Number.class).longValue());
+        Assertions.assertEquals(42L, Expression.evaluate("3 * 7 * 2", Number.class).longValue());
+
+        Assertions.assertEquals(misses + 2, Expression.getCache().misses());
+    }
+}
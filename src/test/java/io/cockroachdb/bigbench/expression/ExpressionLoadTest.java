@@ -45,7 +45,7 @@ public class ExpressionLoadTest {
         runConcurrentlyAndWait(tasks);
 
         Duration d = Duration.between(t1, Instant.now());
-        System.out.printf("%,d (%,d/s) in %s\n", c.get(), c.get() / d.toSeconds(), d);
+        System.out.printf("%,d (%,d/s) in %s\n", c.get(), c.get() * 1000L / Math.max(1, d.toMillis()), d);
     }
 
     private static void runConcurrentlyAndWait(List<Runnable> tasks) {
@@ -0,0 +1,60 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class ExpressionRegistryTest {
+    @Test
+    public void whenBuildingSharedRegistry_thenImmutable() {
+        ExpressionRegistry shared = ExpressionRegistryBuilder.buildShared(null);
+
+        Assertions.assertTrue(shared.findFunction("randomLong").isPresent());
+        Assertions.assertTrue(shared.findFunction("selectOne").isPresent());
+        Assertions.assertTrue(shared.findFunction("uniqueRowId").isEmpty());
+        Assertions.assertTrue(shared.findVariable("pi").isPresent());
+
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> shared.addVariable("x", 1));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> shared.addFunction("one", args -> 1));
+    }
+
+    @Test
+    public void whenAddingToOverlay_thenBaseUntouched() {
+        ExpressionRegistry shared = ExpressionRegistryBuilder.buildShared(null);
+        ExpressionRegistry first = ExpressionRegistryBuilder.overlay(shared, null);
+        ExpressionRegistry second = ExpressionRegistryBuilder.overlay(shared, null);
+
+        first.addFunction("rowNumber", args -> 1);
+        second.addFunction("rowNumber", args -> 2);
+
+        Assertions.assertEquals(1L, Expression.compile("rowNumber()", first).evaluate(Number.class).longValue());
+        Assertions.assertEquals(2L, Expression.compile("rowNumber()", second).evaluate(Number.class).longValue());
+        Assertions.assertTrue(shared.findFunction("rowNumber").isEmpty());
+
+        Assertions.assertTrue(first.findFunction("uniqueRowId").isPresent());
+        Assertions.assertNotSame(first.findFunction("uniqueRowId").get(),
+                second.findFunction("uniqueRowId").get());
+        Assertions.assertSame(first.findFunction("randomLong").get(),
+                second.findFunction("randomLong").get());
+    }
+
+    @Test
+    public void whenListingOverlay_thenUnionOfBoth() {
+        ExpressionRegistry full = ExpressionRegistryBuilder.build(null);
+        ExpressionRegistry overlay = ExpressionRegistryBuilder.overlay(
+                ExpressionRegistryBuilder.buildShared(null), null);
+
+        Set<String> expected = new HashSet<>();
+        full.functionDefinitions().forEach(functionDef -> expected.add(functionDef.getId()));
+        Set<String> actual = new HashSet<>();
+        overlay.functionDefinitions().forEach(functionDef -> actual.add(functionDef.getId()));
+
+        Assertions.assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,81 @@
+package io.cockroachdb.bigbench.expression;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@Tag("unit-test")
+public class SamplingPoolTest {
+    private final List<String> statements = new ArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private DataSource stubDataSource(List<Object> rows) throws SQLException {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return ps;
+        });
+        Mockito.when(ps.executeQuery()).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            ResultSet rs = Mockito.mock(ResultSet.class);
+            AtomicInteger index = new AtomicInteger(-1);
+            Mockito.when(rs.next()).thenAnswer(i -> index.incrementAndGet() < rows.size());
+            Mockito.when(rs.getObject(1)).thenAnswer(i -> rows.get(index.get()));
+            return rs;
+        });
+        return dataSource;
+    }
+
+    @Test
+    public void whenSampling_thenWrapQueryInRandomOrderLimit() throws SQLException {
+        SamplingPool pool = new SamplingPool(stubDataSource(List.of("a", "b", "c")),
+                "select name from customer;", 2, Duration.ZERO);
+
+        Set<Object> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            seen.add(pool.next());
+        }
+
+        Assertions.assertEquals(Set.of("a", "b", "c"), seen);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(List.of(
+                "SELECT * FROM (select name from customer) AS sample ORDER BY random() LIMIT ?"), statements);
+    }
+
+    @Test
+    public void whenNoRows_thenFail() throws SQLException {
+        SamplingPool pool = new SamplingPool(stubDataSource(List.of()), "select 1", 10, Duration.ZERO);
+        Assertions.assertThrows(IllegalStateException.class, pool::next);
+    }
+
+    @Test
+    public void whenRefreshDiffers_thenUseSeparatePools() throws Exception {
+        Function.Ternary function = SQLFunctions.selectRandomFrom(stubDataSource(List.of(1L)));
+
+        Assertions.assertEquals(1L, function.call("select 1", 10, 0));
+        Assertions.assertEquals(1L, function.call("select 1", 10, 0));
+        Assertions.assertEquals(1, loads.get());
+
+        Assertions.assertEquals(1L, function.call("select 1", 10, 60));
+        Assertions.assertEquals(2, loads.get());
+    }
+}
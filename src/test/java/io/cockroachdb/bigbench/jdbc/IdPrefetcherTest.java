@@ -0,0 +1,140 @@
+package io.cockroachdb.bigbench.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.cockroachdb.bigbench.expression.Function;
+import io.cockroachdb.bigbench.expression.SQLFunctions;
+
+@Tag("unit-test")
+public class IdPrefetcherTest {
+    private static final Pattern SERIES_COUNT = Pattern.compile("generate_series\\(1, (\\d+)\\)");
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    /**
+     * Stub a data source returning consecutive IDs for each generate_series query.
+     *
+     * @param latencyMillis time spent per query
+     * @param failAfter     number of queries to succeed before failing, or -1
+     */
+    private DataSource stubDataSource(long latencyMillis, int failAfter) throws SQLException {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            statements.add(sql);
+
+            Matcher matcher = SERIES_COUNT.matcher(sql);
+            Assertions.assertTrue(matcher.find(), sql);
+            int count = Integer.parseInt(matcher.group(1));
+
+            PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+            Mockito.when(ps.executeQuery()).thenAnswer(i -> {
+                if (failAfter >= 0 && queries.get() >= failAfter) {
+                    throw new SQLException("Connection reset");
+                }
+                queries.incrementAndGet();
+                Thread.sleep(latencyMillis);
+
+                ResultSet rs = Mockito.mock(ResultSet.class);
+                AtomicInteger index = new AtomicInteger();
+                AtomicLong current = new AtomicLong();
+                Mockito.when(rs.next()).thenAnswer(n -> {
+                    if (index.getAndIncrement() < count) {
+                        current.set(nextId.getAndIncrement());
+                        return true;
+                    }
+                    return false;
+                });
+                Mockito.when(rs.getLong(1)).thenAnswer(n -> current.get());
+                return rs;
+            });
+            return ps;
+        });
+        return dataSource;
+    }
+
+    @Test
+    public void whenConsuming_thenRefillInBackgroundWithoutGaps() throws SQLException {
+        IdPrefetcher prefetcher = new IdPrefetcher(stubDataSource(0, -1), "unique_rowid()", 16);
+
+        for (long expected = 1; expected <= 10_000; expected++) {
+            Assertions.assertEquals(expected, prefetcher.nextLong());
+        }
+
+        Assertions.assertTrue(queries.get() > 1);
+        Assertions.assertEquals("select unique_rowid() from generate_series(1, 16)", statements.get(0));
+    }
+
+    @Test
+    public void whenConsumerOutpacesRefill_thenGrowBatchSize() throws SQLException {
+        IdPrefetcher prefetcher = new IdPrefetcher(stubDataSource(20, -1), "nextval('seq')", 16);
+
+        Assertions.assertEquals(16, prefetcher.getBatchSize());
+
+        for (long expected = 1; expected <= 2_000; expected++) {
+            Assertions.assertEquals(expected, prefetcher.nextLong());
+        }
+
+        Assertions.assertTrue(prefetcher.getBatchSize() > 16, "batch size " + prefetcher.getBatchSize());
+        Assertions.assertTrue(prefetcher.getBatchSize() <= 16 * 16, "batch size " + prefetcher.getBatchSize());
+    }
+
+    @Test
+    public void whenRefillFails_thenPropagateToConsumer() throws SQLException {
+        IdPrefetcher prefetcher = new IdPrefetcher(stubDataSource(0, 1), "unique_rowid()", 16);
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 1_000; i++) {
+                prefetcher.nextLong();
+            }
+        });
+
+        Assertions.assertEquals("ID prefetch failed for: unique_rowid()", e.getMessage());
+        Assertions.assertInstanceOf(SQLException.class, e.getCause().getCause());
+        Assertions.assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void whenFirstRefillFails_thenPropagateToConsumer() throws SQLException {
+        IdPrefetcher prefetcher = new IdPrefetcher(stubDataSource(0, 0), "unique_rowid()", 16);
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, prefetcher::nextLong);
+        Assertions.assertInstanceOf(SQLException.class, e.getCause().getCause());
+    }
+
+    @Test
+    public void whenBatchSizeDiffers_thenUseSeparatePrefetchers() throws Exception {
+        Function function = SQLFunctions.uniqueRowId(stubDataSource(0, -1));
+
+        Assertions.assertEquals(1L, function.call(16));
+        Assertions.assertEquals(2L, function.call(16));
+        Assertions.assertEquals(17L, function.call(32));
+        Assertions.assertEquals(3L, function.call(16));
+
+        Assertions.assertTrue(statements.contains("select unique_rowid() from generate_series(1, 16)"));
+        Assertions.assertTrue(statements.contains("select unique_rowid() from generate_series(1, 32)"));
+    }
+}
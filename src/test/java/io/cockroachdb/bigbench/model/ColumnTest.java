@@ -0,0 +1,24 @@
+package io.cockroachdb.bigbench.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@Tag("unit-test")
+public class ColumnTest {
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "NUMERIC(10,2)|NUMERIC",
+            "DECIMAL (38, 0)|DECIMAL",
+            "VARCHAR(64)|VARCHAR",
+            "TIMESTAMP(6) WITH TIME ZONE|TIMESTAMP WITH TIME ZONE",
+            "INT8|INT8",
+            "_int8|_int8",
+    })
+    public void whenTypeModifiers_thenStripFromBaseTypeName(String typeName, String expected) {
+        Column column = new Column();
+        column.setTypeName(typeName);
+        Assertions.assertEquals(expected, column.getBaseTypeName());
+    }
+}
@@ -0,0 +1,176 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.model.Table;
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+import io.cockroachdb.bigbench.stream.generator.ValueGenerators;
+
+@Tag("unit-test")
+public class AvroStreamGeneratorTest {
+    private static Column column(String name, String typeName, String expression) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        column.setExpression(expression);
+        return column;
+    }
+
+    private static Table createTable(String rows) {
+        Identity identity = Identity.of(IdentityType.sequence);
+        identity.setStep(1);
+
+        Column id = column("id", "INT8", null);
+        id.setIdentity(identity);
+
+        Column uuid = column("uuid", "UUID", null);
+        uuid.setIdentity(Identity.of(IdentityType.uuid));
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName("test");
+        table.setColumns(List.of(id, uuid,
+                column("small", "INTEGER", "rowNumber() % 100"),
+                column("price", "DECIMAL(10,2)", "rowNumber() * 0.25"),
+                column("ratio", "FLOAT8", "0.5"),
+                column("flag", "BOOL", "true"),
+                column("day", "DATE", "{d '2024-01-31'}"),
+                column("name", "STRING", "'abc'")));
+        table.setRows(rows);
+        return table;
+    }
+
+    @Test
+    public void whenMappingTypeNames_thenUseTypedSchemas() {
+        Schema schema = AvroSchemas.createSchema(createTable("1").getColumns());
+
+        Assertions.assertEquals(Schema.Type.LONG, schema.getField("id").schema().getType());
+        Assertions.assertEquals(LogicalTypes.uuid(), schema.getField("uuid").schema().getLogicalType());
+
+        Schema price = schema.getField("price").schema();
+        Assertions.assertEquals(Schema.Type.UNION, price.getType());
+        Assertions.assertEquals(Schema.Type.NULL, price.getTypes().get(0).getType());
+        Assertions.assertEquals(LogicalTypes.decimal(10, 2), price.getTypes().get(1).getLogicalType());
+
+        Assertions.assertEquals(Schema.Type.INT, schema.getField("small").schema().getTypes().get(1).getType());
+        Assertions.assertEquals(LogicalTypes.date(), schema.getField("day").schema().getTypes().get(1).getLogicalType());
+        Assertions.assertEquals(Schema.Type.STRING, schema.getField("name").schema().getTypes().get(1).getType());
+    }
+
+    @Test
+    public void whenDecimalHasNoScale_thenUseString() {
+        Schema schema = AvroSchemas.fieldSchema(column("d", "DECIMAL", null));
+        Assertions.assertEquals(Schema.Type.STRING, schema.getTypes().get(1).getType());
+    }
+
+    private static List<GenericRecord> readRecords(byte[] bytes) throws IOException {
+        List<GenericRecord> records = new ArrayList<>();
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(
+                new ByteArrayInputStream(bytes), new GenericDatumReader<>())) {
+            stream.forEach(records::add);
+        }
+        return records;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"null", "deflate", "snappy", "zstandard"})
+    public void whenStreaming_thenReadBackTypedValues(String codec) throws IOException {
+        int rows = RowBlock.DEFAULT_CAPACITY + 7;
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new AvroStreamGenerator(null, createTable(Integer.toString(rows)))
+                .setCodec(codec)
+                .setSyncInterval(4096)
+                .setBlockSize(512)
+                .streamTo(outputStream);
+
+        List<GenericRecord> records = readRecords(outputStream.toByteArray());
+
+        Assertions.assertEquals(rows, records.size());
+        for (int i = 0; i < rows; i++) {
+            GenericRecord record = records.get(i);
+            Assertions.assertEquals((long) i + 1, record.get("id"));
+            Assertions.assertDoesNotThrow(() -> UUID.fromString(record.get("uuid").toString()));
+            Assertions.assertEquals(i % 100, record.get("small"));
+            BigDecimal price = new BigDecimal(new BigInteger(((ByteBuffer) record.get("price")).array()), 2);
+            Assertions.assertEquals(0, BigDecimal.valueOf(i).multiply(new BigDecimal("0.25"))
+                    .compareTo(price), "price at row " + i);
+            Assertions.assertEquals(0.5, record.get("ratio"));
+            Assertions.assertEquals(true, record.get("flag"));
+            Assertions.assertEquals((int) LocalDate.of(2024, 1, 31).toEpochDay(), record.get("day"));
+            Assertions.assertEquals("abc", record.get("name").toString());
+        }
+    }
+
+    @Test
+    public void whenStreamingEpochRanges_thenEncodeMicros() throws IOException {
+        Range range = new Range();
+        range.setType(RangeType.datetime);
+        range.setFrom("2024-02-28T22:59:30");
+        range.setStep(7);
+        range.setStepUnit(ChronoUnit.SECONDS);
+
+        Column ts = column("ts", "TIMESTAMP", null);
+        ts.setRange(range);
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName("test");
+        table.setColumns(List.of(ts));
+        table.setRows("300");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new AvroStreamGenerator(null, table).streamTo(outputStream);
+
+        List<GenericRecord> records = readRecords(outputStream.toByteArray());
+
+        ColumnBuffer expected = new ColumnBuffer(300);
+        ValueGenerators.createRangeGenerator(range).fill(expected, 300);
+
+        Assertions.assertEquals(300, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            LocalDateTime value = (LocalDateTime) expected.get(i);
+            Assertions.assertEquals(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L, records.get(i).get("ts"));
+        }
+    }
+
+    @Test
+    public void whenInvalidSettings_thenFailBeforeStreaming() {
+        AvroStreamGenerator generator = new AvroStreamGenerator(null, createTable("10"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.setCodec("lz5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.setSyncInterval(31));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.setSyncInterval((1 << 30) + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.setBlockSize(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> generator.setBlockSize(32 * 1024 * 1024));
+        Assertions.assertDoesNotThrow(() -> generator.setCodec("deflate").setSyncInterval(32).setBlockSize(32));
+    }
+}
@@ -0,0 +1,234 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.xerial.snappy.SnappyFramedInputStream;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Compression;
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.model.Table;
+
+@Tag("unit-test")
+public class CsvStreamGeneratorTest {
+    private static Table createTable(String rows) {
+        Identity identity = Identity.of(IdentityType.sequence);
+        identity.setStep(1);
+
+        Column id = new Column();
+        id.setName("id");
+        id.setTypeName("INT8");
+        id.setIdentity(identity);
+
+        Column even = new Column();
+        even.setName("even");
+        even.setTypeName("INT8");
+        even.setExpression("rowNumber() * 2");
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName("test");
+        table.setColumns(List.of(id, even));
+        table.setRows(rows);
+        return table;
+    }
+
+    @Test
+    public void whenStreamingInBlocks_thenRowsAreInOrder() {
+        int rows = RowBlock.DEFAULT_CAPACITY * 2 + 3;
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvStreamGenerator(null, createTable(Integer.toString(rows)))
+                .setIncludeHeader(true)
+                .streamTo(outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+
+        Assertions.assertEquals(rows + 1, lines.size());
+        Assertions.assertEquals("id,even", lines.get(0));
+        for (int i = 0; i < rows; i++) {
+            Assertions.assertEquals((i + 1) + "," + (i * 2), lines.get(i + 1));
+        }
+    }
+
+    @Test
+    public void whenStreamingPartitions_thenRowsAreDisjoint() {
+        int rows = 1000;
+        int partitions = 3;
+
+        StringBuilder combined = new StringBuilder();
+        for (int i = 0; i < partitions; i++) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            new CsvStreamGenerator(null, createTable(Integer.toString(rows)))
+                    .setPartition(Partition.of(i, partitions))
+                    .streamTo(outputStream);
+            combined.append(outputStream.toString(StandardCharsets.UTF_8));
+        }
+
+        List<String> lines = combined.toString().lines().toList();
+
+        Assertions.assertEquals(rows, lines.size());
+        for (int i = 0; i < rows; i++) {
+            Assertions.assertEquals((i + 1) + "," + (i * 2), lines.get(i));
+        }
+    }
+
+    private static Table createRandomTable(String rows) {
+        Column name = new Column();
+        name.setName("name");
+        name.setTypeName("STRING");
+        name.setExpression("randomFullName()");
+
+        Column uuid = new Column();
+        uuid.setName("uuid");
+        uuid.setTypeName("UUID");
+        uuid.setIdentity(Identity.of(IdentityType.uuid));
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName("test");
+        table.setColumns(List.of(name, uuid));
+        table.setRows(rows);
+        return table;
+    }
+
+    private static String streamRandom(Long seed, Partition partition) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvStreamGenerator(null, createRandomTable("500"))
+                .setPartition(partition)
+                .setSeed(seed)
+                .streamTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void whenStreamingWithSeed_thenOutputIsReproducible() {
+        String first = streamRandom(42L, Partition.NONE);
+
+        Assertions.assertEquals(first, streamRandom(42L, Partition.NONE));
+        Assertions.assertNotEquals(first, streamRandom(43L, Partition.NONE));
+        Assertions.assertNotEquals(first, streamRandom(null, Partition.NONE));
+
+        Assertions.assertEquals(streamRandom(42L, Partition.of(1, 2)), streamRandom(42L, Partition.of(1, 2)));
+        Assertions.assertNotEquals(streamRandom(42L, Partition.of(0, 2)), streamRandom(42L, Partition.of(1, 2)));
+    }
+
+    private static byte[] streamRange(StreamCheckpoints checkpoints, long first, long last) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvStreamGenerator(null, createRandomTable("10000"))
+                .setIncludeHeader(true)
+                .setCheckpoints(checkpoints)
+                .setRange(first, last)
+                .setSeed(42L)
+                .streamTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void whenResumingAtOffset_thenOutputIsByteIdentical() {
+        StreamCheckpoints checkpoints = new StreamCheckpoints(StreamCheckpoints.DEFAULT_INTERVAL);
+
+        byte[] full = streamRange(checkpoints, 0, Long.MAX_VALUE);
+
+        Assertions.assertEquals(full.length, checkpoints.length());
+        Assertions.assertNotNull(checkpoints.floor(full.length / 2));
+        Assertions.assertTrue(checkpoints.floor(full.length / 2).getValue() > 0);
+
+        for (long first : new long[] {1, 1000, full.length / 2, full.length - 1}) {
+            Assertions.assertArrayEquals(Arrays.copyOfRange(full, (int) first, full.length),
+                    streamRange(checkpoints, first, Long.MAX_VALUE));
+            // Without checkpoints the stream is regenerated from the first row
+            Assertions.assertArrayEquals(Arrays.copyOfRange(full, (int) first, full.length),
+                    streamRange(null, first, Long.MAX_VALUE));
+        }
+
+        Assertions.assertArrayEquals(Arrays.copyOfRange(full, 70000, 70100),
+                streamRange(checkpoints, 70000, 70099));
+    }
+
+    private static boolean isReproducible(Column column) {
+        Table table = createRandomTable("10");
+        table.setColumns(List.of(table.getColumns().get(0), column));
+        CsvStreamGenerator generator = new CsvStreamGenerator(null, table);
+        generator.setSeed(42L);
+        return generator.isReproducible();
+    }
+
+    private static Column column(String expression, IdentityType identityType, String from) {
+        Column column = new Column();
+        column.setName("c");
+        column.setTypeName("STRING");
+        column.setExpression(expression);
+        if (identityType != null) {
+            column.setIdentity(Identity.of(identityType));
+        }
+        if (from != null) {
+            Range range = new Range();
+            range.setType(RangeType.datetime);
+            range.setFrom(from);
+            column.setRange(range);
+        }
+        return column;
+    }
+
+    @Test
+    public void whenColumnsDependOnClockOrDatabase_thenNotReproducible() {
+        CsvStreamGenerator generator = new CsvStreamGenerator(null, createRandomTable("10"));
+        Assertions.assertFalse(generator.isReproducible());
+        generator.setSeed(42L);
+        Assertions.assertTrue(generator.isReproducible());
+
+        Assertions.assertTrue(isReproducible(column("rowNumber() * 2 + randomInt(1, 10)", null, null)));
+        Assertions.assertTrue(isReproducible(column(null, IdentityType.sequence, null)));
+        Assertions.assertTrue(isReproducible(column(null, null, "2025-01-01T00:00:00")));
+
+        Assertions.assertFalse(isReproducible(column("currentDateTime()", null, null)));
+        Assertions.assertFalse(isReproducible(column("uniqueRowId() % 10", null, null)));
+        Assertions.assertFalse(isReproducible(column(null, IdentityType.uuid_v7, null)));
+        Assertions.assertFalse(isReproducible(column(null, IdentityType.database_sequence, null)));
+        Assertions.assertFalse(isReproducible(column(null, IdentityType.local_ordered, null)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Compression.class)
+    public void whenStreamingCompressed_thenDecompressToSameRows(Compression compression) throws IOException {
+        int rows = RowBlock.DEFAULT_CAPACITY * 4 + 3;
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvStreamGenerator(null, createTable(Integer.toString(rows)))
+                .setCompression(compression)
+                .streamTo(outputStream);
+
+        InputStream bytes = new ByteArrayInputStream(outputStream.toByteArray());
+        try (InputStream in = switch (compression) {
+            case none -> bytes;
+            case gzip -> new GZIPInputStream(bytes);
+            case bzip2 -> new BZip2CompressorInputStream(bytes);
+            case snappy -> new SnappyFramedInputStream(bytes);
+        }) {
+            List<String> lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+
+            Assertions.assertEquals(rows, lines.size());
+            for (int i = 0; i < rows; i++) {
+                Assertions.assertEquals((i + 1) + "," + (i * 2), lines.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.bigbench.stream.generator.ColumnBuffer;
+
+@Tag("unit-test")
+public class CsvWriterTest {
+    /**
+     * @return the values of a column buffer in CSV text form, one per line
+     */
+    public static List<String> writeColumn(ColumnBuffer column) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, ",", "")) {
+            for (int i = 0; i < column.size(); i++) {
+                writer.writeColumn(column, i).endRow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    public void whenWritingFastPathValues_thenMatchTextForm() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, ",", "")) {
+            writer.writeLong(0).writeLong(-42).writeLong(Long.MAX_VALUE).writeLong(Long.MIN_VALUE)
+                    .writeUUID(uuid)
+                    .writeValue(1.5d)
+                    .writeValue(LocalDate.of(2024, 2, 29))
+                    .writeValue(null)
+                    .endRow();
+        }
+        Assertions.assertEquals("0,-42," + Long.MAX_VALUE + "," + Long.MIN_VALUE + ","
+                + uuid + ",1.5,2024-02-29,null\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenFieldsNeedQuoting_thenQuoteOnlyThose() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, ",", "")) {
+            writer.writeValue("plain").writeValue("a,b").writeValue("say \"hi\"").writeValue("x\ny")
+                    .writeValue("räksmörgås 😀")
+                    .endRow();
+        }
+        Assertions.assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"x\ny\",räksmörgås 😀\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenQuoteCharacterIsSet_thenQuoteAllFieldsButNames() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, "|", "'")) {
+            writer.writeName("id").writeName("name").endRow();
+            writer.writeLong(1).writeValue("it's").writeValue(null).endRow();
+        }
+        Assertions.assertEquals("id|name\n'1'|'it''s'|'null'\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenExceedingBlock_thenWriteInBlocks() throws IOException {
+        ColumnBuffer column = new ColumnBuffer(1000);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            column.addLong(i * 1_000_003L);
+            expected.append(i * 1_000_003L).append('\n');
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out, ",", "", 64)) {
+            for (int i = 0; i < column.size(); i++) {
+                writer.writeColumn(column, i).endRow();
+                Assertions.assertTrue(writer.pending() <= 64);
+            }
+        }
+        Assertions.assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class ParallelGzipOutputStreamTest {
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    @Test
+    public void whenWritingManyBlocks_thenMembersDecompressInOrder() throws IOException {
+        byte[] data = data(1_000_003);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 4096,
+                Deflater.BEST_SPEED)) {
+            // Mix of single byte and chunked writes across block boundaries
+            out.write(data[0]);
+            for (int off = 1; off < data.length; off += 1000) {
+                out.write(data, off, Math.min(1000, data.length - off));
+            }
+        }
+
+        Assertions.assertArrayEquals(data, gunzip(compressed.toByteArray()));
+    }
+
+    @Test
+    public void whenWritingNothing_thenEmitValidEmptyMember() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed).close();
+
+        Assertions.assertTrue(compressed.size() > 0);
+        Assertions.assertEquals(0, gunzip(compressed.toByteArray()).length);
+    }
+
+    @Test
+    public void whenFinished_thenUnderlyingStreamHoldsAllData() throws IOException {
+        byte[] data = data(10_000);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, 1024, Deflater.DEFAULT_COMPRESSION);
+        out.write(data);
+        out.flush();
+        out.finish();
+
+        Assertions.assertArrayEquals(data, gunzip(compressed.toByteArray()));
+
+        out.close();
+        Assertions.assertThrows(IOException.class, () -> out.write(1));
+    }
+}
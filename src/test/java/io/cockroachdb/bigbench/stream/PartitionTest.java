@@ -0,0 +1,24 @@
+package io.cockroachdb.bigbench.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@Tag("unit-test")
+public class PartitionTest {
+    @ParameterizedTest
+    @CsvSource({"10,3", "10,10", "3,6", "0,4", "1000,1", "1001,7"})
+    public void whenSplittingRows_thenContiguousAndComplete(int totalRows, int partitions) {
+        int expectedFirstRow = 0;
+        for (int i = 0; i < partitions; i++) {
+            Partition partition = Partition.of(i, partitions);
+            Assertions.assertEquals(expectedFirstRow, partition.firstRow(totalRows));
+            int rowCount = partition.rowCount(totalRows);
+            Assertions.assertTrue(rowCount >= totalRows / partitions);
+            Assertions.assertTrue(rowCount <= totalRows / partitions + 1);
+            expectedFirstRow += rowCount;
+        }
+        Assertions.assertEquals(totalRows, expectedFirstRow);
+    }
+}
@@ -0,0 +1,109 @@
+package io.cockroachdb.bigbench.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.postgresql.util.ByteConverter;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+import io.cockroachdb.bigbench.model.Table;
+
+@Tag("unit-test")
+public class PgCopyStreamGeneratorTest {
+    private static Column column(String name, String typeName, String expression) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        column.setExpression(expression);
+        return column;
+    }
+
+    private static byte[] readField(DataInputStream in, int expectedLength) throws IOException {
+        int length = in.readInt();
+        Assertions.assertEquals(expectedLength, length);
+        return in.readNBytes(length);
+    }
+
+    @Test
+    public void whenStreaming_thenEncodeBinaryCopyFormat() throws IOException {
+        Identity identity = Identity.of(IdentityType.sequence);
+        identity.setStep(1);
+
+        Column id = column("id", "INT8", null);
+        id.setIdentity(identity);
+
+        Column uuid = column("uuid", "UUID", null);
+        uuid.setIdentity(Identity.of(IdentityType.uuid));
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName("test");
+        table.setColumns(List.of(id, uuid,
+                column("small", "INTEGER", "rowNumber() % 100"),
+                column("price", "DECIMAL(10,2)", "rowNumber() * 0.25"),
+                column("day", "DATE", "{d '2000-01-31'}"),
+                column("name", "STRING", "'abc'")));
+
+        int rows = RowBlock.DEFAULT_CAPACITY + 3;
+        table.setRows(Integer.toString(rows));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new PgCopyStreamGenerator(null, table).streamTo(outputStream);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        Assertions.assertArrayEquals("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1), in.readNBytes(11));
+        Assertions.assertEquals(0, in.readInt());
+        Assertions.assertEquals(0, in.readInt());
+
+        for (int i = 0; i < rows; i++) {
+            Assertions.assertEquals(6, in.readShort());
+
+            Assertions.assertEquals(8, in.readInt());
+            Assertions.assertEquals(i + 1, in.readLong());
+
+            readField(in, 16);
+
+            Assertions.assertEquals(4, in.readInt());
+            Assertions.assertEquals(i % 100, in.readInt());
+
+            byte[] price = in.readNBytes(in.readInt());
+            Assertions.assertEquals(0, BigDecimal.valueOf(i).multiply(new BigDecimal("0.25"))
+                    .compareTo((BigDecimal) ByteConverter.numeric(price)));
+
+            Assertions.assertEquals(4, in.readInt());
+            Assertions.assertEquals(30, in.readInt());
+
+            Assertions.assertEquals("abc", new String(readField(in, 3), StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertEquals(-1, in.readShort());
+        Assertions.assertEquals(-1, in.read());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"INT8[]", "_int8", "ARRAY", "BIT(8)", "VARBIT", "INTERVAL", "INET", "TIMETZ"})
+    public void whenNoBinaryEncoding_thenFailFast(String typeName) {
+        Table table = new Table();
+        table.setName("test");
+        table.setColumns(List.of(column("ok", "STRING", "'abc'"), column("bad", typeName, "'x'")));
+
+        IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new PgCopyStreamGenerator(null, table));
+        Assertions.assertEquals("No binary COPY encoding for column 'bad' of type '%s'".formatted(typeName),
+                ex.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PgCopyStreamGenerator.checkSupported(table));
+    }
+}
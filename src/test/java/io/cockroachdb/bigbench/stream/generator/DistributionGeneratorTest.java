@@ -0,0 +1,93 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Distribution;
+import io.cockroachdb.bigbench.model.DistributionType;
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.model.ValueSet;
+
+@Tag("unit-test")
+public class DistributionGeneratorTest {
+    private static Column column(Distribution distribution) {
+        Column column = new Column();
+        column.setName("c");
+        column.setTypeName("INT8");
+        column.setDistribution(distribution);
+        return column;
+    }
+
+    @Test
+    public void whenGeneratingScrambledZipfian_thenWithinRange() {
+        Distribution distribution = Distribution.of(DistributionType.zipfian);
+        distribution.setFrom(100L);
+        distribution.setTo(199L);
+        distribution.setScrambled(true);
+
+        ValueGenerator<?> generator = ValueGenerators.createValueGenerator(column(distribution), null, null);
+        ColumnBuffer buffer = new ColumnBuffer(1000);
+        generator.fill(buffer, 1000);
+
+        Assertions.assertTrue(buffer.isLongs());
+        for (int i = 0; i < buffer.size(); i++) {
+            long value = buffer.getLong(i);
+            Assertions.assertTrue(value >= 100 && value <= 199);
+        }
+    }
+
+    @Test
+    public void whenGeneratingLatestDates_thenSkewedTowardsEnd() {
+        Range range = new Range();
+        range.setType(RangeType.date);
+        range.setFrom("2020-01-01");
+        range.setTo("2020-12-31");
+
+        Column column = column(Distribution.of(DistributionType.latest));
+        column.setRange(range);
+
+        ValueGenerator<?> generator = ValueGenerators.createValueGenerator(column, null, null);
+
+        int recent = 0;
+        for (int i = 0; i < 1000; i++) {
+            LocalDate date = (LocalDate) generator.nextValue();
+            Assertions.assertFalse(date.isBefore(LocalDate.parse("2020-01-01")));
+            Assertions.assertFalse(date.isAfter(LocalDate.parse("2020-12-31")));
+            if (ChronoUnit.DAYS.between(date, LocalDate.parse("2020-12-31")) < 30) {
+                recent++;
+            }
+        }
+        // Uniform would put about 8% in the last 30 days
+        Assertions.assertTrue(recent > 500, "recent " + recent);
+    }
+
+    @Test
+    public void whenGeneratingSkewedValueSet_thenFirstValueIsHot() {
+        ValueSet<String> valueSet = new ValueSet<>();
+        valueSet.setValues(List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"));
+
+        Distribution distribution = Distribution.of(DistributionType.hotspot);
+        distribution.setHotSetFraction(0.1);
+        distribution.setHotAccessFraction(0.9);
+
+        Column column = column(distribution);
+        column.setValueSet(valueSet);
+
+        ValueGenerator<?> generator = ValueGenerators.createValueGenerator(column, null, null);
+
+        int hot = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if ("a".equals(generator.nextValue())) {
+                hot++;
+            }
+        }
+        Assertions.assertEquals(0.9, hot / 10_000.0, 0.02);
+    }
+}
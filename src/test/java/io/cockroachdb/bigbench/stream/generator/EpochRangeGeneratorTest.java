@@ -0,0 +1,129 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.bigbench.model.Range;
+import io.cockroachdb.bigbench.model.RangeType;
+import io.cockroachdb.bigbench.stream.CsvWriterTest;
+
+@Tag("unit-test")
+public class EpochRangeGeneratorTest {
+    private static Range range(RangeType type, String from, String to, int step, ChronoUnit unit) {
+        Range range = new Range();
+        range.setType(type);
+        range.setFrom(from);
+        range.setTo(to);
+        range.setStep(step);
+        range.setStepUnit(unit);
+        return range;
+    }
+
+    private static void assertSameAsStepping(Range range, DateTimeFormatter formatter, int count) {
+        ValueGenerator<? extends Temporal> generator = ValueGenerators.createRangeGenerator(range);
+        Assertions.assertInstanceOf(EpochRangeGenerator.class, generator);
+
+        TemporalStepGenerator expected = new TemporalStepGenerator(range);
+
+        ColumnBuffer buffer = new ColumnBuffer(count);
+        generator.fill(buffer, count);
+
+        List<String> lines = CsvWriterTest.writeColumn(buffer);
+        for (int i = 0; i < count; i++) {
+            Temporal value = expected.nextValue();
+            Assertions.assertEquals(value, buffer.get(i));
+            Assertions.assertEquals(formatter.format((TemporalAccessor) value), lines.get(i));
+        }
+    }
+
+    @Test
+    public void whenSteppingDates_thenSameAsPlus() {
+        assertSameAsStepping(range(RangeType.date, "2023-12-25", "2024-03-10", 1, ChronoUnit.DAYS),
+                DateTimeFormatter.ISO_LOCAL_DATE, 500);
+        assertSameAsStepping(range(RangeType.date, "1999-01-01", null, 2, ChronoUnit.WEEKS),
+                DateTimeFormatter.ISO_LOCAL_DATE, 500);
+    }
+
+    @Test
+    public void whenSteppingDateTimes_thenSameAsPlus() {
+        assertSameAsStepping(range(RangeType.datetime, "2024-02-28T22:59:30", "2024-03-01T02:00:00", 7, ChronoUnit.SECONDS),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME, 5000);
+        assertSameAsStepping(range(RangeType.datetime, "1960-06-30T23:00:00", null, 13, ChronoUnit.MINUTES),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME, 500);
+    }
+
+    @Test
+    public void whenSteppingTimes_thenWrapAroundMidnight() {
+        assertSameAsStepping(range(RangeType.time, "23:58:00", null, 17, ChronoUnit.SECONDS),
+                DateTimeFormatter.ISO_LOCAL_TIME, 500);
+        assertSameAsStepping(range(RangeType.time, "08:00:00", "17:00:00", 1, ChronoUnit.HOURS),
+                DateTimeFormatter.ISO_LOCAL_TIME, 50);
+    }
+
+    @Test
+    public void whenSteppingCalendarUnits_thenFallBack() {
+        Assertions.assertInstanceOf(TemporalStepGenerator.class, ValueGenerators.createRangeGenerator(
+                range(RangeType.date, "2024-01-31", null, 1, ChronoUnit.MONTHS)));
+    }
+
+    @Test
+    public void whenOffset_thenSkipValues() {
+        Range range = range(RangeType.date, "2024-01-01", "2024-01-10", 1, ChronoUnit.DAYS);
+
+        ValueGenerator<? extends Temporal> generator = ValueGenerators.createRangeGenerator(range);
+        for (int i = 0; i < 23; i++) {
+            generator.nextValue();
+        }
+
+        Assertions.assertEquals(generator.nextValue(), ValueGenerators.createRangeGenerator(range, 23).nextValue());
+    }
+
+    @Test
+    public void whenOffsetWithCalendarUnits_thenSkipValues() {
+        Range range = range(RangeType.date, "2024-01-31", "2025-01-31", 1, ChronoUnit.MONTHS);
+
+        ValueGenerator<? extends Temporal> generator = ValueGenerators.createRangeGenerator(range);
+        Assertions.assertEquals(LocalDate.parse("2024-02-29"), generator.nextValue());
+        Assertions.assertEquals(LocalDate.parse("2024-03-31"), generator.nextValue());
+        for (int i = 2; i < 29; i++) {
+            generator.nextValue();
+        }
+
+        ValueGenerator<? extends Temporal> resumed = ValueGenerators.createRangeGenerator(range, 29);
+        Assertions.assertInstanceOf(TemporalStepGenerator.class, resumed);
+        Assertions.assertEquals(generator.nextValue(), resumed.nextValue());
+        Assertions.assertEquals(generator.nextValue(), resumed.nextValue());
+    }
+
+    @Test
+    public void whenSubSecondBounds_thenKeepFractions() {
+        Range range = range(RangeType.datetime, "2024-01-01T00:00:00.250", "2024-01-02T00:00:00", 1, ChronoUnit.HOURS);
+
+        ValueGenerator<? extends Temporal> generator = ValueGenerators.createRangeGenerator(range);
+        Assertions.assertInstanceOf(TemporalStepGenerator.class, generator);
+        Assertions.assertEquals(LocalDateTime.parse("2024-01-01T01:00:00.250"), generator.nextValue());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LocalDateTimeGenerator(range));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LocalTimeRangeGenerator(
+                range(RangeType.time, "08:00:00", "17:00:00.5", 1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    public void whenNoStart_thenStepFromNowWithoutTruncation() {
+        Assertions.assertInstanceOf(TemporalStepGenerator.class, ValueGenerators.createRangeGenerator(
+                range(RangeType.time, null, null, 1, ChronoUnit.SECONDS)));
+        Assertions.assertInstanceOf(TemporalStepGenerator.class, ValueGenerators.createRangeGenerator(
+                range(RangeType.datetime, null, null, 1, ChronoUnit.SECONDS)));
+        Assertions.assertInstanceOf(LocalDateRangeGenerator.class, ValueGenerators.createRangeGenerator(
+                range(RangeType.date, null, null, 1, ChronoUnit.DAYS)));
+    }
+}
@@ -0,0 +1,74 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+
+@Tag("unit-test")
+public class LocalRowIdGeneratorTest {
+    private static LocalRowIdGenerator generator(IdentityType type) {
+        Identity identity = new Identity();
+        identity.setType(type);
+        return new LocalRowIdGenerator(identity);
+    }
+
+    @Test
+    public void whenComposingIds_thenMatchDatabaseLayout() {
+        Assertions.assertEquals((1L << 15) | 7, LocalRowIdGenerator.uniqueRowId(1, 7));
+        Assertions.assertEquals((1L << 62) | 7, LocalRowIdGenerator.unorderedUniqueRowId(1, 7));
+        Assertions.assertEquals((1L << 15) | 7, LocalRowIdGenerator.unorderedUniqueRowId(1L << 47, 7));
+    }
+
+    @Test
+    public void whenGeneratingOrdered_thenAscendingWithInstanceId() {
+        LocalRowIdGenerator generator = generator(IdentityType.local_ordered);
+        ColumnBuffer buffer = new ColumnBuffer(1000);
+        generator.fill(buffer, 1000);
+
+        long previous = 0;
+        for (int i = 0; i < buffer.size(); i++) {
+            long id = buffer.getLong(i);
+            Assertions.assertTrue(id > previous);
+            Assertions.assertTrue(id > 0);
+            Assertions.assertEquals(LocalRowIdGenerator.INSTANCE_ID, id & ((1 << 15) - 1));
+            previous = id;
+        }
+    }
+
+    @Test
+    public void whenGeneratingInParallel_thenUnique() {
+        List<CompletableFuture<Set<Long>>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    LocalRowIdGenerator generator = generator(
+                            i % 2 == 0 ? IdentityType.local_ordered : IdentityType.local_unordered);
+                    Set<Long> ids = new HashSet<>();
+                    for (int j = 0; j < 10_000; j++) {
+                        long id = generator.nextValue();
+                        Assertions.assertTrue(id > 0);
+                        ids.add(id);
+                    }
+                    return ids;
+                }))
+                .toList();
+
+        Set<Long> ordered = new HashSet<>();
+        Set<Long> unordered = new HashSet<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Set<Long> ids = futures.get(i).join();
+            Assertions.assertEquals(10_000, ids.size());
+            (i % 2 == 0 ? ordered : unordered).addAll(ids);
+        }
+
+        Assertions.assertEquals(40_000, ordered.size());
+        Assertions.assertEquals(40_000, unordered.size());
+    }
+}
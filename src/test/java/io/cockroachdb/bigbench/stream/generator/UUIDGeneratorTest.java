@@ -0,0 +1,56 @@
+package io.cockroachdb.bigbench.stream.generator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.cockroachdb.bigbench.stream.CsvWriterTest;
+import io.cockroachdb.bigbench.util.RandomData;
+import io.cockroachdb.bigbench.util.RandomSource;
+
+@Tag("unit-test")
+public class UUIDGeneratorTest {
+    @Test
+    public void whenGeneratingRandom_thenVersion4() {
+        ColumnBuffer buffer = new ColumnBuffer(100);
+        new UUIDGenerator().fill(buffer, 100);
+
+        List<String> lines = CsvWriterTest.writeColumn(buffer);
+        for (int i = 0; i < buffer.size(); i++) {
+            UUID uuid = (UUID) buffer.get(i);
+            Assertions.assertEquals(4, uuid.version());
+            Assertions.assertEquals(2, uuid.variant());
+            Assertions.assertEquals(uuid.toString(), lines.get(i));
+        }
+    }
+
+    @Test
+    public void whenGeneratingTimeOrdered_thenVersion7WithTimestamp() {
+        long now = System.currentTimeMillis();
+        UUID uuid = new UUIDGenerator(true).nextValue();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        Assertions.assertTrue((uuid.getMostSignificantBits() >>> 16) >= now);
+
+        UUID earlier = RandomData.randomUUIDv7(1_000);
+        UUID later = RandomData.randomUUIDv7(1_001);
+        Assertions.assertTrue(earlier.compareTo(later) < 0);
+        Assertions.assertEquals(earlier.toString().substring(0, 13), "00000000-03e8");
+    }
+
+    @Test
+    public void whenSeeded_thenReproducible() {
+        RandomSource.bind(new SplittableRandom(7));
+        UUID first = RandomData.randomUUID();
+        RandomSource.bind(new SplittableRandom(7));
+        UUID second = RandomData.randomUUID();
+        RandomSource.bind(null);
+
+        Assertions.assertEquals(first, second);
+    }
+}
@@ -0,0 +1,35 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class AliasTableTest {
+    @Test
+    public void whenSampling_thenFollowWeights() {
+        AliasTable table = new AliasTable(List.of(0.5, 0.0, 0.3, 0.2));
+        SplittableRandom random = new SplittableRandom(1);
+
+        int draws = 100_000;
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        Assertions.assertEquals(0, counts[1]);
+        Assertions.assertEquals(0.5, counts[0] / (double) draws, 0.01);
+        Assertions.assertEquals(0.3, counts[2] / (double) draws, 0.01);
+        Assertions.assertEquals(0.2, counts[3] / (double) draws, 0.01);
+    }
+
+    @Test
+    public void whenWeightsAreInvalid_thenThrow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+    }
+}
@@ -0,0 +1,66 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class FeistelPermutationTest {
+    @Test
+    public void whenPermutingRange_thenBijection() {
+        for (long size : new long[] {1, 2, 3, 1000, 4096, 65537}) {
+            FeistelPermutation permutation = new FeistelPermutation(size, 42);
+            BitSet seen = new BitSet((int) size);
+            for (long i = 0; i < size; i++) {
+                long value = permutation.permute(i);
+                Assertions.assertTrue(value >= 0 && value < size);
+                Assertions.assertFalse(seen.get((int) value), "Duplicate " + value);
+                seen.set((int) value);
+            }
+            Assertions.assertEquals(size, seen.cardinality());
+        }
+    }
+
+    @Test
+    public void whenPermuting_thenScatteredAndKeyed() {
+        FeistelPermutation permutation = new FeistelPermutation(1_000_000, 1);
+
+        int ascending = 0;
+        for (long i = 1; i < 1000; i++) {
+            if (permutation.permute(i) > permutation.permute(i - 1)) {
+                ascending++;
+            }
+        }
+        Assertions.assertTrue(ascending > 400 && ascending < 600, "ascending " + ascending);
+
+        Assertions.assertEquals(permutation.permute(7), new FeistelPermutation(1_000_000, 1).permute(7));
+        Assertions.assertNotEquals(permutation.permute(7), new FeistelPermutation(1_000_000, 2).permute(7));
+    }
+
+    @Test
+    public void whenPermutingFullLongRange_thenInRange() {
+        FeistelPermutation permutation = new FeistelPermutation(Long.MAX_VALUE, 0);
+        for (long i = 0; i < 1000; i++) {
+            Assertions.assertTrue(permutation.permute(i) >= 0);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+    }
+
+    @Test
+    public void whenLookingUp_thenShareInstancesPerSizeAndKey() {
+        FeistelPermutation permutation = FeistelPermutation.of(1000, 7);
+
+        Assertions.assertSame(permutation, FeistelPermutation.of(1000, 7));
+        Assertions.assertNotSame(permutation, FeistelPermutation.of(1000, 8));
+        Assertions.assertNotSame(permutation, FeistelPermutation.of(1001, 7));
+        Assertions.assertSame(permutation, FeistelPermutation.of(1000, 7));
+        Assertions.assertEquals(new FeistelPermutation(1000, 7).permute(42), permutation.permute(42));
+
+        for (int size = 1; size < 1000; size++) {
+            FeistelPermutation.of(size, 7);
+        }
+        Assertions.assertNotSame(permutation, FeistelPermutation.of(1000, 7));
+    }
+}
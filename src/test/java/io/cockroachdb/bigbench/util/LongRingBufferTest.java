@@ -0,0 +1,64 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class LongRingBufferTest {
+    @Test
+    public void whenOfferingBeyondCapacity_thenTruncate() {
+        LongRingBuffer buffer = new LongRingBuffer(3);
+        Assertions.assertEquals(4, buffer.capacity());
+
+        Assertions.assertEquals(4, buffer.offer(new long[] {1, 2, 3, 4, 5}, 0, 5));
+        Assertions.assertEquals(4, buffer.size());
+        Assertions.assertEquals(1, buffer.poll());
+        Assertions.assertEquals(2, buffer.poll());
+
+        Assertions.assertEquals(2, buffer.offer(new long[] {6, 7, 8}, 0, 3));
+        Assertions.assertEquals(3, buffer.poll());
+        Assertions.assertEquals(4, buffer.poll());
+        Assertions.assertEquals(6, buffer.poll());
+        Assertions.assertEquals(7, buffer.poll());
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertThrows(NoSuchElementException.class, buffer::poll);
+    }
+
+    @Test
+    public void whenProducingConcurrently_thenConsumeInOrder() throws InterruptedException {
+        final int total = 1_000_000;
+        LongRingBuffer buffer = new LongRingBuffer(1024);
+
+        Thread producer = Thread.ofPlatform().start(() -> {
+            long[] block = new long[100];
+            long next = 0;
+            while (next < total) {
+                int n = (int) Math.min(block.length, total - next);
+                for (int i = 0; i < n; i++) {
+                    block[i] = next + i;
+                }
+                int offset = 0;
+                while (offset < n) {
+                    offset += buffer.offer(block, offset, n - offset);
+                    Thread.onSpinWait();
+                }
+                next += n;
+            }
+        });
+
+        long expected = 0;
+        while (expected < total) {
+            if (buffer.isEmpty()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            Assertions.assertEquals(expected++, buffer.poll());
+        }
+
+        producer.join();
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+}
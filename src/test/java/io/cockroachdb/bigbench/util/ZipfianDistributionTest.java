@@ -0,0 +1,65 @@
+package io.cockroachdb.bigbench.util;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit-test")
+public class ZipfianDistributionTest {
+    @Test
+    public void whenApproximatingZeta_thenCloseToExactSum() {
+        double exact = 0;
+        for (long i = 1; i <= 3_000_000; i++) {
+            exact += 1 / Math.pow(i, 0.99);
+        }
+        Assertions.assertEquals(exact, ZipfianDistribution.zeta(3_000_000, 0.99), exact * 1e-9);
+    }
+
+    @Test
+    public void whenSampling_thenLowValuesAreMostFrequent() {
+        ZipfianDistribution distribution = ZipfianDistribution.of(1000, 0.99);
+        SplittableRandom random = new SplittableRandom(1);
+
+        int draws = 100_000;
+        int[] counts = new int[1000];
+        for (int i = 0; i < draws; i++) {
+            long value = distribution.sample(random);
+            Assertions.assertTrue(value >= 0 && value < 1000);
+            counts[(int) value]++;
+        }
+
+        Assertions.assertTrue(counts[0] > counts[1]);
+        Assertions.assertTrue(counts[1] > counts[10]);
+        Assertions.assertTrue(counts[10] > counts[500]);
+        // About 1/zeta(1000) of all samples land on the first value
+        Assertions.assertEquals(1 / ZipfianDistribution.zeta(1000, 0.99), counts[0] / (double) draws, 0.01);
+    }
+
+    @Test
+    public void whenSamplingHotspot_thenHotSetGetsAccessFraction() {
+        HotspotDistribution distribution = new HotspotDistribution(1000, 0.1, 0.9);
+        SplittableRandom random = new SplittableRandom(1);
+
+        int hot = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (distribution.sample(random) < 100) {
+                hot++;
+            }
+        }
+        Assertions.assertEquals(0.9, hot / 100_000.0, 0.01);
+    }
+
+    @Test
+    public void whenManyRanges_thenEvictLeastRecentlyUsed() {
+        ZipfianDistribution first = ZipfianDistribution.of(1, 0.5);
+        Assertions.assertSame(first, ZipfianDistribution.of(1, 0.5));
+
+        for (int items = 2; items < 1000; items++) {
+            ZipfianDistribution.of(items, 0.5);
+        }
+
+        Assertions.assertNotSame(first, ZipfianDistribution.of(1, 0.5));
+    }
+}
@@ -0,0 +1,168 @@
+package io.cockroachdb.bigbench.web;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import io.cockroachdb.bigbench.model.Column;
+import io.cockroachdb.bigbench.model.Identity;
+import io.cockroachdb.bigbench.model.IdentityType;
+import io.cockroachdb.bigbench.model.QualifiedName;
+import io.cockroachdb.bigbench.model.Table;
+import io.cockroachdb.bigbench.stream.CsvStreamGenerator;
+import io.cockroachdb.bigbench.stream.StreamCheckpoints;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("unit-test")
+public class CsvStreamControllerTest {
+    private static final String ROWS = "20000";
+
+    private static Table createTable(String tableName) {
+        Identity identity = Identity.of(IdentityType.sequence);
+        identity.setStep(1);
+
+        Column id = new Column();
+        id.setName("id");
+        id.setTypeName("INT8");
+        id.setIdentity(identity);
+
+        Column name = new Column();
+        name.setName("name");
+        name.setTypeName("STRING");
+        name.setExpression("randomFullName()");
+
+        Table table = new Table();
+        table.setSchema("public");
+        table.setName(tableName);
+        table.setColumns(List.of(id, name));
+        table.setRows(ROWS);
+        return table;
+    }
+
+    private static byte[] expectedStream(Table table) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CsvStreamGenerator generator = new CsvStreamGenerator(null, table)
+                .setIncludeHeader(true);
+        generator.setSeed(42L);
+        generator.streamTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private CsvStreamController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        controller = new CsvStreamController();
+        controller.putTable(QualifiedName.of("public", "a"), createTable("a"));
+        controller.putTable(QualifiedName.of("public", "b"), createTable("b"));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private MvcResult perform(String path, String range) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(HttpHeaders.RANGE, range))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn();
+    }
+
+    @Test
+    public void whenLengthUnknown_thenMeasureBeforeAnswering() throws Exception {
+        byte[] full = expectedStream(createTable("a"));
+
+        String key = AbstractStreamController.checkpointKey(QualifiedName.of("public", "a"),
+                ",", "", "true", ROWS, "0", "1", "42");
+
+        // A first download interrupted halfway records checkpoints but no length
+        CsvStreamGenerator interrupted = new CsvStreamGenerator(null, createTable("a"))
+                .setIncludeHeader(true)
+                .setCheckpoints(StreamCheckpoints.forKey(key))
+                .setRange(0, full.length / 2);
+        interrupted.setSeed(42L);
+        interrupted.streamTo(new ByteArrayOutputStream());
+
+        Assertions.assertNotNull(StreamCheckpoints.forKey(key).floor(full.length / 2));
+        Assertions.assertEquals(-1, StreamCheckpoints.forKey(key).length());
+
+        int first = full.length / 2;
+        MvcResult resumed = perform("/public/a.csv?rows=" + ROWS + "&seed=42", "bytes=" + first + "-");
+
+        Assertions.assertEquals(206, resumed.getResponse().getStatus());
+        Assertions.assertEquals("bytes %d-%d/%d".formatted(first, full.length - 1, full.length),
+                resumed.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        Assertions.assertEquals(Long.toString(full.length - first),
+                resumed.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(full, first, full.length),
+                resumed.getResponse().getContentAsByteArray());
+        Assertions.assertEquals(full.length, StreamCheckpoints.forKey(key).length());
+
+        MvcResult suffix = perform("/public/a.csv?rows=" + ROWS + "&seed=42", "bytes=-10");
+        Assertions.assertEquals("bytes %d-%d/%d".formatted(full.length - 10, full.length - 1, full.length),
+                suffix.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(full, full.length - 10, full.length),
+                suffix.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get("/public/a.csv?rows=" + ROWS + "&seed=42")
+                        .header(HttpHeaders.RANGE, "bytes=" + full.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + full.length));
+    }
+
+    @Test
+    public void whenAnotherTableChanges_thenKeepCheckpoints() throws Exception {
+        perform("/public/a.csv?rows=" + ROWS + "&seed=42", "bytes=100-199");
+
+        String key = AbstractStreamController.checkpointKey(QualifiedName.of("public", "a"),
+                ",", "", "true", ROWS, "0", "1", "42");
+        Assertions.assertTrue(StreamCheckpoints.forKey(key).length() > 0);
+
+        controller.putTable(QualifiedName.of("public", "b"), createTable("b"));
+        Assertions.assertTrue(StreamCheckpoints.forKey(key).length() > 0);
+
+        controller.putTable(QualifiedName.of("public", "a"), createTable("a"));
+        Assertions.assertEquals(-1, StreamCheckpoints.forKey(key).length());
+    }
+
+    @Test
+    public void whenColumnHidden_thenLeaveOutOfColumnsHeader() throws Exception {
+        Table table = createTable("d");
+        Column hidden = new Column();
+        hidden.setName("secret");
+        hidden.setTypeName("STRING");
+        hidden.setExpression("'x'");
+        hidden.setHidden(true);
+        table.setColumns(List.of(table.getColumns().get(0), hidden, table.getColumns().get(1)));
+        controller.putTable(QualifiedName.of("public", "d"), table);
+
+        MvcResult result = perform("/public/d.csv?rows=10&seed=42", "bytes=0-");
+
+        Assertions.assertEquals("id,name", result.getResponse().getHeader(AbstractStreamController.COLUMNS_HEADER));
+    }
+
+    @Test
+    public void whenNotReproducible_thenNoRanges() throws Exception {
+        Table table = createTable("c");
+        table.getColumns().get(1).setExpression("currentDateTime()");
+        controller.putTable(QualifiedName.of("public", "c"), table);
+
+        MvcResult result = perform("/public/c.csv?rows=10&seed=42", "bytes=10-19");
+
+        Assertions.assertEquals(200, result.getResponse().getStatus());
+        Assertions.assertEquals("none", result.getResponse().getHeader(HttpHeaders.ACCEPT_RANGES));
+        Assertions.assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+}